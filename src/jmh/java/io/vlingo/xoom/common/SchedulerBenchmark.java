@@ -0,0 +1,75 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the churn of scheduling and cancelling one-time notifications, as
+ * made by {@code Completes} timeouts that are almost always cancelled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SchedulerBenchmark {
+  @Param({ "singleThreaded", "timingWheel", "lanes", "deadlineBuckets" })
+  public String backend;
+
+  private final Scheduled<Object> scheduled = (scheduled, data) -> { };
+  private Scheduler scheduler;
+
+  @Setup
+  public void setUp() {
+    switch (backend) {
+    case "timingWheel":
+      scheduler = new Scheduler(Scheduler.Config.timingWheel(1, 512));
+      break;
+    case "lanes":
+      scheduler = new Scheduler(Scheduler.Config.lanesPerProcessor());
+      break;
+    case "deadlineBuckets":
+      scheduler = new Scheduler(Scheduler.Config.singleThreaded().withDeadlineBuckets(10));
+      break;
+    default:
+      scheduler = new Scheduler();
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    scheduler.close();
+  }
+
+  @Benchmark
+  public boolean scheduleOnceAndCancel() {
+    return scheduler.scheduleOnce(scheduled, null, 0L, 10_000L).cancel();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean scheduleOnceAndCancelContended() {
+    return scheduler.scheduleOnce(scheduled, null, 0L, 10_000L).cancel();
+  }
+}
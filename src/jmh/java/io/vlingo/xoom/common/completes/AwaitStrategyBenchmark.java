@@ -0,0 +1,85 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vlingo.xoom.common.Completes;
+
+/**
+ * Measures the round trip of a request completed by another thread,
+ * as awaited by each {@code AwaitStrategy}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AwaitStrategyBenchmark {
+  @Param({ "park", "spinYieldPark" })
+  public String strategy;
+
+  @Param({ "future", "basic" })
+  public String implementation;
+
+  private AwaitStrategy awaitStrategy;
+  private CompletesFactory factory;
+  private Thread responder;
+  private volatile boolean running;
+  private final AtomicReference<Completes<Integer>> request = new AtomicReference<>();
+
+  @Setup
+  public void setUp() {
+    awaitStrategy = "park".equals(strategy) ? AwaitStrategy.park() : AwaitStrategy.spinYieldPark();
+    factory = "basic".equals(implementation) ? CompletesFactory.basic() : CompletesFactory.future();
+
+    running = true;
+    responder = new Thread(() -> {
+      while (running) {
+        final Completes<Integer> completes = request.getAndSet(null);
+        if (completes != null) {
+          completes.with(1);
+        } else {
+          Thread.yield();
+        }
+      }
+    }, "responder");
+    responder.setDaemon(true);
+    responder.start();
+  }
+
+  @TearDown
+  public void tearDown() throws InterruptedException {
+    running = false;
+    responder.join();
+  }
+
+  @Benchmark
+  public Integer requestReply() {
+    final Completes<Integer> completes = factory.using(Completes.completesId(), null);
+
+    request.set(completes);
+
+    return completes.await(awaitStrategy);
+  }
+}
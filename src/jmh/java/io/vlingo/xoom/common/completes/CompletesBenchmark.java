@@ -0,0 +1,94 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vlingo.xoom.common.Completes;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CompletesBenchmark {
+  @Param({ "future", "basic" })
+  public String implementation;
+
+  private CompletesFactory factory;
+
+  @Setup
+  public void setUp() {
+    factory = "basic".equals(implementation) ? CompletesFactory.basic() : CompletesFactory.future();
+    CompletesFactory.useDefault(factory);
+  }
+
+  @TearDown
+  public void tearDown() {
+    CompletesFactory.useDefault(CompletesFactory.future());
+  }
+
+  @Benchmark
+  public Completes<Integer> createChain() {
+    return factory.<Integer>using(Completes.completesId(), null)
+            .andThen(value -> value + 1)
+            .andThen(value -> value * 2)
+            .otherwise(failed -> -1);
+  }
+
+  @Benchmark
+  public Integer createAndCompleteChain() {
+    final Completes<Integer> completes = factory.using(Completes.completesId(), null);
+
+    final Completes<Integer> chain =
+            completes
+              .andThen(value -> value + 1)
+              .andThen(value -> value * 2)
+              .otherwise(failed -> -1);
+
+    completes.with(1);
+
+    return chain.outcome();
+  }
+
+  @Benchmark
+  public Integer completeAndAwait() {
+    final Completes<Integer> completes = factory.using(Completes.completesId(), null);
+
+    final Completes<Integer> chain = completes.andThen(value -> value + 1);
+
+    completes.with(1);
+
+    return chain.await();
+  }
+
+  @Benchmark
+  public Integer composeAndAwait() {
+    final Completes<Integer> completes = factory.<Integer>using(Completes.completesId(), null).usingExecutor(CompletesExecutors.direct());
+
+    final Completes<Integer> chain = completes.andThenTo(value -> Completes.withSuccess(value + 1));
+
+    completes.with(1);
+
+    return chain.await();
+  }
+}
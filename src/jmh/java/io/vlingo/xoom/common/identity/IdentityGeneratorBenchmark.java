@@ -0,0 +1,60 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.identity;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IdentityGeneratorBenchmark {
+  @Param({ "random", "timeBased", "nameBased" })
+  public String variant;
+
+  private IdentityGenerator generator;
+
+  @Setup
+  public void setUp() {
+    switch (variant) {
+    case "timeBased":
+      generator = new IdentityGenerator.TimeBasedIdentityGenerator();
+      break;
+    case "nameBased":
+      generator = new IdentityGenerator.NameBasedIdentityGenerator();
+      break;
+    default:
+      generator = new IdentityGenerator.RandomIdentityGenerator();
+    }
+  }
+
+  @Benchmark
+  public UUID generate() {
+    return generator.generate();
+  }
+
+  @Benchmark
+  public UUID generateWithName() {
+    return generator.generate("io.vlingo.xoom.common");
+  }
+}
@@ -0,0 +1,107 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.message;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time per message to enqueue bursts of messages and await their delivery,
+ * by an executor task per message, or by batches of the {@code maxBatch} parameter, and
+ * the time to flush a single message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AsyncMessageQueueBenchmark {
+  private static final int Burst = 1000;
+  private static final Message Message = new BenchmarkMessage();
+
+  @Param({"0", "64"})
+  public int maxBatch;
+
+  private final AtomicLong delivered = new AtomicLong();
+  private AsyncMessageQueue queue;
+
+  @Setup
+  public void setUp() {
+    queue = new AsyncMessageQueue(null,
+            maxBatch == 0 ? AsyncMessageQueue.Config.perMessage() : AsyncMessageQueue.Config.batching(maxBatch));
+    queue.registerListener(message -> delivered.lazySet(delivered.get() + 1));
+  }
+
+  @TearDown
+  public void tearDown() {
+    queue.close(false);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Burst)
+  public long enqueueBurst() {
+    final long expected = delivered.get() + Burst;
+    for (int idx = 0; idx < Burst; ++idx) {
+      queue.enqueue(Message);
+    }
+    while (delivered.get() < expected) {
+      Thread.yield();
+    }
+    return expected;
+  }
+
+  @Benchmark
+  public boolean enqueueAndFlush() {
+    queue.enqueue(Message);
+    queue.flush();
+    return queue.isEmpty();
+  }
+
+  private static final class BenchmarkMessage implements Message {
+    @Override
+    public String id() {
+      return "1";
+    }
+
+    @Override
+    public Date occurredOn() {
+      return null;
+    }
+
+    @Override
+    public <T> T payload() {
+      return null;
+    }
+
+    @Override
+    public String type() {
+      return "Benchmark";
+    }
+
+    @Override
+    public String version() {
+      return "1";
+    }
+  }
+}
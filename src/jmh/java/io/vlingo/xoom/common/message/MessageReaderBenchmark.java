@@ -0,0 +1,189 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.message;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MessageReaderBenchmark {
+  static final String Json =
+          "{\"id\":\"123\",\"type\":\"OrderPlaced\",\"version\":3," +
+          "\"order\":{\"id\":\"order-123\",\"total\":129.95,\"rush\":true," +
+          "\"customer\":{\"id\":\"customer-456\",\"name\":\"Jane Doe\",\"since\":1672531200000}," +
+          "\"lines\":[{\"sku\":\"sku-1\",\"quantity\":1},{\"sku\":\"sku-2\",\"quantity\":2}]}}";
+
+  private static final MessagePath Type = MessagePath.compile("type");
+  private static final MessagePath Version = MessagePath.compile("version");
+  private static final MessagePath Total = MessagePath.compile("order", "total");
+  private static final MessagePath Rush = MessagePath.compile("order", "rush");
+  private static final MessagePath CustomerName = MessagePath.compile("order", "customer", "name");
+  private static final MessagePath CustomerSince = MessagePath.compile("order", "customer", "since");
+
+  private static final Message Payload = new JsonMessage(Json);
+
+  private MessageExchangeReader exchangeReader;
+  private Reader reader;
+
+  @Setup
+  public void setUp() {
+    exchangeReader = MessageExchangeReader.from(Payload);
+    reader = new Reader(Json);
+  }
+
+  @Benchmark
+  public void parseAndNavigate(final Blackhole blackhole) {
+    final Reader reader = new Reader(Json);
+    navigate(reader, blackhole);
+  }
+
+  @Benchmark
+  public void lazyParseAndNavigate(final Blackhole blackhole) {
+    final Reader reader = new Reader(Json, true);
+    navigate(reader, blackhole);
+  }
+
+  @Benchmark
+  public String parseAndReadType() {
+    return new Reader(Json).stringValue("type");
+  }
+
+  @Benchmark
+  public String lazyParseAndReadType() {
+    return new Reader(Json, true).stringValue("type");
+  }
+
+  @Benchmark
+  public void navigate(final Blackhole blackhole) {
+    navigate(reader, blackhole);
+  }
+
+  @Benchmark
+  public void navigateCompiled(final Blackhole blackhole) {
+    blackhole.consume(reader.stringValue(Type));
+    blackhole.consume(reader.integerValue(Version));
+    blackhole.consume(reader.doubleValue(Total));
+    blackhole.consume(reader.booleanValue(Rush));
+    blackhole.consume(reader.stringValue(CustomerName));
+    blackhole.consume(reader.longValue(CustomerSince));
+  }
+
+  @Benchmark
+  public String navigateDeepest() {
+    return reader.stringValue("order", "customer", "name");
+  }
+
+  @Benchmark
+  public String navigateDeepestCompiled() {
+    return reader.stringValue(CustomerName);
+  }
+
+  @Benchmark
+  public void payloadBoxed(final Blackhole blackhole) {
+    readBoxed(exchangeReader, blackhole);
+  }
+
+  @Benchmark
+  public void payloadPrimitive(final Blackhole blackhole) {
+    readPrimitive(exchangeReader, blackhole);
+  }
+
+  @Benchmark
+  public void lazyPayloadBoxed(final Blackhole blackhole) {
+    readBoxed(MessageExchangeReader.lazyFrom(Payload), blackhole);
+  }
+
+  @Benchmark
+  public void lazyPayloadPrimitive(final Blackhole blackhole) {
+    readPrimitive(MessageExchangeReader.lazyFrom(Payload), blackhole);
+  }
+
+  private void readBoxed(final MessageExchangeReader reader, final Blackhole blackhole) {
+    blackhole.consume(reader.payloadIntegerValue(Version));
+    blackhole.consume(reader.payloadDoubleValue(Total));
+    blackhole.consume(reader.payloadBooleanValue(Rush));
+    blackhole.consume(reader.payloadLongValue(CustomerSince));
+  }
+
+  private void readPrimitive(final MessageExchangeReader reader, final Blackhole blackhole) {
+    blackhole.consume(reader.payloadIntValue(0, Version));
+    blackhole.consume(reader.payloadDoubleValue(0, Total));
+    blackhole.consume(reader.payloadBooleanValue(false, Rush));
+    blackhole.consume(reader.payloadLongValue(0L, CustomerSince));
+  }
+
+  private void navigate(final Reader reader, final Blackhole blackhole) {
+    blackhole.consume(reader.stringValue("type"));
+    blackhole.consume(reader.integerValue("version"));
+    blackhole.consume(reader.doubleValue("order", "total"));
+    blackhole.consume(reader.booleanValue("order", "rush"));
+    blackhole.consume(reader.stringValue("order", "customer", "name"));
+    blackhole.consume(reader.longValue("order", "customer", "since"));
+  }
+
+  static class Reader extends MessageReader {
+    Reader(final String jsonRepresentation) {
+      super(jsonRepresentation);
+    }
+
+    Reader(final String jsonRepresentation, final boolean lazy) {
+      super(jsonRepresentation, lazy);
+    }
+  }
+
+  private static final class JsonMessage implements Message {
+    private final String payload;
+
+    JsonMessage(final String payload) {
+      this.payload = payload;
+    }
+
+    @Override
+    public String id() {
+      return "1";
+    }
+
+    @Override
+    public Date occurredOn() {
+      return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T payload() {
+      return (T) payload;
+    }
+
+    @Override
+    public String type() {
+      return "OrderPlaced";
+    }
+
+    @Override
+    public String version() {
+      return "3";
+    }
+  }
+}
@@ -0,0 +1,71 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.pool;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares allocating a buffer per message with acquiring it from a {@link ByteBufferPool}.
+ * Run with {@code -prof gc} to compare the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ByteBufferPoolBenchmark {
+  @Param({ "512", "16384" })
+  private int size;
+
+  private ByteBufferPool directPool;
+  private ByteBufferPool heapPool;
+
+  @Setup
+  public void setUp() {
+    directPool = new ByteBufferPool(ByteBufferPool.Config.direct(256, 65536));
+    heapPool = new ByteBufferPool(ByteBufferPool.Config.heap(256, 65536));
+  }
+
+  @Benchmark
+  public ByteBuffer allocateDirect() {
+    return ByteBuffer.allocateDirect(size).putLong(size);
+  }
+
+  @Benchmark
+  public ByteBuffer allocateHeap() {
+    return ByteBuffer.allocate(size).putLong(size);
+  }
+
+  @Benchmark
+  public ByteBuffer pooledDirect() {
+    final ByteBuffer buffer = directPool.acquire(size).putLong(size);
+    directPool.release(buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public ByteBuffer pooledHeap() {
+    final ByteBuffer buffer = heapPool.acquire(size).putLong(size);
+    heapPool.release(buffer);
+    return buffer;
+  }
+}
@@ -0,0 +1,73 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.pool;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Run with {@code -prof gc} to compare the allocation rate per operation of
+ * acquiring and releasing, including bursts that make the pool evict. Add
+ * {@code -jvmArgsAppend -XX:-DoEscapeAnalysis} to see the allocations that
+ * the JIT compiler would otherwise eliminate only when it inlines the pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ElasticResourcePoolBenchmark {
+  private static final int Burst = 32;
+
+  private ElasticResourcePool<Object, Void> pool;
+  private Object[] burst;
+
+  @Setup
+  public void setUp() {
+    pool = new ElasticResourcePool<>(ElasticResourcePool.Config.of(8), new ObjectResourceFactory());
+    burst = new Object[Burst];
+  }
+
+  @Benchmark
+  public Object acquireRelease() {
+    final Object resource = pool.acquire();
+    pool.release(resource);
+    return resource;
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Object acquireReleaseContended() {
+    final Object resource = pool.acquire();
+    pool.release(resource);
+    return resource;
+  }
+
+  @Benchmark
+  public Object[] acquireReleaseBurst() {
+    for (int i = 0; i < Burst; i++) {
+      burst[i] = pool.acquire();
+    }
+    for (int i = 0; i < Burst; i++) {
+      pool.release(burst[i]);
+    }
+    return burst;
+  }
+}
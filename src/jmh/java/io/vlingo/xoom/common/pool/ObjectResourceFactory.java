@@ -0,0 +1,34 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.pool;
+
+class ObjectResourceFactory implements ResourceFactory<Object, Void> {
+  @Override
+  public Class<Object> type() {
+    return Object.class;
+  }
+
+  @Override
+  public Object create(final Void arguments) {
+    return new Object();
+  }
+
+  @Override
+  public Void defaultArguments() {
+    return null;
+  }
+
+  @Override
+  public Object reset(final Object resource, final Void arguments) {
+    return resource;
+  }
+
+  @Override
+  public void destroy(final Object resource) {
+  }
+}
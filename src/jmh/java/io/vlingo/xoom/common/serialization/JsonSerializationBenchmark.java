@@ -0,0 +1,76 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.serialization;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonSerializationBenchmark {
+  private Order order;
+  private String serialization;
+
+  @Setup
+  public void setUp() {
+    order = new Order("order-123", "customer-456", 3, 129.95, Arrays.asList(new Line("sku-1", 1), new Line("sku-2", 2)));
+    serialization = JsonSerialization.serialized(order);
+  }
+
+  @Benchmark
+  public String serialized() {
+    return JsonSerialization.serialized(order);
+  }
+
+  @Benchmark
+  public Order deserialized() {
+    return JsonSerialization.deserialized(serialization, Order.class);
+  }
+
+  public static class Order {
+    public final String id;
+    public final String customerId;
+    public final int priority;
+    public final double total;
+    public final List<Line> lines;
+
+    public Order(final String id, final String customerId, final int priority, final double total, final List<Line> lines) {
+      this.id = id;
+      this.customerId = customerId;
+      this.priority = priority;
+      this.total = total;
+      this.lines = lines;
+    }
+  }
+
+  public static class Line {
+    public final String sku;
+    public final int quantity;
+
+    public Line(final String sku, final int quantity) {
+      this.sku = sku;
+      this.quantity = quantity;
+    }
+  }
+}
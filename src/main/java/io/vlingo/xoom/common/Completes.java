@@ -7,11 +7,16 @@
 
 package io.vlingo.xoom.common;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
-import io.vlingo.xoom.common.completes.FutureCompletes;
+import io.vlingo.xoom.common.completes.AwaitStrategy;
+import io.vlingo.xoom.common.completes.CompletesFactory;
+import io.vlingo.xoom.common.completes.CompletesFanIn;
 
 /**
  * {@code Completes<T>} models the eventual completion of an asynchronous operation
@@ -81,7 +86,7 @@ public interface Completes<T> {
    * @return {@code Completes<Byte>}
    */
   static Completes<Byte> asByte() {
-    return new FutureCompletes<>();
+    return CompletesFactory.defaultFactory().using(completesId(), null);
   }
 
   /**
@@ -90,7 +95,7 @@ public interface Completes<T> {
    * @return {@code Completes<Character>}
    */
   static Completes<Character> asCharacter() {
-    return new FutureCompletes<>();
+    return CompletesFactory.defaultFactory().using(completesId(), null);
   }
 
   /**
@@ -99,7 +104,7 @@ public interface Completes<T> {
    * @return {@code Completes<Double>}
    */
   static Completes<Double> asDouble() {
-    return new FutureCompletes<>();
+    return CompletesFactory.defaultFactory().using(completesId(), null);
   }
 
   /**
@@ -108,7 +113,7 @@ public interface Completes<T> {
    * @return {@code Completes<Float>}
    */
   static Completes<Float> asFloat() {
-    return new FutureCompletes<>();
+    return CompletesFactory.defaultFactory().using(completesId(), null);
   }
 
   /**
@@ -117,7 +122,7 @@ public interface Completes<T> {
    * @return {@code Completes<Integer>}
    */
   static Completes<Integer> asInteger() {
-    return new FutureCompletes<>();
+    return CompletesFactory.defaultFactory().using(completesId(), null);
   }
 
   /**
@@ -126,7 +131,7 @@ public interface Completes<T> {
    * @return {@code Completes<Long>}
    */
   static Completes<Long> asLong() {
-    return new FutureCompletes<>();
+    return CompletesFactory.defaultFactory().using(completesId(), null);
   }
 
   /**
@@ -135,7 +140,7 @@ public interface Completes<T> {
    * @return {@code Completes<Short>}
    */
   static Completes<Short> asShort() {
-    return new FutureCompletes<>();
+    return CompletesFactory.defaultFactory().using(completesId(), null);
   }
 
   /**
@@ -144,7 +149,7 @@ public interface Completes<T> {
    * @return {@code Completes<String>}
    */
   static Completes<String> asString() {
-    return new FutureCompletes<>();
+    return CompletesFactory.defaultFactory().using(completesId(), null);
   }
 
   /**
@@ -154,7 +159,7 @@ public interface Completes<T> {
    * @return {@code Completes<T>}
    */
   static <T> Completes<T> asTyped() {
-    return new FutureCompletes<>();
+    return CompletesFactory.defaultFactory().using(completesId(), null);
   }
 
   /**
@@ -166,7 +171,7 @@ public interface Completes<T> {
    * @return {@code Completes<T>}
    */
   static <T> Completes<T> using(final CompletesId id, final Scheduler scheduler) {
-    return new FutureCompletes<>(id, scheduler);
+    return CompletesFactory.defaultFactory().using(id, scheduler);
   }
 
   /**
@@ -177,11 +182,11 @@ public interface Completes<T> {
    * @return {@code Completes<T>}
    */
   static <T> Completes<T> using(final Scheduler scheduler) {
-    return new FutureCompletes<>(scheduler);
+    return CompletesFactory.defaultFactory().using(completesId(), scheduler);
   }
 
   static <T> Completes<T> noTimeout() {
-    return new FutureCompletes<>((Scheduler) null);
+    return CompletesFactory.defaultFactory().using(completesId(), null);
   }
 
   /**
@@ -194,7 +199,7 @@ public interface Completes<T> {
    * @return {@code Completes<T>}
    */
   static <T> Completes<T> withSuccess(final T outcome) {
-    return new FutureCompletes<>(outcome);
+    return CompletesFactory.defaultFactory().completed(outcome, true);
   }
 
   /**
@@ -207,7 +212,7 @@ public interface Completes<T> {
    * @return {@code Completes<T>}
    */
   static <T> Completes<T> withFailure(final T outcome) {
-    return new FutureCompletes<>(outcome, false);
+    return CompletesFactory.defaultFactory().completed(outcome, false);
   }
 
   /**
@@ -234,7 +239,7 @@ public interface Completes<T> {
    * @return {@code Completes<T>}
    */
   static <T> Completes<T> repeatableUsing(final Scheduler scheduler) {
-    return new FutureCompletes<>(scheduler);
+    return CompletesFactory.defaultFactory().using(completesId(), scheduler);
   }
 
   /**
@@ -249,7 +254,7 @@ public interface Completes<T> {
    * @return {@code Completes<T>}
    */
   static <T> Completes<T> repeatableWithSuccess(final T outcome) {
-    return new FutureCompletes<>(outcome, true);
+    return CompletesFactory.defaultFactory().completed(outcome, true);
   }
 
   /**
@@ -264,7 +269,7 @@ public interface Completes<T> {
    * @return {@code Completes<T>}
    */
   static <T> Completes<T> repeatableWithFailure(final T outcome) {
-    return new FutureCompletes<>(outcome, false);
+    return CompletesFactory.defaultFactory().completed(outcome, false);
   }
 
   /**
@@ -282,6 +287,82 @@ public interface Completes<T> {
     return repeatableWithFailure(null);
   }
 
+  /**
+   * Answer a new {@code Completes<List<T>>} that completes with the outcomes of all
+   * {@code completes} in their iteration order, or fails as soon as any one fails.
+   * @param completes the {@code Collection<Completes<T>>} to combine
+   * @param <T> the type of each outcome
+   * @return {@code Completes<List<T>>}
+   */
+  static <T> Completes<List<T>> all(final Collection<? extends Completes<T>> completes) {
+    return CompletesFanIn.all(completes);
+  }
+
+  /**
+   * Answer a new {@code Completes<List<T>>} that completes with the outcomes of all
+   * {@code completes} in their iteration order, or fails as soon as any one fails or
+   * when not completed within {@code timeout} milliseconds.
+   * @param completes the {@code Collection<Completes<T>>} to combine
+   * @param scheduler the Scheduler used for the timeout
+   * @param timeout the long number of milliseconds within which all must complete
+   * @param <T> the type of each outcome
+   * @return {@code Completes<List<T>>}
+   */
+  static <T> Completes<List<T>> all(final Collection<? extends Completes<T>> completes, final Scheduler scheduler, final long timeout) {
+    return CompletesFanIn.all(completes, scheduler, timeout);
+  }
+
+  /**
+   * Answer a new {@code Completes<T>} that completes with the outcome of the first
+   * of {@code completes} to complete, and fails if that one failed.
+   * @param completes the {@code Collection<Completes<T>>} to combine
+   * @param <T> the type of each outcome
+   * @return {@code Completes<T>}
+   */
+  static <T> Completes<T> any(final Collection<? extends Completes<T>> completes) {
+    return CompletesFanIn.any(completes);
+  }
+
+  /**
+   * Answer a new {@code Completes<T>} that completes with the outcome of the first
+   * of {@code completes} to complete, and fails if that one failed or when none
+   * completes within {@code timeout} milliseconds.
+   * @param completes the {@code Collection<Completes<T>>} to combine
+   * @param scheduler the Scheduler used for the timeout
+   * @param timeout the long number of milliseconds within which one must complete
+   * @param <T> the type of each outcome
+   * @return {@code Completes<T>}
+   */
+  static <T> Completes<T> any(final Collection<? extends Completes<T>> completes, final Scheduler scheduler, final long timeout) {
+    return CompletesFanIn.any(completes, scheduler, timeout);
+  }
+
+  /**
+   * Answer a new {@code Completes<T>} that completes with the outcome of the first
+   * of {@code completes} to succeed, or fails with the outcome of the last to fail
+   * when all fail.
+   * @param completes the {@code Collection<Completes<T>>} to combine
+   * @param <T> the type of each outcome
+   * @return {@code Completes<T>}
+   */
+  static <T> Completes<T> firstSuccessful(final Collection<? extends Completes<T>> completes) {
+    return CompletesFanIn.firstSuccessful(completes);
+  }
+
+  /**
+   * Answer a new {@code Completes<T>} that completes with the outcome of the first
+   * of {@code completes} to succeed, or fails with the outcome of the last to fail
+   * when all fail, or when none succeeds within {@code timeout} milliseconds.
+   * @param completes the {@code Collection<Completes<T>>} to combine
+   * @param scheduler the Scheduler used for the timeout
+   * @param timeout the long number of milliseconds within which one must succeed
+   * @param <T> the type of each outcome
+   * @return {@code Completes<T>}
+   */
+  static <T> Completes<T> firstSuccessful(final Collection<? extends Completes<T>> completes, final Scheduler scheduler, final long timeout) {
+    return CompletesFanIn.firstSuccessful(completes, scheduler, timeout);
+  }
+
   /**
    * Inverts an {@code Outcome} of {@code Completes}
    * to a {@code Completes} of {@code Outcome}.
@@ -555,6 +636,25 @@ public interface Completes<T> {
    */
   <O> O await(final long timeout);
 
+  /**
+   * Answer the {@code O} outcome after waiting indefinitely for completion
+   * by means of the given {@code strategy}.
+   * @param strategy the AwaitStrategy used to wait
+   * @param <O> the O type of outcome
+   * @return O
+   */
+  <O> O await(final AwaitStrategy strategy);
+
+  /**
+   * Answer the {@code O} outcome after waiting for a maximum of {@code timeout}
+   * milliseconds for completion by means of the given {@code strategy}.
+   * @param timeout the long maximum number of milliseconds to wait for an outcome
+   * @param strategy the AwaitStrategy used to wait
+   * @param <O> the O type of outcome
+   * @return O
+   */
+  <O> O await(final long timeout, final AwaitStrategy strategy);
+
   /**
    * Answer whether or not this {@code Completes<T>} has completed.
    * It has completed if a non-null or null outcome value was set.
@@ -630,6 +730,15 @@ public interface Completes<T> {
    */
   <F> Completes<T> useFailedOutcomeOf(final F failedOutcomeValue);
 
+  /**
+   * Answer myself after binding my pipeline to the {@code executor}, on which the
+   * asynchronous stages subsequently created from me, such as by {@code andThenTo()},
+   * are run. Unless bound, the {@code CompletesExecutors.defaultExecutor()} is used.
+   * @param executor the Executor to run asynchronous stages on
+   * @return {@code Completes<T>}
+   */
+  Completes<T> usingExecutor(final Executor executor);
+
   /**
    * Answer myself after setting my {@code outcome}. This should normally be used only
    * by internal operations or when available through an actor for its results.
@@ -643,28 +752,75 @@ public interface Completes<T> {
 
 
   /**
-   * Defines an identity for {@code Completes} instances.
+   * Defines an identity for {@code Completes} instances. Generated identities are
+   * held as a primitive {@code long} and their {@code String} value is rendered
+   * only when first requested by {@code value()} or {@code toString()}.
+   * <p>
+   * By default generated identities are taken in sequence from a single shared
+   * counter. Use {@code CompletesId.useAllocation(Allocation.ThreadLocalBlocks)} to
+   * have each thread take its identities from a block reserved from the shared
+   * counter, which avoids contending on it for every {@code Completes}. Identities
+   * remain unique, but are then ordered only within each thread.
    */
   public static class CompletesId {
+    /**
+     * The means by which generated identities are allocated.
+     */
+    public enum Allocation { Sequential, ThreadLocalBlocks }
+
+    static final int BlockSize = 1024;
+
+    private static final long Textual = -1L;
+
     private static final AtomicLong nextId = new AtomicLong();
 
-    private final String id;
+    private static final ThreadLocal<long[]> block = ThreadLocal.withInitial(() -> new long[2]);
+
+    private static volatile Allocation allocation = Allocation.Sequential;
+
+    private String id;
+    private final long number;
+
+    /**
+     * Answer the {@code Allocation} currently used for generated identities.
+     * @return Allocation
+     */
+    public static Allocation allocation() {
+      return allocation;
+    }
+
+    /**
+     * Use {@code allocation} for all identities subsequently generated.
+     * @param allocation the Allocation to use
+     */
+    public static void useAllocation(final Allocation allocation) {
+      if (allocation == null) {
+        throw new IllegalArgumentException("The Allocation must not be null.");
+      }
+      CompletesId.allocation = allocation;
+    }
 
     CompletesId() {
-      this.id = Long.toString(nextId.incrementAndGet());
+      this.number = allocation == Allocation.ThreadLocalBlocks ? nextFromBlock() : nextId.incrementAndGet();
     }
 
     CompletesId(final String id) {
       this.id = id;
+      this.number = numberOf(id);
     }
 
     public String value() {
-      return id;
+      String value = id;
+      if (value == null && number != Textual) {
+        value = Long.toString(number);
+        id = value;
+      }
+      return value;
     }
 
     @Override
     public int hashCode() {
-      return id.hashCode();
+      return number == Textual ? id.hashCode() : Long.hashCode(number);
     }
 
     @Override
@@ -677,12 +833,48 @@ public interface Completes<T> {
         return false;
       }
 
-      return id.equals(((CompletesId)other).id);
+      final CompletesId otherId = (CompletesId) other;
+
+      if (number == Textual || otherId.number == Textual) {
+        return value().equals(otherId.value());
+      }
+
+      return number == otherId.number;
     }
 
     @Override
     public String toString() {
-      return "CompletesId [id=" + id + "]";
+      return "CompletesId [id=" + value() + "]";
+    }
+
+    private static long nextFromBlock() {
+      final long[] current = block.get();
+      if (current[0] == current[1]) {
+        final long start = nextId.getAndAdd(BlockSize);
+        current[0] = start;
+        current[1] = start + BlockSize;
+      }
+      return ++current[0];
+    }
+
+    // answers the number of id when it is the canonical
+    // rendering of a non-negative long, or otherwise Textual
+    private static long numberOf(final String id) {
+      final int length = id == null ? 0 : id.length();
+
+      if (length == 0 || length > 18 || (length > 1 && id.charAt(0) == '0')) {
+        return Textual;
+      }
+
+      long number = 0;
+      for (int index = 0; index < length; ++index) {
+        final char digit = id.charAt(index);
+        if (digit < '0' || digit > '9') {
+          return Textual;
+        }
+        number = number * 10 + (digit - '0');
+      }
+      return number;
     }
   }
 }
@@ -0,0 +1,184 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A {@code SchedulerTimer} that coalesces one-time notifications into deadline
+ * buckets of {@code bucketResolution} milliseconds. Only the first notification
+ * of a bucket schedules a timer with the underlying {@code SchedulerTimer}, and
+ * when that timer fires every non-cancelled member of the bucket is signaled.
+ * Deadlines are rounded up to the end of their bucket, so no notification is
+ * delivered before it is due, and none later than one bucket after it. Repeating
+ * notifications are not coalesced.
+ */
+class DeadlineBucketSchedulerTimer implements SchedulerTimer {
+  private final ConcurrentHashMap<Long, DeadlineBucket> buckets;
+  private final long bucketNanos;
+  private final long startTime;
+  private final SchedulerTimer timer;
+
+  DeadlineBucketSchedulerTimer(final SchedulerTimer timer, final long bucketResolution) {
+    this.timer = timer;
+    this.bucketNanos = TimeUnit.MILLISECONDS.toNanos(bucketResolution);
+    this.buckets = new ConcurrentHashMap<>();
+    this.startTime = System.nanoTime();
+  }
+
+  @Override
+  public <T> Cancellable schedule(final Scheduled<T> scheduled, final T data, final long delayBefore, final long interval) {
+    return timer.schedule(scheduled, data, delayBefore, interval);
+  }
+
+  @Override
+  public <T> Cancellable scheduleOnce(final Scheduled<T> scheduled, final T data, final long delay) {
+    final Member<T> member = new Member<>(scheduled, data);
+    // relative to the start time, since System.nanoTime() may be negative and the division rounds toward zero
+    final long now = System.nanoTime() - startTime;
+    final long deadline = now + TimeUnit.MILLISECONDS.toNanos(Math.max(0L, delay));
+    final Long slot = (deadline + bucketNanos - 1) / bucketNanos;
+
+    while (true) {
+      final DeadlineBucket bucket = buckets.get(slot);
+
+      if (bucket == null) {
+        final DeadlineBucket created = new DeadlineBucket(this, slot);
+        if (buckets.putIfAbsent(slot, created) == null) {
+          created.add(member);
+          final long bucketDelay = TimeUnit.NANOSECONDS.toMillis(slot * bucketNanos - now + 999_999L);
+          timer.scheduleOnce(created, null, bucketDelay);
+          return member;
+        }
+      } else if (bucket.add(member)) {
+        return member;
+      } else {
+        // expired while being added to, so it is no longer reachable
+        buckets.remove(slot, bucket);
+      }
+    }
+  }
+
+  @Override
+  public int[] backlog() {
+    return timer.backlog();
+  }
+
+  @Override
+  public void close() {
+    timer.close();
+    buckets.clear();
+  }
+
+  //////////////////////////////////////////////////////
+  // DeadlineBucket
+  //////////////////////////////////////////////////////
+
+  /**
+   * The members whose deadlines fall into the same bucket, held as a lock-free
+   * stack that is closed to further members when the bucket's timer fires.
+   */
+  private static final class DeadlineBucket implements Scheduled<Object> {
+    private static final Member<?> Expired = new Member<>(null, null);
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<DeadlineBucket, Member> HeadUpdater =
+            AtomicReferenceFieldUpdater.newUpdater(DeadlineBucket.class, Member.class, "head");
+
+    private final Long slot;
+    private final DeadlineBucketSchedulerTimer timer;
+    private volatile Member<?> head;
+
+    DeadlineBucket(final DeadlineBucketSchedulerTimer timer, final Long slot) {
+      this.timer = timer;
+      this.slot = slot;
+    }
+
+    boolean add(final Member<?> member) {
+      while (true) {
+        final Member<?> current = head;
+        if (current == Expired) {
+          return false;
+        }
+        member.next = current;
+        if (HeadUpdater.compareAndSet(this, current, member)) {
+          return true;
+        }
+      }
+    }
+
+    @Override
+    public void intervalSignal(final Scheduled<Object> scheduled, final Object data) {
+      timer.buckets.remove(slot, this);
+
+      Member<?> member = HeadUpdater.getAndSet(this, Expired);
+
+      // reverse so that members are signaled in the order they were scheduled
+      Member<?> ordered = null;
+      while (member != null) {
+        final Member<?> next = member.next;
+        member.next = ordered;
+        ordered = member;
+        member = next;
+      }
+
+      for ( ; ordered != null; ordered = ordered.next) {
+        ordered.signal();
+      }
+    }
+  }
+
+  //////////////////////////////////////////////////////
+  // Member
+  //////////////////////////////////////////////////////
+
+  /**
+   * A single one-time notification within a {@code DeadlineBucket},
+   * which is also its own {@code Cancellable}.
+   */
+  private static final class Member<T> implements Cancellable {
+    private static final int Scheduled = 0;
+    private static final int Cancelled = 1;
+    private static final int Signaled = 2;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<Member> StateUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(Member.class, "state");
+
+    private final T data;
+    private Member<?> next;
+    private final Scheduled<T> scheduled;
+    private volatile int state;
+
+    Member(final Scheduled<T> scheduled, final T data) {
+      this.scheduled = scheduled;
+      this.data = data;
+      this.state = Scheduled;
+    }
+
+    @Override
+    public boolean cancel() {
+      return StateUpdater.compareAndSet(this, Scheduled, Cancelled);
+    }
+
+    void signal() {
+      if (!StateUpdater.compareAndSet(this, Scheduled, Signaled)) {
+        return;
+      }
+
+      try {
+        scheduled.intervalSignal(scheduled, data);
+      } catch (Throwable t) {
+        // suppressed as by a ScheduledExecutorService, so that the other members are signaled
+      }
+    }
+  }
+}
@@ -0,0 +1,96 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code SchedulerTimer} backed by a single-threaded {@code ScheduledExecutorService}.
+ */
+class ExecutorSchedulerTimer implements SchedulerTimer {
+  private final ScheduledThreadPoolExecutor timer;
+
+  ExecutorSchedulerTimer() {
+    this.timer = new ScheduledThreadPoolExecutor(1);
+  }
+
+  @Override
+  public <T> Cancellable schedule(final Scheduled<T> scheduled, final T data, final long delayBefore, final long interval) {
+    final SchedulerTask<T> schedulerTask = new SchedulerTask<>(scheduled, data, true);
+    final ScheduledFuture<?> future = timer.scheduleWithFixedDelay(schedulerTask, delayBefore, interval, TimeUnit.MILLISECONDS);
+    schedulerTask.setFuture(future);
+    return schedulerTask;
+  }
+
+  @Override
+  public <T> Cancellable scheduleOnce(final Scheduled<T> scheduled, final T data, final long delay) {
+    final SchedulerTask<T> schedulerTask = new SchedulerTask<>(scheduled, data, false);
+    final ScheduledFuture<?> future = timer.schedule(schedulerTask, delay, TimeUnit.MILLISECONDS);
+    schedulerTask.setFuture(future);
+    return schedulerTask;
+  }
+
+  @Override
+  public int[] backlog() {
+    return new int[] { backlogSize() };
+  }
+
+  int backlogSize() {
+    return timer.getQueue().size();
+  }
+
+  @Override
+  public void close() {
+    timer.shutdown();
+  }
+
+  /**
+   * Wrapper for {@code TimerTask} to care for {@code Scheduled} instances.
+   */
+  private static class SchedulerTask<T> implements Runnable, Cancellable {
+    private boolean cancelled;
+    private final Scheduled<T> scheduled;
+    private final T data;
+    private final boolean repeats;
+    private ScheduledFuture<?> future;
+
+    SchedulerTask(final Scheduled<T> scheduled, final T data, final boolean repeats) {
+      this.scheduled = scheduled;
+      this.data = data;
+      this.repeats = repeats;
+      this.cancelled = false;
+    }
+
+    @Override
+    public void run() {
+      scheduled.intervalSignal(scheduled, data);
+
+      if (!repeats) {
+        cancel();
+      }
+    }
+
+    @Override
+    public boolean cancel() {
+      cancelled = true;
+      if (future != null) {
+        return future.cancel(false);
+      }
+      return cancelled;
+    }
+
+    void setFuture(final ScheduledFuture<?> future) {
+      this.future = future;
+      if (cancelled) {
+        cancel();
+      }
+    }
+  }
+}
@@ -0,0 +1,66 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common;
+
+/**
+ * A {@code SchedulerTimer} that spreads notifications across a number of
+ * single-threaded timer lanes. Each {@code Scheduled} instance is pinned to
+ * one lane by its identity hash, so that all notifications to the same
+ * {@code Scheduled} are delivered in order by the same thread, while a slow
+ * {@code Scheduled} delays only the others that share its lane.
+ */
+class LanedSchedulerTimer implements SchedulerTimer {
+  private final ExecutorSchedulerTimer[] lanes;
+
+  LanedSchedulerTimer(final int lanes) {
+    if (lanes <= 0) {
+      throw new IllegalArgumentException("Lanes must be greater than zero.");
+    }
+
+    this.lanes = new ExecutorSchedulerTimer[lanes];
+
+    for (int idx = 0; idx < lanes; ++idx) {
+      this.lanes[idx] = new ExecutorSchedulerTimer();
+    }
+  }
+
+  @Override
+  public <T> Cancellable schedule(final Scheduled<T> scheduled, final T data, final long delayBefore, final long interval) {
+    return laneOf(scheduled).schedule(scheduled, data, delayBefore, interval);
+  }
+
+  @Override
+  public <T> Cancellable scheduleOnce(final Scheduled<T> scheduled, final T data, final long delay) {
+    return laneOf(scheduled).scheduleOnce(scheduled, data, delay);
+  }
+
+  @Override
+  public int[] backlog() {
+    final int[] backlog = new int[lanes.length];
+    for (int idx = 0; idx < lanes.length; ++idx) {
+      backlog[idx] = lanes[idx].backlogSize();
+    }
+    return backlog;
+  }
+
+  @Override
+  public void close() {
+    for (final ExecutorSchedulerTimer lane : lanes) {
+      lane.close();
+    }
+  }
+
+  static int laneIndexOf(final Scheduled<?> scheduled, final int lanes) {
+    final int hash = System.identityHashCode(scheduled);
+    return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % lanes;
+  }
+
+  private ExecutorSchedulerTimer laneOf(final Scheduled<?> scheduled) {
+    return lanes[laneIndexOf(scheduled, lanes.length)];
+  }
+}
@@ -8,19 +8,18 @@
 package io.vlingo.xoom.common;
 
 import java.time.Duration;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Provide time-based notifications to a {@code Scheduled} once or any number of
  * times until cancellation. The implementor of the {@code Scheduled} protocol
  * is not assumed to be an {@code Actor} and may be a POJO, but the notifications
  * are quite effectively used in an {@code Actor}-based asynchronous environment.
+ * <p>
+ * The timing backend is selected by the {@link Config} used to construct
+ * the {@code Scheduler}. See {@link Config} for the available backends.
  */
 public class Scheduler {
-  private final ScheduledExecutorService timer;
+  private final SchedulerTimer timer;
 
   /**
    * Answer a {@code Cancellable} for the repeating scheduled notifier.
@@ -32,10 +31,7 @@ public class Scheduler {
    * @return Cancellable
    */
   public <T> Cancellable schedule(final Scheduled<T> scheduled, final T data, final long delayBefore, final long interval) {
-    final SchedulerTask<T> schedulerTask = new SchedulerTask<>(scheduled, data, true);
-    final ScheduledFuture<?> future = timer.scheduleWithFixedDelay(schedulerTask, delayBefore, interval, TimeUnit.MILLISECONDS);
-    schedulerTask.setFuture(future);
-    return schedulerTask;
+    return timer.schedule(scheduled, data, delayBefore, interval);
   }
 
   /**
@@ -61,10 +57,7 @@ public class Scheduler {
    * @return Cancellable
    */
   public <T> Cancellable scheduleOnce(final Scheduled<T> scheduled, final T data, final long delayBefore, final long interval) {
-    final SchedulerTask<T> schedulerTask = new SchedulerTask<>(scheduled, data, false);
-    final ScheduledFuture<?> future = timer.schedule(schedulerTask, delayBefore + interval, TimeUnit.MILLISECONDS);
-    schedulerTask.setFuture(future);
-    return schedulerTask;
+    return timer.scheduleOnce(scheduled, data, delayBefore + interval);
   }
 
   /**
@@ -81,58 +74,130 @@ public class Scheduler {
   }
 
   /**
-   * Construct my default state.
+   * Construct my default state, which uses a single-threaded executor backend.
    */
   public Scheduler() {
-    this.timer = Executors.newScheduledThreadPool(1);
+    this(Config.singleThreaded());
+  }
+
+  /**
+   * Construct my state using the timing backend described by {@code config}.
+   * @param config the Config describing my timing backend
+   */
+  public Scheduler(final Config config) {
+    this.timer = config.timer();
+  }
+
+  /**
+   * Answer the number of pending notifications of each of my timer lanes,
+   * which is a single element unless I was configured with {@link Config#lanes(int)}.
+   * @return int[]
+   */
+  public int[] backlog() {
+    return timer.backlog();
   }
 
   /**
    * Close me canceling all schedule notifiers.
    */
   public void close() {
-    timer.shutdown();
+    timer.close();
   }
 
   /**
-   * Wrapper for {@code TimerTask} to care for {@code Scheduled} instances.
+   * {@link Scheduler} configuration parameters.
    */
-  private class SchedulerTask<T> implements Runnable, Cancellable {
-    private boolean cancelled;
-    private final Scheduled<T> scheduled;
-    private final T data;
-    private final boolean repeats;
-    private ScheduledFuture<?> future;
-
-    SchedulerTask(final Scheduled<T> scheduled, final T data, final boolean repeats) {
-      this.scheduled = scheduled;
-      this.data = data;
-      this.repeats = repeats;
-      this.cancelled = false;
+  public static final class Config {
+    private enum Backend { Laned, SingleThreaded, TimingWheel }
+
+    final Backend backend;
+    final long bucketResolution;
+    final int lanes;
+    final long tickResolution;
+    final int ticksPerWheel;
+
+    /**
+     * Answer the {@code Config} of the default backend, a single-threaded
+     * {@code ScheduledExecutorService}.
+     * @return Config
+     */
+    public static Config singleThreaded() {
+      return new Config(Backend.SingleThreaded, 1, 0L, 0, 0L);
     }
 
-    @Override
-    public void run() {
-      scheduled.intervalSignal(scheduled, data);
+    /**
+     * Answer the {@code Config} of a backend of {@code lanes} single-threaded
+     * timer lanes. Each {@code Scheduled} is pinned to one lane, so its
+     * notifications retain their order while different {@code Scheduled}
+     * instances are notified in parallel.
+     * @param lanes the int number of timer lanes, each with its own thread
+     * @return Config
+     */
+    public static Config lanes(final int lanes) {
+      return new Config(Backend.Laned, lanes, 0L, 0, 0L);
+    }
 
-      if (!repeats) {
-        cancel();
-      }
+    /**
+     * Answer the {@code Config} of a backend with one timer lane per available processor.
+     * @return Config
+     * @see Config#lanes(int)
+     */
+    public static Config lanesPerProcessor() {
+      return lanes(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Answer the {@code Config} of a hashed timing wheel backend, which schedules
+     * and cancels in O(1) and so suits very large numbers of short-lived timeouts,
+     * such as those of {@code Completes} pipelines. Notifications are delivered
+     * no more than one {@code tickResolution} after their deadline.
+     * @param tickResolution the long number of milliseconds between each tick of the wheel
+     * @param ticksPerWheel the int number of buckets of the wheel, rounded up to a power of two
+     * @return Config
+     */
+    public static Config timingWheel(final long tickResolution, final int ticksPerWheel) {
+      return new Config(Backend.TimingWheel, 1, tickResolution, ticksPerWheel, 0L);
     }
 
-    @Override
-    public boolean cancel() {
-      cancelled = true;
-      if (future != null) {
-        return future.cancel(false);
+    /**
+     * Answer a copy of this {@code Config} that coalesces one-time notifications,
+     * such as {@code Completes} timeouts, into deadline buckets of {@code bucketResolution}
+     * milliseconds. A single timer is scheduled per bucket, which signals every
+     * member of the bucket when it fires. Deadlines are rounded up to the end of
+     * their bucket, so notifications may be delivered up to {@code bucketResolution}
+     * late, but never early. Repeating notifications are not affected.
+     * @param bucketResolution the long number of milliseconds spanned by each deadline bucket
+     * @return Config
+     */
+    public Config withDeadlineBuckets(final long bucketResolution) {
+      if (bucketResolution <= 0) {
+        throw new IllegalArgumentException("Bucket resolution must be greater than zero.");
       }
-      return cancelled;
+      return new Config(backend, lanes, tickResolution, ticksPerWheel, bucketResolution);
+    }
+
+    private Config(final Backend backend, final int lanes, final long tickResolution, final int ticksPerWheel, final long bucketResolution) {
+      this.backend = backend;
+      this.lanes = lanes;
+      this.tickResolution = tickResolution;
+      this.ticksPerWheel = ticksPerWheel;
+      this.bucketResolution = bucketResolution;
+    }
+
+    SchedulerTimer timer() {
+      final SchedulerTimer timer = backendTimer();
+      return bucketResolution > 0 ? new DeadlineBucketSchedulerTimer(timer, bucketResolution) : timer;
     }
 
-    void setFuture(final ScheduledFuture<?> future) {
-      this.future = future;
-      if (cancelled) {
-        cancel();
+    private SchedulerTimer backendTimer() {
+      switch (backend) {
+      case Laned:
+        return new LanedSchedulerTimer(lanes);
+      case TimingWheel:
+        return new TimingWheelSchedulerTimer(tickResolution, ticksPerWheel);
+      case SingleThreaded:
+      default:
+        return new ExecutorSchedulerTimer();
       }
     }
   }
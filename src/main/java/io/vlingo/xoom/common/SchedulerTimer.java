@@ -0,0 +1,48 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common;
+
+/**
+ * The timing backend used by a {@code Scheduler} to deliver notifications
+ * to {@code Scheduled} instances. The backend is selected by the
+ * {@code Scheduler.Config} used to construct the {@code Scheduler}.
+ */
+interface SchedulerTimer {
+  /**
+   * Answer a {@code Cancellable} for the repeating scheduled notifier.
+   * @param scheduled the {@code Scheduled<T>} to receive notifications
+   * @param data the T data to be sent with each notification
+   * @param delayBefore the long number of milliseconds before notification interval timing will begin
+   * @param interval the long number of milliseconds between each notification
+   * @param <T> the type of data to be sent with each notification
+   * @return Cancellable
+   */
+  <T> Cancellable schedule(final Scheduled<T> scheduled, final T data, final long delayBefore, final long interval);
+
+  /**
+   * Answer a {@code Cancellable} for a single scheduled notifier.
+   * @param scheduled the {@code Scheduled<T>} to receive the notification
+   * @param data the T data to be sent with the notification
+   * @param delay the long number of milliseconds before the single notification
+   * @param <T> the type of data to be sent with the notification
+   * @return Cancellable
+   */
+  <T> Cancellable scheduleOnce(final Scheduled<T> scheduled, final T data, final long delay);
+
+  /**
+   * Answer the number of pending notifications of each of my timer lanes.
+   * A backend with a single lane answers an array of one element.
+   * @return int[]
+   */
+  int[] backlog();
+
+  /**
+   * Close me canceling all schedule notifiers.
+   */
+  void close();
+}
@@ -0,0 +1,323 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@code SchedulerTimer} backed by a hashed timing wheel. Scheduling and
+ * cancellation are O(1): new timeouts are handed to the wheel thread through a
+ * lock-free queue and placed into the bucket of their deadline tick, and
+ * cancellations are queued for removal from their bucket on the next tick.
+ * Notifications are delivered on the wheel thread no earlier than their deadline
+ * and no later than one tick after it, so the tick resolution trades timer
+ * precision for wake-ups.
+ */
+class TimingWheelSchedulerTimer implements SchedulerTimer, Runnable {
+  private static final int MaxTransfersPerTick = 100_000;
+
+  private final Queue<Timeout<?>> cancellations;
+  private volatile boolean open;
+  private final Queue<Timeout<?>> pending;
+  private volatile int placed; // written only by the wheel thread
+  private final long startTime;
+  private long tick;
+  private final long tickNanos;
+  private final Bucket[] wheel;
+  private final int wheelMask;
+  private final Thread worker;
+
+  TimingWheelSchedulerTimer(final long tickResolution, final int ticksPerWheel) {
+    if (tickResolution <= 0) {
+      throw new IllegalArgumentException("Tick resolution must be greater than zero.");
+    }
+    if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+      throw new IllegalArgumentException("Ticks per wheel must be between 1 and 2^30.");
+    }
+
+    this.cancellations = new ConcurrentLinkedQueue<>();
+    this.pending = new ConcurrentLinkedQueue<>();
+    this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickResolution);
+    this.wheel = newWheel(ticksPerWheel);
+    this.wheelMask = wheel.length - 1;
+    this.open = true;
+    this.startTime = System.nanoTime();
+    this.worker = new Thread(this, "xoom-scheduler-wheel");
+    this.worker.setDaemon(true);
+    this.worker.start();
+  }
+
+  @Override
+  public <T> Cancellable schedule(final Scheduled<T> scheduled, final T data, final long delayBefore, final long interval) {
+    if (interval <= 0) {
+      throw new IllegalArgumentException("Interval must be greater than zero.");
+    }
+    return enqueue(new Timeout<>(this, scheduled, data, deadlineFrom(delayBefore), interval));
+  }
+
+  @Override
+  public <T> Cancellable scheduleOnce(final Scheduled<T> scheduled, final T data, final long delay) {
+    return enqueue(new Timeout<>(this, scheduled, data, deadlineFrom(delay), 0L));
+  }
+
+  @Override
+  public int[] backlog() {
+    return new int[] { placed + pending.size() };
+  }
+
+  @Override
+  public void close() {
+    open = false;
+    LockSupport.unpark(worker);
+  }
+
+  @Override
+  public void run() {
+    while (open) {
+      final long now = waitForNextTick();
+      if (now >= 0) {
+        processCancellations();
+        transferPending();
+        wheel[(int) (tick & wheelMask)].expire(now);
+        ++tick;
+      }
+    }
+
+    for (final Bucket bucket : wheel) {
+      bucket.clear();
+    }
+    pending.clear();
+    cancellations.clear();
+  }
+
+  private <T> Timeout<T> enqueue(final Timeout<T> timeout) {
+    if (open) {
+      pending.add(timeout);
+    }
+    return timeout;
+  }
+
+  private long deadlineFrom(final long delay) {
+    return System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(0L, delay));
+  }
+
+  private long waitForNextTick() {
+    final long deadline = tickNanos * (tick + 1);
+
+    while (true) {
+      final long now = System.nanoTime() - startTime;
+      final long sleepNanos = deadline - now;
+
+      if (sleepNanos <= 0) {
+        return now;
+      }
+
+      LockSupport.parkNanos(this, sleepNanos);
+
+      if (!open) {
+        return -1L;
+      }
+    }
+  }
+
+  private void processCancellations() {
+    for (Timeout<?> timeout = cancellations.poll(); timeout != null; timeout = cancellations.poll()) {
+      if (timeout.bucket != null) {
+        timeout.bucket.remove(timeout);
+      }
+    }
+  }
+
+  private void transferPending() {
+    for (int count = 0; count < MaxTransfersPerTick; ++count) {
+      final Timeout<?> timeout = pending.poll();
+      if (timeout == null) {
+        return;
+      }
+      if (!timeout.isCancelled()) {
+        place(timeout);
+      }
+    }
+  }
+
+  private void place(final Timeout<?> timeout) {
+    final long deadlineTick = timeout.deadline / tickNanos;
+    timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+    wheel[(int) (Math.max(deadlineTick, tick) & wheelMask)].add(timeout);
+  }
+
+  private void reschedule(final Timeout<?> timeout) {
+    if (open && !timeout.isCancelled()) {
+      timeout.deadline = System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(timeout.interval);
+      // placed on the next tick so that a short interval cannot land in the bucket being expired
+      pending.add(timeout);
+    }
+  }
+
+  private static Bucket[] newWheel(final int ticksPerWheel) {
+    int size = 1;
+    while (size < ticksPerWheel) {
+      size <<= 1;
+    }
+    final Bucket[] wheel = new Bucket[size];
+    for (int idx = 0; idx < size; ++idx) {
+      wheel[idx] = new Bucket();
+    }
+    return wheel;
+  }
+
+  //////////////////////////////////////////////////////
+  // Bucket
+  //////////////////////////////////////////////////////
+
+  /**
+   * A doubly-linked list of the {@code Timeout} instances hashed to
+   * a single tick of the wheel. Accessed only by the wheel thread.
+   */
+  private static final class Bucket {
+    private Timeout<?> head;
+    private Timeout<?> tail;
+
+    void add(final Timeout<?> timeout) {
+      ++timeout.timer.placed;
+      timeout.bucket = this;
+      if (head == null) {
+        head = tail = timeout;
+      } else {
+        tail.next = timeout;
+        timeout.previous = tail;
+        tail = timeout;
+      }
+    }
+
+    void clear() {
+      while (head != null) {
+        remove(head);
+      }
+    }
+
+    void expire(final long now) {
+      Timeout<?> timeout = head;
+
+      while (timeout != null) {
+        final Timeout<?> next = timeout.next;
+
+        if (timeout.isCancelled()) {
+          remove(timeout);
+        } else if (timeout.remainingRounds <= 0) {
+          remove(timeout);
+          if (timeout.deadline <= now) {
+            timeout.fire();
+          } else {
+            timeout.timer.pending.add(timeout);
+          }
+        } else {
+          --timeout.remainingRounds;
+        }
+
+        timeout = next;
+      }
+    }
+
+    void remove(final Timeout<?> timeout) {
+      --timeout.timer.placed;
+      if (timeout.previous != null) {
+        timeout.previous.next = timeout.next;
+      }
+      if (timeout.next != null) {
+        timeout.next.previous = timeout.previous;
+      }
+      if (timeout == head) {
+        head = timeout.next;
+      }
+      if (timeout == tail) {
+        tail = timeout.previous;
+      }
+      timeout.previous = null;
+      timeout.next = null;
+      timeout.bucket = null;
+    }
+  }
+
+  //////////////////////////////////////////////////////
+  // Timeout
+  //////////////////////////////////////////////////////
+
+  /**
+   * A single scheduled notification, which is also its own {@code Cancellable}
+   * and the intrusive node of the {@code Bucket} list it is placed in.
+   */
+  private static final class Timeout<T> implements Cancellable {
+    private static final int Scheduled = 0;
+    private static final int Cancelled = 1;
+    private static final int Expired = 2;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<Timeout> StateUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+    private final T data;
+    private final long interval;
+    private final Scheduled<T> scheduled;
+    private final TimingWheelSchedulerTimer timer;
+    private volatile int state;
+
+    // owned by the wheel thread
+    private Bucket bucket;
+    private long deadline;
+    private Timeout<?> next;
+    private Timeout<?> previous;
+    private long remainingRounds;
+
+    Timeout(final TimingWheelSchedulerTimer timer, final Scheduled<T> scheduled, final T data, final long deadline, final long interval) {
+      this.timer = timer;
+      this.scheduled = scheduled;
+      this.data = data;
+      this.deadline = deadline;
+      this.interval = interval;
+      this.state = Scheduled;
+    }
+
+    @Override
+    public boolean cancel() {
+      if (!StateUpdater.compareAndSet(this, Scheduled, Cancelled)) {
+        return false;
+      }
+      timer.cancellations.add(this);
+      return true;
+    }
+
+    boolean isCancelled() {
+      return state == Cancelled;
+    }
+
+    void fire() {
+      final boolean repeats = interval > 0;
+
+      if (!repeats && !StateUpdater.compareAndSet(this, Scheduled, Expired)) {
+        return;
+      }
+
+      try {
+        scheduled.intervalSignal(scheduled, data);
+      } catch (Throwable t) {
+        // as for a ScheduledExecutorService, the failure is suppressed and a repeating notification ends
+        StateUpdater.compareAndSet(this, Scheduled, Expired);
+        return;
+      }
+
+      if (repeats) {
+        timer.reschedule(this);
+      }
+    }
+  }
+}
@@ -0,0 +1,20 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+final class AwaitStrategies {
+  static final AwaitStrategy Park = new ParkAwaitStrategy();
+
+  // spinning only delays the completing thread when there is a single processor
+  static final AwaitStrategy SpinYieldPark =
+          new SpinYieldParkAwaitStrategy(Runtime.getRuntime().availableProcessors() > 1 ? 1_000 : 0, 100);
+
+  static volatile AwaitStrategy defaultStrategy = Park;
+
+  private AwaitStrategies() { }
+}
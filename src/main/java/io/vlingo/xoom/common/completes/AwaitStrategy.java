@@ -0,0 +1,101 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+/**
+ * Defines how a thread waits in {@code Completes.await()} for a {@code Completes<T>}
+ * to complete. Waiting never throws; the answer tells whether it completed.
+ * <p>
+ * {@link #park()} blocks at once, which is the least costly in CPU. {@link #spinYieldPark()}
+ * first busy-spins and then yields before blocking, which trades CPU for lower latency
+ * when outcomes usually arrive within microseconds. The {@link #park()} strategy is
+ * used by default; use {@link #useDefault(AwaitStrategy)} to select another.
+ */
+public interface AwaitStrategy {
+  /**
+   * The timeout that indicates waiting indefinitely.
+   */
+  long Indefinitely = -1L;
+
+  /**
+   * Answer the {@code AwaitStrategy} that blocks at once until completion.
+   * @return AwaitStrategy
+   */
+  static AwaitStrategy park() {
+    return AwaitStrategies.Park;
+  }
+
+  /**
+   * Answer the {@code AwaitStrategy} that spins and yields a default number of
+   * times before blocking until completion.
+   * @return AwaitStrategy
+   */
+  static AwaitStrategy spinYieldPark() {
+    return AwaitStrategies.SpinYieldPark;
+  }
+
+  /**
+   * Answer a new {@code AwaitStrategy} that spins {@code spins} times and then
+   * yields {@code yields} times before blocking until completion.
+   * @param spins the int number of busy-spin checks, which may be 0
+   * @param yields the int number of yielding checks, which may be 0
+   * @return AwaitStrategy
+   */
+  static AwaitStrategy spinYieldPark(final int spins, final int yields) {
+    return new SpinYieldParkAwaitStrategy(spins, yields);
+  }
+
+  /**
+   * Answer the {@code AwaitStrategy} currently used by {@code Completes.await()}.
+   * @return AwaitStrategy
+   */
+  static AwaitStrategy defaultStrategy() {
+    return AwaitStrategies.defaultStrategy;
+  }
+
+  /**
+   * Use {@code strategy} for all subsequent {@code Completes.await()} that do
+   * not specify their own.
+   * @param strategy the AwaitStrategy to use
+   */
+  static void useDefault(final AwaitStrategy strategy) {
+    if (strategy == null) {
+      throw new IllegalArgumentException("The AwaitStrategy must not be null.");
+    }
+    AwaitStrategies.defaultStrategy = strategy;
+  }
+
+  /**
+   * Answer whether {@code awaitable} completed after waiting for it at most
+   * {@code timeout} nanoseconds, or without limit when {@code timeout} is {@link #Indefinitely}.
+   * @param awaitable the Awaitable to wait on
+   * @param timeout the long maximum number of nanoseconds to wait, or Indefinitely
+   * @return boolean
+   */
+  boolean await(final Awaitable awaitable, final long timeout);
+
+  /**
+   * Something that an {@code AwaitStrategy} waits on.
+   */
+  interface Awaitable {
+    /**
+     * Answer whether I have completed.
+     * @return boolean
+     */
+    boolean isReady();
+
+    /**
+     * Answer whether I completed after blocking the current thread for at most
+     * {@code timeout} nanoseconds, or without limit when {@code timeout} is
+     * {@code Indefinitely}. Answers early without throwing when the thread is interrupted.
+     * @param timeout the long maximum number of nanoseconds to block, or Indefinitely
+     * @return boolean
+     */
+    boolean block(final long timeout);
+  }
+}
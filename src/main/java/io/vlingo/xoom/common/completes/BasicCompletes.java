@@ -0,0 +1,950 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import io.vlingo.xoom.common.Cancellable;
+import io.vlingo.xoom.common.Completes;
+import io.vlingo.xoom.common.Scheduled;
+import io.vlingo.xoom.common.Scheduler;
+import io.vlingo.xoom.common.completes.CompletesInstrumentation.Stage;
+
+/**
+ * A {@code Completes<T>} that behaves as {@link FutureCompletes} but in which each
+ * stage of a pipeline is a single object. A stage holds its completion, failure,
+ * timeout and repeat state in one status word that is updated by compare-and-set,
+ * and its continuations in an intrusive linked list of the following stages, rather
+ * than wrapping a {@code CompletableFuture} and a number of atomic holders per stage.
+ * <p>
+ * Use {@link CompletesFactory#basic()} to create instances through the
+ * {@code Completes} factory methods.
+ *
+ * @param <T> the type that is expected as the outcome (return value)
+ */
+public class BasicCompletes<T> implements Completes<T>, Scheduled<Object>, AwaitStrategy.Awaitable {
+  private static final long NoTimeout = -1L;
+
+  // status word
+  private static final int Completing = 1;
+  private static final int Done = 1 << 1;
+  private static final int Exceptional = 1 << 2;
+  private static final int OutcomeSet = 1 << 3;
+  private static final int Failed = 1 << 4;
+  private static final int TimedOut = 1 << 5;
+  private static final int Repeats = 1 << 6;
+  private static final int Triggered = 1 << 7;
+
+  private static final int Completed = Done | Exceptional;
+
+  // stage kinds
+  private static final byte Root = 0;
+  private static final byte Apply = 1;
+  private static final byte Accept = 2;
+  private static final byte Compose = 3;
+  private static final byte Otherwise = 4;
+  private static final byte OtherwiseAccept = 5;
+  private static final byte Recover = 6;
+  private static final byte Observe = 7;
+
+  private static final Stage[] Stages =
+          { Stage.Root, Stage.AndThen, Stage.AndThenConsume, Stage.AndThenTo, Stage.Otherwise, Stage.OtherwiseConsume, Stage.RecoverFrom };
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicIntegerFieldUpdater<BasicCompletes> StatusUpdater =
+          AtomicIntegerFieldUpdater.newUpdater(BasicCompletes.class, "status");
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<BasicCompletes, BasicCompletes> ContinuationsUpdater =
+          AtomicReferenceFieldUpdater.newUpdater(BasicCompletes.class, BasicCompletes.class, "continuations");
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<BasicCompletes, Waiter> WaitersUpdater =
+          AtomicReferenceFieldUpdater.newUpdater(BasicCompletes.class, Waiter.class, "waiters");
+
+  private final Object action;
+  private Cancellable cancellable;
+  private volatile BasicCompletes<?> continuations;
+  private long created;
+  private volatile Executor executor;
+  private volatile Object failureValue;
+  private final CompletesId id;
+  private final byte kind;
+  private volatile BasicCompletes<?> next;
+  private volatile Object outcome;
+  private final BasicCompletes<?> previous;
+  private final Scheduler scheduler;
+  private BasicCompletes<?> sibling;
+  private volatile int status;
+  private volatile Object value;
+  private volatile Waiter waiters;
+
+  public BasicCompletes(final CompletesId id, final Scheduler scheduler) {
+    this.id = id;
+    this.scheduler = scheduler;
+    this.kind = Root;
+    this.action = null;
+    this.previous = null;
+    this.created = CompletesInstrumentation.Enabled ? System.nanoTime() : 0L;
+  }
+
+  public BasicCompletes(final Scheduler scheduler) {
+    this(Completes.completesId(), scheduler);
+  }
+
+  public BasicCompletes(final CompletesId id, final T outcome, final boolean successful) {
+    this(id, (Scheduler) null);
+
+    if (!successful) {
+      useFailedOutcomeOf(outcome);
+    }
+
+    with(outcome);
+  }
+
+  public BasicCompletes(final T outcome, final boolean successful) {
+    this(Completes.completesId(), outcome, successful);
+  }
+
+  public BasicCompletes(final CompletesId id, final T outcome) {
+    this(id, outcome, true);
+  }
+
+  public BasicCompletes(final T outcome) {
+    this(Completes.completesId(), outcome);
+  }
+
+  public BasicCompletes(final CompletesId id) {
+    this(id, (Scheduler) null);
+  }
+
+  public BasicCompletes() {
+    this(Completes.completesId());
+  }
+
+  @Override
+  public <O> Completes<O> andThen(final long timeout, final O failedOutcomeValue, final Function<T, O> function) {
+    return this.<O>stage(Apply, function, failedOutcomeValue).timeoutWithin(timeout);
+  }
+
+  @Override
+  public <O> Completes<O> andThen(final O failedOutcomeValue, final Function<T, O> function) {
+    return andThen(NoTimeout, failedOutcomeValue, function);
+  }
+
+  @Override
+  public <O> Completes<O> andThen(final long timeout, final Function<T, O> function) {
+    return andThen(timeout, null, function);
+  }
+
+  @Override
+  public <O> Completes<O> andThen(final Function<T, O> function) {
+    return andThen(NoTimeout, null, function);
+  }
+
+  @Override
+  public Completes<T> andThenConsume(final long timeout, final T failedOutcomeValue, final Consumer<T> consumer) {
+    return this.<T>stage(Accept, consumer, failedOutcomeValue).timeoutWithin(timeout);
+  }
+
+  @Override
+  public Completes<T> andThenConsume(final T failedOutcomeValue, final Consumer<T> consumer) {
+    return andThenConsume(NoTimeout, failedOutcomeValue, consumer);
+  }
+
+  @Override
+  public Completes<T> andThenConsume(final long timeout, final Consumer<T> consumer) {
+    return andThenConsume(timeout, null, consumer);
+  }
+
+  @Override
+  public Completes<T> andThenConsume(final Consumer<T> consumer) {
+    return andThenConsume(NoTimeout, null, consumer);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <F, O> O andThenTo(final long timeout, final F failedOutcomeValue, final Function<T, O> function) {
+    return (O) stage(Compose, function, failedOutcomeValue).timeoutWithin(timeout);
+  }
+
+  @Override
+  public <F, O> O andThenTo(final F failedOutcomeValue, final Function<T, O> function) {
+    return andThenTo(NoTimeout, failedOutcomeValue, function);
+  }
+
+  @Override
+  public <O> O andThenTo(final long timeout, final Function<T, O> function) {
+    return andThenTo(timeout, null, function);
+  }
+
+  @Override
+  public <O> O andThenTo(final Function<T, O> function) {
+    return andThenTo(NoTimeout, null, function);
+  }
+
+  @Override
+  public <E> Completes<T> otherwise(final Function<E, T> function) {
+    return stage(Otherwise, function, null);
+  }
+
+  @Override
+  public Completes<T> otherwiseConsume(final Consumer<T> consumer) {
+    return stage(OtherwiseAccept, consumer, null);
+  }
+
+  @Override
+  public Completes<T> recoverFrom(final Function<Throwable, T> function) {
+    return stage(Recover, function, null);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <O> Completes<O> andFinally() {
+    // no-op
+    return (Completes<O>) this;
+  }
+
+  @Override
+  public <O> Completes<O> andFinally(final Function<T, O> function) {
+    return stage(Apply, function, null);
+  }
+
+  @Override
+  public void andFinallyConsume(final Consumer<T> consumer) {
+    stage(Accept, consumer, null);
+  }
+
+  @Override
+  public <O> O await() {
+    return awaitNanos(AwaitStrategy.Indefinitely, AwaitStrategy.defaultStrategy());
+  }
+
+  @Override
+  public <O> O await(final long timeout) {
+    return awaitNanos(TimeUnit.MILLISECONDS.toNanos(timeout), AwaitStrategy.defaultStrategy());
+  }
+
+  @Override
+  public <O> O await(final AwaitStrategy strategy) {
+    return awaitNanos(AwaitStrategy.Indefinitely, strategy);
+  }
+
+  @Override
+  public <O> O await(final long timeout, final AwaitStrategy strategy) {
+    return awaitNanos(TimeUnit.MILLISECONDS.toNanos(timeout), strategy);
+  }
+
+  @Override
+  public boolean isReady() {
+    return isCompleted();
+  }
+
+  @Override
+  public boolean block(final long timeout) {
+    final Thread thread = Thread.currentThread();
+    final boolean timed = timeout != AwaitStrategy.Indefinitely;
+    final long deadline = timed ? System.nanoTime() + timeout : 0L;
+
+    final Waiter waiter = new Waiter(thread);
+    while (true) {
+      final Waiter head = waiters;
+      waiter.next = head;
+      if (WaitersUpdater.compareAndSet(this, head, waiter)) {
+        break;
+      }
+    }
+
+    while (!isCompleted()) {
+      if (thread.isInterrupted()) {
+        removeWaiter(waiter);
+        return false;
+      }
+      if (timed) {
+        final long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          removeWaiter(waiter);
+          return false;
+        }
+        LockSupport.parkNanos(this, remaining);
+      } else {
+        LockSupport.park(this);
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public boolean isCompleted() {
+    return (status & (OutcomeSet | Completed)) != 0;
+  }
+
+  @Override
+  public boolean hasFailed() {
+    return (status & (Failed | Exceptional)) != 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void failed() {
+    with((T) failureValue);
+  }
+
+  @Override
+  public void failed(final Exception exception) {
+    completeExceptionally(exception);
+  }
+
+  @Override
+  public CompletesId id() {
+    return id;
+  }
+
+  @Override
+  public boolean hasOutcome() {
+    return (status & OutcomeSet) != 0 && outcome != null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T outcome() {
+    if (isCompleted()) {
+      return (T) ultimateOutcome();
+    }
+    return null;
+  }
+
+  @Override
+  public Completes<T> repeat() {
+    for (BasicCompletes<?> stage = this; stage != null; stage = stage.previous) {
+      stage.setStatus(Repeats);
+    }
+    return this;
+  }
+
+  @Override
+  public Completes<T> timeoutWithin(final long timeout) {
+    if (timeout > 0 && scheduler != null && cancellable == null) {
+      cancellable = scheduler.scheduleOnce(this, null, 0L, timeout);
+    }
+    return this;
+  }
+
+  @Override
+  public Completes<T> usingExecutor(final Executor executor) {
+    if (executor == null) {
+      throw new IllegalArgumentException("The Executor must not be null.");
+    }
+    this.executor = executor;
+    return this;
+  }
+
+  @Override
+  public <F> Completes<T> useFailedOutcomeOf(final F failedOutcomeValue) {
+    final Object currentFailureValue = failureValue;
+
+    if (currentFailureValue == failedOutcomeValue) return this;
+
+    if (currentFailureValue != null && failedOutcomeValue == null) return this;
+
+    if (currentFailureValue != null && currentFailureValue.equals(failedOutcomeValue)) return this;
+
+    failureValue = failedOutcomeValue;
+
+    return this;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <O> Completes<O> with(final O outcome) {
+    resetAll();
+    complete(outcome);
+    return (Completes<O>) this;
+  }
+
+  @Override
+  public void intervalSignal(final Scheduled<Object> scheduled, final Object data) {
+    cancelTimer();
+    if ((status & Completed) != 0) return;
+    if (CompletesInstrumentation.Enabled) {
+      CompletesInstrumentation.current().timedOut(Stages[kind]);
+    }
+    failAllFollowing(failureValue, true);
+  }
+
+  @Override
+  public String toString() {
+    return "BasicCompletes [id=" + id + ", next=" + (next != null ? next.id() : "(none)")
+            + ", outcome=" + outcome
+            + ", failed=" + hasFailed()
+            + ", handlesFailure=" + handlesFailure()
+            + ", timedOut=" + isTimedOut() + "]";
+  }
+
+  /**
+   * Answer a {@code CompletableFuture<T>} that completes as I complete.
+   * @return {@code CompletableFuture<T>}
+   */
+  @SuppressWarnings("unchecked")
+  CompletableFuture<T> asCompletableFuture() {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    observe((value, exception) -> {
+      if (exception != null) {
+        future.completeExceptionally(exception);
+      } else {
+        future.complete((T) value);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Register the {@code observer} to receive my completion value or exception once,
+   * or my failure value if I time out before completing, without it becoming a stage
+   * of my pipeline.
+   * @param observer the {@code BiConsumer<Object,Throwable>} receiving my value or exception
+   */
+  void observe(final BiConsumer<Object, Throwable> observer) {
+    register(new BasicCompletes<>(Observe, this, observer, null));
+  }
+
+  //////////////////////////////////////////////////////
+  // stages
+  //////////////////////////////////////////////////////
+
+  private BasicCompletes(final byte kind, final BasicCompletes<?> previous, final Object action, final Object failedOutcomeValue) {
+    this.id = Completes.completesId();
+    this.kind = kind;
+    this.previous = previous;
+    this.action = action;
+    this.scheduler = previous.scheduler;
+    this.executor = previous.executor;
+    this.failureValue = failedOutcomeValue;
+    this.created = CompletesInstrumentation.Enabled ? System.nanoTime() : 0L;
+  }
+
+  private <O> BasicCompletes<O> stage(final byte kind, final Object action, final Object failedOutcomeValue) {
+    final BasicCompletes<O> stage = new BasicCompletes<>(kind, this, action, failedOutcomeValue);
+    register(stage);
+    return stage;
+  }
+
+  private void register(final BasicCompletes<?> stage) {
+    while (true) {
+      final BasicCompletes<?> head = continuations;
+      stage.sibling = head;
+      if (ContinuationsUpdater.compareAndSet(this, head, stage)) {
+        break;
+      }
+    }
+
+    if (stage.kind != Observe) {
+      next = stage;
+    }
+
+    if ((status & Completed) != 0) {
+      stage.trigger();
+    } else if (stage.kind == Observe && (status & (Failed | TimedOut)) == (Failed | TimedOut)) {
+      stage.observeTimeout(failureValue);
+    }
+  }
+
+  // notify an observer of a timeout, which fails without completing
+  @SuppressWarnings("unchecked")
+  private void observeTimeout(final Object failureValue) {
+    if (setStatusUnless(Triggered, Triggered)) {
+      ((BiConsumer<Object, Throwable>) action).accept(failureValue, null);
+    }
+  }
+
+  private void trigger() {
+    if (!setStatusUnless(Triggered, Triggered)) {
+      return;
+    }
+
+    final boolean exceptional = (previous.status & Exceptional) != 0;
+    final Object previousValue = previous.value;
+
+    try {
+      if (exceptional) {
+        onExceptional((Throwable) previousValue);
+      } else {
+        onValue(previousValue);
+      }
+    } catch (Throwable t) {
+      completeExceptionally(t);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void onExceptional(final Throwable exception) {
+    switch (kind) {
+    case Recover:
+      setTimedOut(previous.isTimedOut());
+      setStatus(Failed);
+      if (CompletesInstrumentation.Enabled) {
+        CompletesInstrumentation.current().recovered(Stages[kind]);
+      }
+      completeValue(((Function<Throwable, Object>) action).apply(unwrap(exception)));
+      break;
+    case Observe:
+      ((BiConsumer<Object, Throwable>) action).accept(null, unwrap(exception));
+      break;
+    default:
+      completeExceptionally(exception);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void onValue(final Object previousValue) {
+    switch (kind) {
+    case Recover:
+      completeValue(previousValue);
+      break;
+    case Observe:
+      ((BiConsumer<Object, Throwable>) action).accept(previousValue, null);
+      break;
+    case Accept:
+    case OtherwiseAccept:
+      accept(previousValue);
+      completeValue(null);
+      break;
+    case Compose:
+      executor().execute(() -> {
+        try {
+          compose(apply(previousValue));
+        } catch (Throwable t) {
+          completeExceptionally(t);
+        }
+      });
+      break;
+    default:
+      completeValue(apply(previousValue));
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void accept(final Object previousValue) {
+    try {
+      Object value = previousValue;
+
+      if (previous.isNoneType()) {
+        value = previous.outcome();
+      }
+
+      if (handlesFailure() && !previous.hasFailed()) {
+        return;
+      }
+
+      if (previous.hasFailed() && !previous.handlesFailure()) {
+        fail(previous.failureValue, previous.isTimedOut());
+        if (!handlesFailure()) {
+          return;
+        }
+      } else if (isFailureValue(value)) {
+        fail(failureValue, isTimedOut());
+        if (!handlesFailure()) {
+          return;
+        }
+      }
+
+      if (CompletesInstrumentation.Enabled && handlesFailure()) {
+        CompletesInstrumentation.current().recovered(Stages[kind]);
+      }
+
+      ((Consumer<Object>) action).accept(value);
+
+    } catch (Throwable cause) {
+      fail(failureValue, isTimedOut());
+      throw cause;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Object apply(final Object previousValue) {
+    try {
+      Object value = previousValue;
+
+      if (previous.isNoneType()) {
+        value = previous.outcome();
+      }
+
+      if (handlesFailure() && !previous.hasFailed()) {
+        return value;
+      }
+
+      if (previous.hasFailed() && !previous.handlesFailure()) {
+        fail(previous.failureValue, previous.isTimedOut());
+        if (!handlesFailure()) {
+          return previous.failureValue;
+        }
+      } else if (isFailureValue(value)) {
+        fail(failureValue, isTimedOut());
+        if (!handlesFailure()) {
+          return failureValue;
+        }
+      }
+
+      if (CompletesInstrumentation.Enabled && handlesFailure()) {
+        CompletesInstrumentation.current().recovered(Stages[kind]);
+      }
+
+      return ((Function<Object, Object>) action).apply(value);
+
+    } catch (Exception cause) {
+      fail(failureValue, isTimedOut());
+      throw cause;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void compose(final Object outcome) {
+    if (outcome instanceof BasicCompletes) {
+      ((BasicCompletes<Object>) outcome).observe((value, exception) -> {
+        if (exception != null) {
+          completeExceptionally(exception);
+        } else {
+          completeValue(value);
+        }
+      });
+    } else if (outcome instanceof FutureCompletes) {
+      ((FutureCompletes<Object>) outcome).asCompletableFuture().whenComplete((value, exception) -> {
+        if (exception != null) {
+          completeExceptionally(unwrap(exception));
+        } else {
+          completeValue(value);
+        }
+      });
+    } else {
+      completeValue(outcome);
+    }
+  }
+
+  //////////////////////////////////////////////////////
+  // completion
+  //////////////////////////////////////////////////////
+
+  private void complete(final Object outcome) {
+    if (outcome instanceof Throwable) {
+      completeExceptionally((Throwable) outcome);
+      return;
+    }
+
+    Object realOutcome = outcome;
+
+    if (isFailureValue(realOutcome)) {
+      realOutcome = failureValue;
+      fail(realOutcome, isTimedOut());
+    }
+
+    if (!hasOutcome()) {
+      outcome(realOutcome);
+    }
+
+    completeValue(realOutcome);
+  }
+
+  private void completeValue(final Object value) {
+    if (setStatusUnless(Completing, Completing | Completed)) {
+      this.value = value;
+      completed(Done);
+    }
+  }
+
+  private void completeExceptionally(final Throwable exception) {
+    if (setStatusUnless(Completing, Completing | Completed)) {
+      this.value = exception;
+      completed(Exceptional);
+    }
+  }
+
+  private void completed(final int completion) {
+    setStatus(completion);
+    cancelTimer();
+
+    if (CompletesInstrumentation.Enabled && kind != Observe) {
+      CompletesInstrumentation.current().completed(Stages[kind], System.nanoTime() - created, hasFailed());
+    }
+
+    signalWaiters();
+
+    for (BasicCompletes<?> continuation = continuations; continuation != null; continuation = continuation.sibling) {
+      continuation.trigger();
+    }
+  }
+
+  private void cancelTimer() {
+    final Cancellable cancellable = this.cancellable;
+    if (cancellable != null) {
+      cancellable.cancel();
+      this.cancellable = null;
+    }
+  }
+
+  private void resetAll() {
+    if (isCompleted() && (status & Repeats) != 0) {
+      if (CompletesInstrumentation.Enabled) {
+        CompletesInstrumentation.current().repeated();
+      }
+      first().resetAllFollowing();
+    }
+  }
+
+  private void resetAllFollowing() {
+    this.outcome = null;
+    this.value = null;
+    if (CompletesInstrumentation.Enabled) {
+      this.created = System.nanoTime();
+    }
+    clearStatus(Completing | Completed | OutcomeSet | Failed | TimedOut | Triggered);
+
+    for (BasicCompletes<?> continuation = continuations; continuation != null; continuation = continuation.sibling) {
+      if (continuation.kind != Observe) {
+        continuation.resetAllFollowing();
+      }
+    }
+  }
+
+  //////////////////////////////////////////////////////
+  // failure
+  //////////////////////////////////////////////////////
+
+  private void fail(final Object failureValue, final boolean hasTimedOut) {
+    this.failureValue = failureValue;
+    setTimedOut(hasTimedOut);
+    setStatus(Failed);
+    if (!handlesFailure()) {
+      outcome(failureValue);
+    }
+  }
+
+  private void failAllFollowing(final Object failureValue, final boolean hasTimedOut) {
+    // could overwrite possible otherwise(v -> f(v))
+    // computed outcome unless use short circuit here
+    if (handlesFailure()) return;
+
+    fail(failureValue, hasTimedOut);
+
+    for (BasicCompletes<?> continuation = continuations; continuation != null; continuation = continuation.sibling) {
+      if (continuation.kind != Observe) {
+        continuation.failAllFollowing(failureValue, hasTimedOut);
+      } else if (hasTimedOut) {
+        continuation.observeTimeout(failureValue);
+      }
+    }
+  }
+
+  private boolean handlesFailure() {
+    return kind == Otherwise || kind == OtherwiseAccept;
+  }
+
+  private boolean isFailureValue(final Object candidateFailureValue) {
+    if (isTimedOut()) {
+      return true;
+    }
+
+    final Object currentFailureValue = failureValue;
+
+    if (currentFailureValue == candidateFailureValue) return true;
+
+    return currentFailureValue != null && currentFailureValue.equals(candidateFailureValue);
+  }
+
+  private boolean isTimedOut() {
+    return (status & TimedOut) != 0;
+  }
+
+  private void setTimedOut(final boolean timedOut) {
+    if (timedOut) {
+      setStatus(TimedOut);
+    } else {
+      clearStatus(TimedOut);
+    }
+  }
+
+  //////////////////////////////////////////////////////
+  // outcome
+  //////////////////////////////////////////////////////
+
+  private boolean isNoneType() {
+    return kind == Accept || kind == OtherwiseAccept;
+  }
+
+  private void outcome(final Object outcome) {
+    this.outcome = outcome;
+    setStatus(OutcomeSet);
+    signalWaiters();
+  }
+
+  private Object ultimateOutcome() {
+    final BasicCompletes<?> next = this.next;
+
+    if (next != null && next.isCompleted()) {
+      return next.ultimateOutcome();
+    }
+
+    if ((status & OutcomeSet) != 0) {
+      return outcome;
+    }
+
+    if (isNoneType()) {
+      final BasicCompletes<?> source = previousOutcomeSource();
+      if (source != null && source.currentOutcomeIsSet()) {
+        outcome(source.outcome);
+        return outcome;
+      }
+    }
+
+    return currentOutcomeIsSet() ? outcome : null;
+  }
+
+  private BasicCompletes<?> previousOutcomeSource() {
+    if (previous != null) {
+      return previous.isNoneType() ? previous.previousOutcomeSource() : previous;
+    }
+    return null;
+  }
+
+  private boolean currentOutcomeIsSet() {
+    if ((status & OutcomeSet) != 0) {
+      return true;
+    }
+
+    if ((status & Done) != 0) {
+      outcome(value);
+      return true;
+    }
+
+    return false;
+  }
+
+  private Executor executor() {
+    final Executor executor = this.executor;
+    return executor != null ? executor : CompletesExecutors.defaultExecutor();
+  }
+
+  private BasicCompletes<?> first() {
+    BasicCompletes<?> first = this;
+    while (first.previous != null) {
+      first = first.previous;
+    }
+    return first;
+  }
+
+  //////////////////////////////////////////////////////
+  // waiting
+  //////////////////////////////////////////////////////
+
+  @SuppressWarnings("unchecked")
+  private <O> O awaitNanos(final long timeout, final AwaitStrategy strategy) {
+    if (isCompleted() || strategy.await(this, timeout) || hasFailed()) {
+      return (O) outcome();
+    }
+    return null;
+  }
+
+  // unlink the waiter of a timed out or interrupted block, and any other abandoned waiters
+  private void removeWaiter(final Waiter waiter) {
+    waiter.thread = null;
+    retry:
+    while (true) {
+      Waiter previous = null;
+      for (Waiter current = waiters, next; current != null; current = next) {
+        next = current.next;
+        if (current.thread != null) {
+          previous = current;
+        } else if (previous != null) {
+          previous.next = next;
+          if (previous.thread == null) {
+            // previous was abandoned concurrently, so it may be unlinked already
+            continue retry;
+          }
+        } else if (!WaitersUpdater.compareAndSet(this, current, next)) {
+          continue retry;
+        }
+      }
+      return;
+    }
+  }
+
+  private void signalWaiters() {
+    if (waiters != null) {
+      for (Waiter waiter = WaitersUpdater.getAndSet(this, null); waiter != null; waiter = waiter.next) {
+        final Thread thread = waiter.thread;
+        if (thread != null) {
+          LockSupport.unpark(thread);
+        }
+      }
+    }
+  }
+
+  int waiterCount() {
+    int count = 0;
+    for (Waiter waiter = waiters; waiter != null; waiter = waiter.next) {
+      ++count;
+    }
+    return count;
+  }
+
+  private static final class Waiter {
+    volatile Thread thread;
+    volatile Waiter next;
+
+    Waiter(final Thread thread) {
+      this.thread = thread;
+    }
+  }
+
+  //////////////////////////////////////////////////////
+  // status word
+  //////////////////////////////////////////////////////
+
+  private void setStatus(final int flags) {
+    while (true) {
+      final int current = status;
+      if ((current & flags) == flags || StatusUpdater.compareAndSet(this, current, current | flags)) {
+        return;
+      }
+    }
+  }
+
+  private boolean setStatusUnless(final int flags, final int unless) {
+    while (true) {
+      final int current = status;
+      if ((current & unless) != 0) {
+        return false;
+      }
+      if (StatusUpdater.compareAndSet(this, current, current | flags)) {
+        return true;
+      }
+    }
+  }
+
+  private void clearStatus(final int flags) {
+    while (true) {
+      final int current = status;
+      if ((current & flags) == 0 || StatusUpdater.compareAndSet(this, current, current & ~flags)) {
+        return;
+      }
+    }
+  }
+
+  private static Throwable unwrap(final Throwable t) {
+    return (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+  }
+}
@@ -0,0 +1,115 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Provides the {@code Executor} instances on which asynchronous {@code Completes<T>}
+ * stages, such as those of {@code andThenTo()}, are run. A pipeline uses the
+ * {@link #defaultExecutor()} unless it is bound to another by {@code Completes.usingExecutor()}.
+ */
+public final class CompletesExecutors {
+  private static final Executor CommonPool =
+          ForkJoinPool.getCommonPoolParallelism() > 1 ?
+                  ForkJoinPool.commonPool() :
+                  (command) -> new Thread(command).start();
+
+  private static final Executor Direct = Runnable::run;
+
+  private static volatile Executor defaultExecutor = CommonPool;
+
+  /**
+   * Answer the {@code Executor} that runs on the common {@code ForkJoinPool}, or on a
+   * new thread per task when that pool is not parallel, as {@code CompletableFuture} does.
+   * This is the default unless changed by {@link #useDefault(Executor)}.
+   * @return Executor
+   */
+  public static Executor commonPool() {
+    return CommonPool;
+  }
+
+  /**
+   * Answer the {@code Executor} that runs each task directly on the thread that
+   * completes the previous stage.
+   * @return Executor
+   */
+  public static Executor direct() {
+    return Direct;
+  }
+
+  /**
+   * Answer whether the runtime supports virtual threads, which is JDK 21 and later.
+   * @return boolean
+   */
+  public static boolean isVirtualThreadSupported() {
+    return VirtualThreads.PerTask != null;
+  }
+
+  /**
+   * Answer the {@code Executor} that runs each task on a new virtual thread.
+   * @return Executor
+   * @throws UnsupportedOperationException when the runtime does not support virtual threads
+   */
+  public static Executor virtualThreadPerTask() {
+    if (VirtualThreads.PerTask == null) {
+      throw new UnsupportedOperationException("Virtual threads require JDK 21 or later.");
+    }
+    return VirtualThreads.PerTask;
+  }
+
+  /**
+   * Answer the {@code Executor} that runs each task on a new virtual thread when
+   * supported by the runtime, or otherwise the {@code fallback}.
+   * @param fallback the Executor to answer when virtual threads are not supported
+   * @return Executor
+   */
+  public static Executor virtualThreadPerTaskOr(final Executor fallback) {
+    return VirtualThreads.PerTask != null ? VirtualThreads.PerTask : fallback;
+  }
+
+  /**
+   * Answer the {@code Executor} used by pipelines not bound to one of their own.
+   * @return Executor
+   */
+  public static Executor defaultExecutor() {
+    return defaultExecutor;
+  }
+
+  /**
+   * Use {@code executor} for all pipelines subsequently created that are not
+   * bound to one of their own.
+   * @param executor the Executor to use
+   */
+  public static void useDefault(final Executor executor) {
+    if (executor == null) {
+      throw new IllegalArgumentException("The Executor must not be null.");
+    }
+    defaultExecutor = executor;
+  }
+
+  private CompletesExecutors() { }
+
+  // initialized on first use so that the lookup is
+  // only made when virtual threads are asked for
+  private static final class VirtualThreads {
+    static final Executor PerTask = perTask();
+
+    private static Executor perTask() {
+      try {
+        final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        return (Executor) factory.invoke(null);
+      } catch (Exception e) {
+        return null;
+      }
+    }
+  }
+}
@@ -0,0 +1,42 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+import io.vlingo.xoom.common.Completes;
+import io.vlingo.xoom.common.Completes.CompletesId;
+import io.vlingo.xoom.common.Scheduler;
+
+final class CompletesFactories {
+  static final CompletesFactory Basic = new CompletesFactory() {
+    @Override
+    public <T> Completes<T> using(final CompletesId id, final Scheduler scheduler) {
+      return new BasicCompletes<>(id, scheduler);
+    }
+
+    @Override
+    public <T> Completes<T> completed(final T outcome, final boolean successful) {
+      return new BasicCompletes<>(outcome, successful);
+    }
+  };
+
+  static final CompletesFactory Future = new CompletesFactory() {
+    @Override
+    public <T> Completes<T> using(final CompletesId id, final Scheduler scheduler) {
+      return new FutureCompletes<>(id, scheduler);
+    }
+
+    @Override
+    public <T> Completes<T> completed(final T outcome, final boolean successful) {
+      return new FutureCompletes<>(outcome, successful);
+    }
+  };
+
+  static volatile CompletesFactory defaultFactory = Future;
+
+  private CompletesFactories() { }
+}
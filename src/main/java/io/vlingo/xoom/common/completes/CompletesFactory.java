@@ -0,0 +1,73 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+import io.vlingo.xoom.common.Completes;
+import io.vlingo.xoom.common.Completes.CompletesId;
+import io.vlingo.xoom.common.Scheduler;
+
+/**
+ * Creates the {@code Completes<T>} instances answered by the {@code Completes}
+ * static factory methods. The {@link #future()} factory is used by default;
+ * use {@link #useDefault(CompletesFactory)} to select another, such as {@link #basic()}.
+ */
+public interface CompletesFactory {
+  /**
+   * Answer the {@code CompletesFactory} of {@code BasicCompletes<T>} instances.
+   * @return CompletesFactory
+   */
+  static CompletesFactory basic() {
+    return CompletesFactories.Basic;
+  }
+
+  /**
+   * Answer the {@code CompletesFactory} of {@code FutureCompletes<T>} instances.
+   * @return CompletesFactory
+   */
+  static CompletesFactory future() {
+    return CompletesFactories.Future;
+  }
+
+  /**
+   * Answer the {@code CompletesFactory} currently used by the {@code Completes} factory methods.
+   * @return CompletesFactory
+   */
+  static CompletesFactory defaultFactory() {
+    return CompletesFactories.defaultFactory;
+  }
+
+  /**
+   * Use {@code factory} for all {@code Completes<T>} instances subsequently created
+   * by the {@code Completes} factory methods.
+   * @param factory the CompletesFactory to use
+   */
+  static void useDefault(final CompletesFactory factory) {
+    if (factory == null) {
+      throw new IllegalArgumentException("The CompletesFactory must not be null.");
+    }
+    CompletesFactories.defaultFactory = factory;
+  }
+
+  /**
+   * Answer a new, uncompleted {@code Completes<T>}.
+   * @param id the CompletesId of the new instance
+   * @param scheduler the Scheduler used for timeouts, which may be null
+   * @param <T> the type of the eventual outcome
+   * @return {@code Completes<T>}
+   */
+  <T> Completes<T> using(final CompletesId id, final Scheduler scheduler);
+
+  /**
+   * Answer a new {@code Completes<T>} already completed with {@code outcome}.
+   * @param outcome the T outcome
+   * @param successful whether outcome is successful, or otherwise the failed outcome value
+   * @param <T> the type of the outcome
+   * @return {@code Completes<T>}
+   */
+  <T> Completes<T> completed(final T outcome, final boolean successful);
+}
@@ -0,0 +1,211 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import io.vlingo.xoom.common.Completes;
+import io.vlingo.xoom.common.Scheduler;
+
+/**
+ * Combines a number of {@code Completes<T>} into one without blocking, as answered
+ * by {@code Completes.all()}, {@code Completes.any()}, and {@code Completes.firstSuccessful()}.
+ * Outcomes are gathered into an array allocated up front and the combined
+ * {@code Completes} is completed by the element that brings a single atomic countdown to
+ * its end. A failed element fails the combined {@code Completes}, as does an element that
+ * times out, of which the combined {@code Completes} learns at the timeout. Elements of
+ * implementations other than those of {@code CompletesFactory} are observed through
+ * {@code andThenConsume()} and {@code otherwiseConsume()}, and so learn of a timeout as any
+ * of their continuations does. A {@code Scheduler} and timeout may be given to fail the
+ * combined {@code Completes} with a timeout if it is not completed within that time.
+ */
+public final class CompletesFanIn {
+  private static final long NoTimeout = -1L;
+
+  // the countdown is set to Finished when the outcome is decided early,
+  // and thereafter never reaches zero by any number of elements
+  private static final int Finished = Integer.MIN_VALUE;
+
+  /**
+   * Answer a {@code Completes<List<T>>} that completes with the outcomes of all of
+   * {@code completes} in their iteration order, or fails with a null outcome as soon
+   * as any one fails.
+   * @param completes the {@code Collection<Completes<T>>} to combine
+   * @param <T> the type of each outcome
+   * @return {@code Completes<List<T>>}
+   */
+  public static <T> Completes<List<T>> all(final Collection<? extends Completes<T>> completes) {
+    return all(completes, null, NoTimeout);
+  }
+
+  /**
+   * Answer a {@code Completes<List<T>>} that completes with the outcomes of all of
+   * {@code completes} in their iteration order, or fails with a null outcome as soon as
+   * any one fails or when not completed within {@code timeout} milliseconds.
+   * @param completes the {@code Collection<Completes<T>>} to combine
+   * @param scheduler the Scheduler used for the timeout
+   * @param timeout the long number of milliseconds within which all must complete
+   * @param <T> the type of each outcome
+   * @return {@code Completes<List<T>>}
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> Completes<List<T>> all(final Collection<? extends Completes<T>> completes, final Scheduler scheduler, final long timeout) {
+    final int count = completes.size();
+    final Completes<List<T>> all = aggregate(scheduler, timeout);
+
+    if (count == 0) {
+      return all.with(Collections.emptyList());
+    }
+
+    final Object[] outcomes = new Object[count];
+    final AtomicInteger remaining = new AtomicInteger(count);
+
+    int index = 0;
+    for (final Completes<T> element : completes) {
+      final int elementIndex = index++;
+      whenCompleted(element, (value, exception) -> {
+        if (element.hasFailed()) {
+          if (remaining.getAndSet(Finished) > 0) {
+            // the failure value of the element is a T, and so cannot be the outcome of all
+            all.failed();
+          }
+        } else {
+          outcomes[elementIndex] = element.outcome();
+          if (remaining.decrementAndGet() == 0) {
+            all.with(Arrays.asList((T[]) outcomes));
+          }
+        }
+      });
+    }
+
+    return all;
+  }
+
+  /**
+   * Answer a {@code Completes<T>} that completes with the outcome of the first of
+   * {@code completes} to complete, and fails if that one failed.
+   * @param completes the {@code Collection<Completes<T>>} to combine
+   * @param <T> the type of each outcome
+   * @return {@code Completes<T>}
+   */
+  public static <T> Completes<T> any(final Collection<? extends Completes<T>> completes) {
+    return any(completes, null, NoTimeout);
+  }
+
+  /**
+   * Answer a {@code Completes<T>} that completes with the outcome of the first of
+   * {@code completes} to complete, and fails if that one failed or when none completes
+   * within {@code timeout} milliseconds.
+   * @param completes the {@code Collection<Completes<T>>} to combine
+   * @param scheduler the Scheduler used for the timeout
+   * @param timeout the long number of milliseconds within which one must complete
+   * @param <T> the type of each outcome
+   * @return {@code Completes<T>}
+   */
+  public static <T> Completes<T> any(final Collection<? extends Completes<T>> completes, final Scheduler scheduler, final long timeout) {
+    final Completes<T> any = aggregate(scheduler, timeout);
+
+    if (completes.isEmpty()) {
+      any.failed();
+      return any;
+    }
+
+    final AtomicInteger remaining = new AtomicInteger(completes.size());
+
+    for (final Completes<T> element : completes) {
+      whenCompleted(element, (value, exception) -> {
+        if (remaining.getAndSet(Finished) > 0) {
+          complete(any, element.outcome(), element.hasFailed());
+        }
+      });
+    }
+
+    return any;
+  }
+
+  /**
+   * Answer a {@code Completes<T>} that completes with the outcome of the first of
+   * {@code completes} to complete successfully, or fails with the outcome of the
+   * last to fail when all fail.
+   * @param completes the {@code Collection<Completes<T>>} to combine
+   * @param <T> the type of each outcome
+   * @return {@code Completes<T>}
+   */
+  public static <T> Completes<T> firstSuccessful(final Collection<? extends Completes<T>> completes) {
+    return firstSuccessful(completes, null, NoTimeout);
+  }
+
+  /**
+   * Answer a {@code Completes<T>} that completes with the outcome of the first of
+   * {@code completes} to complete successfully, or fails with the outcome of the last
+   * to fail when all fail, or when none succeeds within {@code timeout} milliseconds.
+   * @param completes the {@code Collection<Completes<T>>} to combine
+   * @param scheduler the Scheduler used for the timeout
+   * @param timeout the long number of milliseconds within which one must succeed
+   * @param <T> the type of each outcome
+   * @return {@code Completes<T>}
+   */
+  public static <T> Completes<T> firstSuccessful(final Collection<? extends Completes<T>> completes, final Scheduler scheduler, final long timeout) {
+    final Completes<T> first = aggregate(scheduler, timeout);
+
+    if (completes.isEmpty()) {
+      first.failed();
+      return first;
+    }
+
+    final AtomicInteger remaining = new AtomicInteger(completes.size());
+
+    for (final Completes<T> element : completes) {
+      whenCompleted(element, (value, exception) -> {
+        if (element.hasFailed()) {
+          if (remaining.decrementAndGet() == 0) {
+            complete(first, element.outcome(), true);
+          }
+        } else if (remaining.getAndSet(Finished) > 0) {
+          complete(first, element.outcome(), false);
+        }
+      });
+    }
+
+    return first;
+  }
+
+  private static <T> Completes<T> aggregate(final Scheduler scheduler, final long timeout) {
+    final Completes<T> aggregate = CompletesFactory.defaultFactory().using(Completes.completesId(), scheduler);
+    return timeout > 0 && scheduler != null ? aggregate.timeoutWithin(timeout) : aggregate;
+  }
+
+  private static <T> void complete(final Completes<T> aggregate, final T outcome, final boolean failed) {
+    if (failed) {
+      aggregate.useFailedOutcomeOf(outcome);
+    }
+    aggregate.with(outcome);
+  }
+
+  // observes without continuing the pipeline of the completes where its implementation
+  // allows, which also notifies of a timeout, and otherwise by continuations of it
+  @SuppressWarnings("unchecked")
+  private static <T> void whenCompleted(final Completes<T> completes, final BiConsumer<Object, Throwable> action) {
+    if (completes instanceof BasicCompletes) {
+      ((BasicCompletes<Object>) completes).observe(action);
+    } else if (completes instanceof FutureCompletes) {
+      ((FutureCompletes<Object>) completes).observe(action);
+    } else {
+      completes
+        .andThenConsume(value -> action.accept(value, null))
+        .otherwiseConsume(failure -> action.accept(failure, null));
+    }
+  }
+
+  private CompletesFanIn() { }
+}
@@ -0,0 +1,80 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+/**
+ * Receives measurements of {@code Completes<T>} pipeline stages: the latency from
+ * the creation of each stage to its completion, and its failures, timeouts,
+ * recoveries, and repeats.
+ * <p>
+ * Instrumentation is disabled unless the JVM is started with the system property
+ * {@code -Dio.vlingo.xoom.common.completes.instrumentation=true}, in which case the
+ * {@link CompletesMetrics#shared()} are recorded unless another is {@link #install(CompletesInstrumentation) installed}.
+ * When disabled the only cost to a pipeline is a test of the static final {@link #Enabled}.
+ */
+public interface CompletesInstrumentation {
+  /**
+   * The name of the system property that enables instrumentation.
+   */
+  String EnabledProperty = "io.vlingo.xoom.common.completes.instrumentation";
+
+  /**
+   * Whether or not instrumentation is enabled, which is fixed when loaded.
+   */
+  boolean Enabled = Boolean.getBoolean(EnabledProperty);
+
+  /**
+   * The kinds of stages of a {@code Completes<T>} pipeline.
+   */
+  enum Stage { Root, AndThen, AndThenConsume, AndThenTo, Otherwise, OtherwiseConsume, RecoverFrom }
+
+  /**
+   * Answer the {@code CompletesInstrumentation} currently receiving measurements.
+   * @return CompletesInstrumentation
+   */
+  static CompletesInstrumentation current() {
+    return CompletesInstrumentations.current;
+  }
+
+  /**
+   * Install {@code instrumentation} to receive all subsequent measurements, which
+   * is only effective when {@link #Enabled}.
+   * @param instrumentation the CompletesInstrumentation to install
+   */
+  static void install(final CompletesInstrumentation instrumentation) {
+    if (instrumentation == null) {
+      throw new IllegalArgumentException("The CompletesInstrumentation must not be null.");
+    }
+    CompletesInstrumentations.current = instrumentation;
+  }
+
+  /**
+   * Record that a {@code stage} completed {@code latency} nanoseconds after its creation.
+   * @param stage the Stage that completed
+   * @param latency the long number of nanoseconds from creation to completion
+   * @param failed whether the stage completed with a failure
+   */
+  void completed(final Stage stage, final long latency, final boolean failed);
+
+  /**
+   * Record that a {@code stage} timed out.
+   * @param stage the Stage that timed out
+   */
+  void timedOut(final Stage stage);
+
+  /**
+   * Record that a {@code stage} recovered from a failure of a previous stage.
+   * @param stage the Stage that recovered
+   */
+  void recovered(final Stage stage);
+
+  /**
+   * Record that a repeatable pipeline was reset to be completed again.
+   */
+  void repeated();
+}
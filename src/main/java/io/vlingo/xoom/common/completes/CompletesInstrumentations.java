@@ -0,0 +1,14 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+final class CompletesInstrumentations {
+  static volatile CompletesInstrumentation current = CompletesMetrics.shared();
+
+  private CompletesInstrumentations() { }
+}
@@ -0,0 +1,222 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code CompletesInstrumentation} that records the latency of each kind of
+ * stage into histograms and counts their completions, failures, timeouts, and
+ * recoveries, and the repeats of pipelines. Use {@link #snapshot()} to export the
+ * measurements, such as by serializing the {@code Snapshot} as JSON.
+ */
+public final class CompletesMetrics implements CompletesInstrumentation {
+  private static final Stage[] Stages = Stage.values();
+
+  private static final CompletesMetrics shared = new CompletesMetrics();
+
+  private final LongAdder[] completions = adders();
+  private final LongAdder[] failures = adders();
+  private final LatencyHistogram[] latencies = new LatencyHistogram[Stages.length];
+  private final LongAdder[] recoveries = adders();
+  private final LongAdder repeats = new LongAdder();
+  private final LongAdder[] timeouts = adders();
+
+  /**
+   * Answer the {@code CompletesMetrics} that are installed by default.
+   * @return CompletesMetrics
+   */
+  public static CompletesMetrics shared() {
+    return shared;
+  }
+
+  public CompletesMetrics() {
+    for (int index = 0; index < latencies.length; ++index) {
+      latencies[index] = new LatencyHistogram();
+    }
+  }
+
+  @Override
+  public void completed(final Stage stage, final long latency, final boolean failed) {
+    completions[stage.ordinal()].increment();
+    if (failed) {
+      failures[stage.ordinal()].increment();
+    }
+    latencies[stage.ordinal()].record(latency);
+  }
+
+  @Override
+  public void timedOut(final Stage stage) {
+    timeouts[stage.ordinal()].increment();
+  }
+
+  @Override
+  public void recovered(final Stage stage) {
+    recoveries[stage.ordinal()].increment();
+  }
+
+  @Override
+  public void repeated() {
+    repeats.increment();
+  }
+
+  /**
+   * Clear all measurements.
+   */
+  public void reset() {
+    for (int index = 0; index < Stages.length; ++index) {
+      completions[index].reset();
+      failures[index].reset();
+      latencies[index].reset();
+      recoveries[index].reset();
+      timeouts[index].reset();
+    }
+    repeats.reset();
+  }
+
+  /**
+   * Answer a {@code Snapshot} of my current measurements.
+   * @return Snapshot
+   */
+  public Snapshot snapshot() {
+    final Map<Stage, StageSnapshot> stages = new EnumMap<>(Stage.class);
+    for (final Stage stage : Stages) {
+      final int index = stage.ordinal();
+      final long[] latency = latencies[index].summary(50.0, 90.0, 99.0, 99.9, 100.0);
+      stages.put(stage, new StageSnapshot(
+              completions[index].sum(), failures[index].sum(), timeouts[index].sum(), recoveries[index].sum(),
+              latency[1], latency[2], latency[3], latency[4], latency[5], latency[6]));
+    }
+    return new Snapshot(Collections.unmodifiableMap(stages), repeats.sum());
+  }
+
+  @Override
+  public String toString() {
+    return "CompletesMetrics(" + snapshot() + ")";
+  }
+
+  private static LongAdder[] adders() {
+    final LongAdder[] adders = new LongAdder[Stages.length];
+    for (int index = 0; index < adders.length; ++index) {
+      adders[index] = new LongAdder();
+    }
+    return adders;
+  }
+
+  /**
+   * The measurements of all stages at a point in time.
+   */
+  public static final class Snapshot {
+    /**
+     * the measurements of each kind of stage
+     */
+    public final Map<Stage, StageSnapshot> stages;
+
+    /**
+     * number of repeats of repeatable pipelines
+     */
+    public final long repeats;
+
+    public Snapshot(final Map<Stage, StageSnapshot> stages, final long repeats) {
+      this.stages = stages;
+      this.repeats = repeats;
+    }
+
+    /**
+     * Answer the measurements of the {@code stage}.
+     * @param stage the Stage of the measurements
+     * @return StageSnapshot
+     */
+    public StageSnapshot of(final Stage stage) {
+      return stages.get(stage);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("Snapshot(stages: %s, repeats: %d)", stages, repeats);
+    }
+  }
+
+  /**
+   * The measurements of one kind of stage at a point in time, with latencies in nanoseconds.
+   */
+  public static final class StageSnapshot {
+    /**
+     * number of completed stages, including those failed
+     */
+    public final long completions;
+
+    /**
+     * number of stages completed with a failure
+     */
+    public final long failures;
+
+    /**
+     * number of stages that timed out
+     */
+    public final long timeouts;
+
+    /**
+     * number of stages that recovered from a failure of a previous stage
+     */
+    public final long recoveries;
+
+    /**
+     * mean latency from creation to completion
+     */
+    public final long mean;
+
+    /**
+     * 50th percentile latency
+     */
+    public final long p50;
+
+    /**
+     * 90th percentile latency
+     */
+    public final long p90;
+
+    /**
+     * 99th percentile latency
+     */
+    public final long p99;
+
+    /**
+     * 99.9th percentile latency
+     */
+    public final long p999;
+
+    /**
+     * maximum latency
+     */
+    public final long max;
+
+    public StageSnapshot(final long completions, final long failures, final long timeouts, final long recoveries,
+                         final long mean, final long p50, final long p90, final long p99, final long p999, final long max) {
+      this.completions = completions;
+      this.failures = failures;
+      this.timeouts = timeouts;
+      this.recoveries = recoveries;
+      this.mean = mean;
+      this.p50 = p50;
+      this.p90 = p90;
+      this.p99 = p99;
+      this.p999 = p999;
+      this.max = max;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("StageSnapshot(completions: %d, failures: %d, timeouts: %d, recoveries: %d, mean: %d, p50: %d, p90: %d, p99: %d, p999: %d, max: %d)",
+              completions, failures, timeouts, recoveries, mean, p50, p90, p99, p999, max);
+    }
+  }
+}
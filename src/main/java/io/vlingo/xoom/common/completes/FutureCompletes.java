@@ -11,13 +11,21 @@ import io.vlingo.xoom.common.Cancellable;
 import io.vlingo.xoom.common.Completes;
 import io.vlingo.xoom.common.Scheduled;
 import io.vlingo.xoom.common.Scheduler;
+import io.vlingo.xoom.common.completes.CompletesInstrumentation.Stage;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -160,12 +168,22 @@ public class FutureCompletes<T> implements Completes<T> {
 
   @Override
   public <O> O await() {
-    return state.await();
+    return state.await(AwaitStrategy.Indefinitely, AwaitStrategy.defaultStrategy());
   }
 
   @Override
   public <O> O await(final long timeout) {
-    return state.await(timeout);
+    return state.await(TimeUnit.MILLISECONDS.toNanos(timeout), AwaitStrategy.defaultStrategy());
+  }
+
+  @Override
+  public <O> O await(final AwaitStrategy strategy) {
+    return state.await(AwaitStrategy.Indefinitely, strategy);
+  }
+
+  @Override
+  public <O> O await(final long timeout, final AwaitStrategy strategy) {
+    return state.await(TimeUnit.MILLISECONDS.toNanos(timeout), strategy);
   }
 
   @Override
@@ -215,6 +233,15 @@ public class FutureCompletes<T> implements Completes<T> {
     return this;
   }
 
+  @Override
+  public Completes<T> usingExecutor(final Executor executor) {
+    if (executor == null) {
+      throw new IllegalArgumentException("The Executor must not be null.");
+    }
+    state.executor = executor;
+    return this;
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public <F> Completes<T> useFailedOutcomeOf(final F failedOutcomeValue) {
@@ -239,20 +266,36 @@ public class FutureCompletes<T> implements Completes<T> {
     this.state = state;
   }
 
-  private CompletableFuture<T> asCompletableFuture() {
+  CompletableFuture<T> asCompletableFuture() {
     return state.future();
   }
 
+  /**
+   * Register the {@code observer} to receive my completion value or exception once,
+   * or my failure value if I time out before completing, without it becoming a stage
+   * of my pipeline.
+   * @param observer the {@code BiConsumer<Object,Throwable>} receiving my value or exception
+   */
+  void observe(final BiConsumer<Object, Throwable> observer) {
+    state.observe(observer);
+  }
+
+  int observerCount() {
+    return state.observerCount();
+  }
+
   //////////////////////////////////////////////////////
   // State
   //////////////////////////////////////////////////////
 
-  private static class State<T> implements Scheduled<Object> {
+  private static class State<T> implements Scheduled<Object>, AwaitStrategy.Awaitable {
     private Cancellable cancellable;
     private State<T> next;
     private final State<T> previous;
     private final Function<State<T>, CompletableFuture<T>> futureFactory;
+    private volatile Executor executor;
     private final AtomicReference<CompletableFuture<T>> future;
+    private long created;
     private final AtomicBoolean failed;
     private final AtomicReference<T> failureValue;
     private final boolean handlesFailure;
@@ -260,10 +303,18 @@ public class FutureCompletes<T> implements Completes<T> {
     private final AtomicReference<Outcome<T>> outcome;
     private final OutcomeType outcomeType;
     private final Scheduler scheduler;
+    private final Stage stage;
     private final AtomicBoolean timedOut = new AtomicBoolean(false);
     private final AtomicBoolean repeats = new AtomicBoolean(false);
 
-    State(final CompletesId id, final State<T> previous, final Scheduler scheduler, final Function<State<T>, CompletableFuture<T>> futureFactory, final T failedOutcomeValue, final boolean handlesFailure, final OutcomeType outcomeType) {
+    // the threads blocked awaiting me, which are unparked by a single callback per future
+    private volatile Set<Thread> blocked;
+    private CompletableFuture<T> unparking;
+
+    // the observers notified by a timeout, which fails without completing the future
+    private List<Observer> timeoutObservers;
+
+    State(final CompletesId id, final State<T> previous, final Scheduler scheduler, final Function<State<T>, CompletableFuture<T>> futureFactory, final T failedOutcomeValue, final boolean handlesFailure, final OutcomeType outcomeType, final Stage stage) {
       this.id = id;
       this.previous = previous;
       this.scheduler = scheduler;
@@ -272,53 +323,66 @@ public class FutureCompletes<T> implements Completes<T> {
       this.handlesFailure = handlesFailure;
       this.outcome = new AtomicReference<>(UncompletedOutcome.instance());
       this.outcomeType = outcomeType;
+      this.executor = previous != null ? previous.executor : null;
       this.futureFactory = futureFactory;
+      this.stage = stage;
+      this.created = CompletesInstrumentation.Enabled ? System.nanoTime() : 0L;
       this.future = new AtomicReference<>(this.futureFactory.apply(this));
+      if (CompletesInstrumentation.Enabled) {
+        instrument();
+      }
       if (this.previous != null) {
         this.previous.next = this;
       }
     }
 
     State(final CompletesId id, final Scheduler scheduler, final OutcomeType outcomeType) {
-      this(id, null, scheduler, (state) -> new CompletableFuture<>(), null, false, outcomeType);
+      this(id, null, scheduler, (state) -> new CompletableFuture<>(), null, false, outcomeType, Stage.Root);
     }
 
     @SuppressWarnings("unchecked")
-    <O> O await() {
-      if (isCompleted()) {
+    <O> O await(final long timeout, final AwaitStrategy strategy) {
+      if (isCompleted() || strategy.await(this, timeout) || hasFailed()) {
         return (O) outcome();
       }
 
-      try {
-        future().get();
-        return (O) outcome();
-      } catch (Exception e) {
-        if (this.hasFailed()) {
-          return (O) outcome();
-        }
-        // fall through
-      }
-
       return null;
     }
 
-    @SuppressWarnings("unchecked")
-    <O> O await(final long timeout) {
-      if (isCompleted()) {
-        return (O) outcome();
-      }
+    @Override
+    public boolean isReady() {
+      return isCompleted();
+    }
+
+    @Override
+    public boolean block(final long timeout) {
+      final Thread waiter = Thread.currentThread();
+      final boolean timed = timeout != AwaitStrategy.Indefinitely;
+      final long deadline = timed ? System.nanoTime() + timeout : 0L;
+
+      final Set<Thread> blocked = blocked();
+      blocked.add(waiter);
 
       try {
-        future().get(timeout, TimeUnit.MILLISECONDS);
-        return (O) outcome();
-      } catch (Exception e) {
-        if (this.hasFailed()) {
-          return (O) outcome();
+        while (!isCompleted()) {
+          if (waiter.isInterrupted()) {
+            return false;
+          }
+          if (timed) {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+              return false;
+            }
+            LockSupport.parkNanos(this, remaining);
+          } else {
+            LockSupport.park(this);
+          }
         }
-        // fall through
+      } finally {
+        blocked.remove(waiter);
       }
 
-      return null;
+      return true;
     }
 
     @SuppressWarnings("unchecked")
@@ -353,6 +417,9 @@ public class FutureCompletes<T> implements Completes<T> {
 
     void resetAll() {
       if (isCompleted() && hasRepeats()) {
+        if (CompletesInstrumentation.Enabled) {
+          CompletesInstrumentation.current().repeated();
+        }
         first().resetAllFollowing();
       }
     }
@@ -435,6 +502,9 @@ public class FutureCompletes<T> implements Completes<T> {
     }
 
     void timedOut() {
+      if (CompletesInstrumentation.Enabled) {
+        CompletesInstrumentation.current().timedOut(stage);
+      }
       failAllFollowing(failureValue(), true);
     }
 
@@ -461,7 +531,7 @@ public class FutureCompletes<T> implements Completes<T> {
     @SuppressWarnings({"unchecked", "rawtypes"})
     State<T> nextForConsumer(final T failedOutcomeValue, final Consumer<T> consumer, final boolean handlesFailure) {
       Function<State<T>, CompletableFuture<Void>> factory = (State<T> state) -> state.previousFuture().thenAccept(state.consumerWrapper(consumer));
-      return new State(Completes.completesId(), this, scheduler, factory, failedOutcomeValue, handlesFailure, OutcomeType.None);
+      return new State(Completes.completesId(), this, scheduler, factory, failedOutcomeValue, handlesFailure, OutcomeType.None, handlesFailure ? Stage.OtherwiseConsume : Stage.AndThenConsume);
     }
 
     State<T> nextForConsumer(final T failedOutcomeValue, final Consumer<T> consumer) {
@@ -471,13 +541,13 @@ public class FutureCompletes<T> implements Completes<T> {
     @SuppressWarnings({"unchecked", "rawtypes"})
     State<T> nextForExceptional(final Function<Throwable, T> function) {
       Function<State<T>, CompletableFuture<T>> factory = (State<T> state) -> state.previousFuture().exceptionally(state.functionExceptionWrapper(function));
-      return new State(Completes.completesId(), this, scheduler, factory, null, false, OutcomeType.Some);
+      return new State(Completes.completesId(), this, scheduler, factory, null, false, OutcomeType.Some, Stage.RecoverFrom);
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
     <O> State<O> nextForFunction(final O failedOutcomeValue, final Function<T, O> function, final boolean handlesFailure) {
       Function<State<T>, CompletableFuture<O>> factory = (State<T> state) -> state.previousFuture().thenApply(state.functionWrapper(function));
-      return new State(Completes.completesId(), this, scheduler, factory, failedOutcomeValue, handlesFailure, OutcomeType.Some);
+      return new State(Completes.completesId(), this, scheduler, factory, failedOutcomeValue, handlesFailure, OutcomeType.Some, handlesFailure ? Stage.Otherwise : Stage.AndThen);
     }
 
     <O> State<O> nextForFunction(final O failedOutcomeValue, final Function<T, O> function) {
@@ -486,8 +556,8 @@ public class FutureCompletes<T> implements Completes<T> {
 
     @SuppressWarnings({"unchecked", "rawtypes"})
     <O> State<O> nextForFunctionAsync(final O failedOutcomeValue, final Function<T, O> function) {
-      Function<State<T>, CompletableFuture<O>> factory = (State<T> state) -> state.previousFuture().thenComposeAsync(state.composableFunction(state.functionWrapper(function)));
-      return new State(Completes.completesId(), this, scheduler, factory, failedOutcomeValue, false, OutcomeType.Some);
+      Function<State<T>, CompletableFuture<O>> factory = (State<T> state) -> state.previousFuture().thenComposeAsync(state.composableFunction(state.functionWrapper(function)), state.executor());
+      return new State(Completes.completesId(), this, scheduler, factory, failedOutcomeValue, false, OutcomeType.Some, Stage.AndThenTo);
     }
 
     @SuppressWarnings("unchecked")
@@ -496,6 +566,8 @@ public class FutureCompletes<T> implements Completes<T> {
         O outcome = userFunction.apply(value);
         if (outcome instanceof FutureCompletes) {
           return ((FutureCompletes<O>) outcome).asCompletableFuture();
+        } else if (outcome instanceof BasicCompletes) {
+          return ((BasicCompletes<O>) outcome).asCompletableFuture();
         }
         return CompletableFuture.completedFuture(outcome);
       };
@@ -527,6 +599,10 @@ public class FutureCompletes<T> implements Completes<T> {
             }
           }
 
+          if (CompletesInstrumentation.Enabled && handlesFailure) {
+            CompletesInstrumentation.current().recovered(stage);
+          }
+
           userConsumer.accept(value);
 
         } catch (Throwable cause) {
@@ -543,6 +619,10 @@ public class FutureCompletes<T> implements Completes<T> {
           timedOut.set(previous.isTimedOut());
           failed.set(true);
 
+          if (CompletesInstrumentation.Enabled) {
+            CompletesInstrumentation.current().recovered(stage);
+          }
+
           return userFunction.apply(unwrap(e));
       };
     }
@@ -573,6 +653,10 @@ public class FutureCompletes<T> implements Completes<T> {
             }
           }
 
+          if (CompletesInstrumentation.Enabled && handlesFailure) {
+            CompletesInstrumentation.current().recovered(stage);
+          }
+
           return userFunction.apply(value);
         } catch (Exception cause) {
           fail(failureValue(), isTimedOut());
@@ -585,7 +669,13 @@ public class FutureCompletes<T> implements Completes<T> {
       this.outcome.set(UncompletedOutcome.instance());
       this.timedOut.set(false);
       this.failed.set(false);
+      if (CompletesInstrumentation.Enabled) {
+        this.created = System.nanoTime();
+      }
       this.future(futureFactory.apply(this));
+      if (CompletesInstrumentation.Enabled) {
+        instrument();
+      }
       if (hasNext()) {
         next().resetAllFollowing();
       }
@@ -598,6 +688,10 @@ public class FutureCompletes<T> implements Completes<T> {
 
       fail(failureValue, hasTimedOut);
 
+      if (hasTimedOut) {
+        observeTimeout();
+      }
+
       if (hasNext()) {
         next().failAllFollowing(failureValue, hasTimedOut);
       }
@@ -609,6 +703,71 @@ public class FutureCompletes<T> implements Completes<T> {
       this.failed.set(true);
       if (!handlesFailure) {
         outcome(new CompletedOutcome<>(failureValue));
+        // completed without completing the future, as by a timeout
+        unparkBlocked();
+      }
+    }
+
+    void observe(final BiConsumer<Object, Throwable> observer) {
+      final Observer once = new Observer(observer);
+
+      synchronized (this) {
+        if (timeoutObservers == null) {
+          timeoutObservers = new ArrayList<>(1);
+        }
+        timeoutObservers.add(once);
+      }
+
+      future().whenComplete(once);
+
+      if (isTimedOut() && failed.get()) {
+        once.accept(failureValue(), null);
+      }
+    }
+
+    private void observeTimeout() {
+      final List<Observer> observers;
+      synchronized (this) {
+        // each is notified at most once, and so is no longer held
+        observers = timeoutObservers;
+        timeoutObservers = null;
+      }
+      if (observers == null) {
+        return;
+      }
+      for (final Observer observer : observers) {
+        observer.accept(failureValue(), null);
+      }
+    }
+
+    synchronized int observerCount() {
+      return timeoutObservers == null ? 0 : timeoutObservers.size();
+    }
+
+    private synchronized void unobserve(final Observer observer) {
+      if (timeoutObservers != null) {
+        timeoutObservers.remove(observer);
+      }
+    }
+
+    private synchronized Set<Thread> blocked() {
+      if (blocked == null) {
+        blocked = ConcurrentHashMap.newKeySet();
+      }
+      final CompletableFuture<T> future = future();
+      if (unparking != future) {
+        unparking = future;
+        future.whenComplete((value, exception) -> unparkBlocked());
+      }
+      return blocked;
+    }
+
+    private void unparkBlocked() {
+      final Set<Thread> blocked = this.blocked;
+      if (blocked != null) {
+        for (final Thread thread : blocked) {
+          LockSupport.unpark(thread);
+        }
       }
     }
 
@@ -673,6 +832,16 @@ public class FutureCompletes<T> implements Completes<T> {
       return this.previous != null;
     }
 
+    private void instrument() {
+      future().whenComplete((value, exception) ->
+        CompletesInstrumentation.current().completed(stage, System.nanoTime() - created, hasFailed()));
+    }
+
+    private Executor executor() {
+      final Executor executor = this.executor;
+      return executor != null ? executor : CompletesExecutors.defaultExecutor();
+    }
+
     private State<T> previous() {
       return this.previous;
     }
@@ -714,6 +883,27 @@ public class FutureCompletes<T> implements Completes<T> {
     public CompletesId id() {
       return id;
     }
+
+    /**
+     * Notifies its observer once, by completion or by timeout, after which it is no longer held.
+     */
+    private final class Observer extends AtomicBoolean implements BiConsumer<Object, Throwable> {
+      private static final long serialVersionUID = 1L;
+
+      private final BiConsumer<Object, Throwable> observer;
+
+      Observer(final BiConsumer<Object, Throwable> observer) {
+        this.observer = observer;
+      }
+
+      @Override
+      public void accept(final Object value, final Throwable exception) {
+        if (compareAndSet(false, true)) {
+          unobserve(this);
+          observer.accept(value, exception);
+        }
+      }
+    }
   }
 
   enum OutcomeType {
@@ -0,0 +1,88 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of nanosecond latencies in the manner of HdrHistogram. Each power of
+ * two is divided into {@code SubBuckets} linear buckets, giving a relative precision
+ * of about 3% over the whole range of {@code long} with a fixed number of counts.
+ */
+final class LatencyHistogram {
+  private static final int SubBucketBits = 5;
+  private static final int SubBuckets = 1 << SubBucketBits;
+  private static final int Buckets = SubBuckets + (Long.SIZE - SubBucketBits) * SubBuckets;
+
+  private final AtomicLongArray counts = new AtomicLongArray(Buckets);
+
+  void record(final long value) {
+    counts.incrementAndGet(indexOf(Math.max(0L, value)));
+  }
+
+  void reset() {
+    for (int index = 0; index < Buckets; ++index) {
+      counts.set(index, 0L);
+    }
+  }
+
+  /**
+   * Answer the count, mean, and the values at the given percentiles, in that order.
+   * @param percentiles the double percentiles, each from 0.0 to 100.0, in ascending order
+   * @return long[]
+   */
+  long[] summary(final double... percentiles) {
+    final long[] snapshot = new long[Buckets];
+    long total = 0;
+    double sum = 0;
+    for (int index = 0; index < Buckets; ++index) {
+      final long count = counts.get(index);
+      snapshot[index] = count;
+      total += count;
+      sum += (double) count * valueOf(index);
+    }
+
+    final long[] summary = new long[2 + percentiles.length];
+    summary[0] = total;
+    if (total == 0) {
+      return summary;
+    }
+    summary[1] = (long) (sum / total);
+
+    long cumulative = 0;
+    int index = 0;
+    for (int percentile = 0; percentile < percentiles.length; ++percentile) {
+      final long rank = Math.max(1L, (long) Math.ceil(percentiles[percentile] / 100.0 * total));
+      while (cumulative + snapshot[index] < rank && index < Buckets - 1) {
+        cumulative += snapshot[index++];
+      }
+      summary[2 + percentile] = valueOf(index);
+    }
+    return summary;
+  }
+
+  static int indexOf(final long value) {
+    if (value < SubBuckets) {
+      return (int) value;
+    }
+    final int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SubBucketBits;
+    final int subBucket = (int) (value >>> shift) - SubBuckets;
+    return SubBuckets + shift * SubBuckets + subBucket;
+  }
+
+  // answers the highest value that is counted at index
+  static long valueOf(final int index) {
+    if (index < SubBuckets) {
+      return index;
+    }
+    final int shift = (index - SubBuckets) / SubBuckets;
+    final long subBucket = (index - SubBuckets) % SubBuckets;
+    final long highest = ((SubBuckets + subBucket + 1) << shift) - 1;
+    return highest < 0 ? Long.MAX_VALUE : highest;
+  }
+}
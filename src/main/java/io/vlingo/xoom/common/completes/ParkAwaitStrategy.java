@@ -0,0 +1,15 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+final class ParkAwaitStrategy implements AwaitStrategy {
+  @Override
+  public boolean await(final Awaitable awaitable, final long timeout) {
+    return awaitable.isReady() || awaitable.block(timeout);
+  }
+}
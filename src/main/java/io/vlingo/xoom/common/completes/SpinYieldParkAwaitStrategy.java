@@ -0,0 +1,55 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+final class SpinYieldParkAwaitStrategy implements AwaitStrategy {
+  private final int spins;
+  private final int yields;
+
+  SpinYieldParkAwaitStrategy(final int spins, final int yields) {
+    if (spins < 0 || yields < 0) {
+      throw new IllegalArgumentException("The number of spins and yields must not be negative.");
+    }
+    this.spins = spins;
+    this.yields = yields;
+  }
+
+  @Override
+  public boolean await(final Awaitable awaitable, final long timeout) {
+    final boolean timed = timeout != Indefinitely;
+    final long deadline = timed ? System.nanoTime() + timeout : 0L;
+
+    for (int spin = 0; spin < spins; ++spin) {
+      if (awaitable.isReady()) {
+        return true;
+      }
+    }
+
+    for (int yield = 0; yield < yields; ++yield) {
+      if (awaitable.isReady()) {
+        return true;
+      }
+      if (timed && deadline - System.nanoTime() <= 0) {
+        return false;
+      }
+      Thread.yield();
+    }
+
+    if (awaitable.isReady()) {
+      return true;
+    }
+
+    if (!timed) {
+      return awaitable.block(Indefinitely);
+    }
+
+    final long remaining = deadline - System.nanoTime();
+
+    return remaining > 0 && awaitable.block(remaining);
+  }
+}
@@ -7,15 +7,46 @@
 
 package io.vlingo.xoom.common.message;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * A {@link MessageQueue} that dispatches its messages to the listener on a thread of its own.
+ * <p>
+ * By default each enqueued message is dispatched by its own executor task. With a
+ * {@link Config#batching(int)} configuration, a single drain task is executed only when the
+ * queue transitions from empty, which delivers up to the maximum batch of messages each time
+ * it runs, and executes itself again while messages remain. With
+ * {@link Config#withBatchListener()}, each batch is delivered by a single
+ * {@link MessageQueueListener#handleMessages(List)}, and when it fails, all messages of
+ * the batch are sent to the dead letters queue.
+ * <p>
+ * The messages enqueued and not yet dispatched are counted, so that {@link #flush()} awaits
+ * the dispatch of the last of them rather than polling, optionally until a deadline, and
+ * {@link #close(boolean)} stops the dispatching thread once it is idle, without interrupting
+ * a listener that is handling a message.
+ */
 public class AsyncMessageQueue implements MessageQueue, Runnable {
 
+  private final List<Message> batch;
+  private final boolean batchListener;
   private final MessageQueue deadLettersQueue;
-  private AtomicBoolean dispatching;
+  private final Condition drained;
+  private final AtomicBoolean draining;
+  private final AtomicInteger flushWaiters;
+  private final AtomicLong inFlight;
+  private final ReentrantLock lock;
+  private final int maxBatch;
   private final ThreadPoolExecutor executor;
   private MessageQueueListener listener;
   private AtomicBoolean open;
@@ -26,8 +57,19 @@ public class AsyncMessageQueue implements MessageQueue, Runnable {
   }
 
   public AsyncMessageQueue(final MessageQueue deadLettersQueue) {
+    this(deadLettersQueue, Config.perMessage());
+  }
+
+  public AsyncMessageQueue(final MessageQueue deadLettersQueue, final Config config) {
+    this.batch = new ArrayList<>(config.maxBatch);
+    this.batchListener = config.batchListener;
     this.deadLettersQueue = deadLettersQueue;
-    this.dispatching = new AtomicBoolean(false);
+    this.draining = new AtomicBoolean(false);
+    this.flushWaiters = new AtomicInteger(0);
+    this.inFlight = new AtomicLong(0);
+    this.lock = new ReentrantLock();
+    this.drained = lock.newCondition();
+    this.maxBatch = config.maxBatch;
     this.executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
     this.open = new AtomicBoolean(false);
     this.queue = new ConcurrentLinkedQueue<Message>();
@@ -37,41 +79,81 @@ public class AsyncMessageQueue implements MessageQueue, Runnable {
     close(true);
   }
 
+  /**
+   * Close this queue, either after all of its messages are dispatched, or discarding
+   * those not yet dispatched. A listener that is handling a message is not interrupted.
+   * @param flush whether the messages are dispatched before this queue is closed
+   */
   public void close(final boolean flush) {
-    if (open.get()) {
-      open.set(false);
-      
+    if (open.getAndSet(false)) {
       if (flush) {
         flush();
+      } else {
+        discard();
+      }
+
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Close this queue after its messages are dispatched, or at the {@code timeout},
+   * discarding any messages that are not yet dispatched.
+   * @param timeout the long number of milliseconds to await the dispatch of the messages
+   * @return true if all messages were dispatched before this queue was closed
+   */
+  public boolean close(final long timeout) {
+    if (open.getAndSet(false)) {
+      final boolean flushed = flush(timeout);
+      if (!flushed) {
+        discard();
       }
-      
-      executor.shutdownNow();
+
+      executor.shutdown();
+      return flushed;
     }
+    return isEmpty();
   }
 
   public void enqueue(final Message message) {
     if (open.get()) {
+      inFlight.incrementAndGet();
       queue.add(message);
-      executor.execute(this);
+      if (maxBatch == 0 || draining.compareAndSet(false, true)) {
+        try {
+          executor.execute(this);
+        } catch (RejectedExecutionException e) {
+          // closed concurrently
+          if (queue.remove(message)) {
+            completed(1);
+          }
+        }
+      }
     }
   }
 
+  /**
+   * Await the dispatch of all messages enqueued before and during this flush.
+   */
   public void flush() {
-    try {
-      while (!queue.isEmpty()) {
-        Thread.sleep(1L);
-      }
+    awaitDrained(-1L);
+  }
 
-      while (dispatching.get()) {
-        Thread.sleep(1L);
-      }
-    } catch (Exception e) {
-      // ignore
+  /**
+   * Await the dispatch of all messages enqueued before and during this flush,
+   * for no longer than the {@code timeout}.
+   * @param timeout the long number of milliseconds to await the dispatch of the messages
+   * @return true if all messages were dispatched
+   */
+  public boolean flush(final long timeout) {
+    if (timeout < 0) {
+      throw new IllegalArgumentException("Timeout must not be negative.");
     }
+    return awaitDrained(TimeUnit.MILLISECONDS.toNanos(timeout));
   }
 
   public boolean isEmpty() {
-    return queue.isEmpty() && !dispatching.get();
+    return inFlight.get() == 0;
   }
 
   public void registerListener(final MessageQueueListener listener) {
@@ -80,27 +162,200 @@ public class AsyncMessageQueue implements MessageQueue, Runnable {
   }
 
   public void run() {
-    Message message = null;
-    
+    if (maxBatch == 0) {
+      dispatchOne();
+    } else {
+      drain();
+    }
+  }
+
+  private void dispatchOne() {
+    final Message message = dequeue();
+    if (message != null) {
+      try {
+        dispatch(message);
+      } finally {
+        completed(1);
+      }
+    }
+  }
+
+  private void drain() {
+    Message message;
+    while (batch.size() < maxBatch && (message = dequeue()) != null) {
+      batch.add(message);
+    }
+
     try {
-      dispatching.set(true);
-      message = dequeue();
-      if (message != null) {
-        listener.handleMessage(message);
+      if (batchListener) {
+        dispatchBatch();
+      } else {
+        for (final Message each : batch) {
+          dispatch(each);
+        }
       }
+    } finally {
+      completed(batch.size());
+      batch.clear();
+      // also when the listener throws an Error, so that the queue is drained thereafter
+      endDrain();
+    }
+  }
+
+  private void endDrain() {
+    if (!queue.isEmpty()) {
+      redrain();
+      return;
+    }
+
+    draining.set(false);
+
+    // a message enqueued after the queue was found empty may not have woken a drain
+    if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+      redrain();
+    }
+  }
+
+  private void dispatch(final Message message) {
+    try {
+      listener.handleMessage(message);
+    } catch (Exception e) {
+      deadLetter(message, e);
+    }
+  }
+
+  private void dispatchBatch() {
+    if (batch.isEmpty()) {
+      return;
+    }
+    try {
+      listener.handleMessages(batch);
     } catch (Exception e) {
-      // TODO: Log
-      if (message != null && deadLettersQueue != null) {
-        deadLettersQueue.enqueue(message);
+      for (final Message message : batch) {
+        deadLetter(message, e);
+      }
+    }
+  }
+
+  private void deadLetter(final Message message, final Exception e) {
+    // TODO: Log
+    if (deadLettersQueue != null) {
+      deadLettersQueue.enqueue(message);
+    }
+    System.out.println("AsyncMessageQueue: Dispatch to listener hasFailed because: " + e.getMessage());
+    e.printStackTrace();
+  }
+
+  private boolean awaitDrained(final long timeoutNanos) {
+    if (inFlight.get() == 0) {
+      return true;
+    }
+
+    lock.lock();
+    try {
+      flushWaiters.incrementAndGet();
+      long remaining = timeoutNanos;
+      while (inFlight.get() > 0) {
+        if (timeoutNanos < 0) {
+          drained.await();
+        } else if (remaining <= 0) {
+          return false;
+        } else {
+          remaining = drained.awaitNanos(remaining);
+        }
       }
-      System.out.println("AsyncMessageQueue: Dispatch to listener hasFailed because: " + e.getMessage());
-      e.printStackTrace();
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return inFlight.get() == 0;
     } finally {
-      dispatching.set(false);
+      flushWaiters.decrementAndGet();
+      lock.unlock();
+    }
+  }
+
+  private void completed(final int count) {
+    if (count > 0 && inFlight.addAndGet(-count) == 0 && flushWaiters.get() > 0) {
+      lock.lock();
+      try {
+        drained.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private void discard() {
+    int discarded = 0;
+    while (dequeue() != null) {
+      ++discarded;
+    }
+    completed(discarded);
+  }
+
+  private void redrain() {
+    try {
+      executor.execute(this);
+    } catch (RejectedExecutionException e) {
+      // closed
     }
   }
 
   private Message dequeue() {
     return queue.poll();
   }
+
+  /**
+   * {@link AsyncMessageQueue} configuration parameters.
+   */
+  public static final class Config {
+
+    final int maxBatch;
+    final boolean batchListener;
+
+    /**
+     * @param maxBatch      the maximum number of messages delivered per drain, or zero to dispatch each message by its own task
+     * @param batchListener whether each batch is delivered by {@link MessageQueueListener#handleMessages(List)}
+     */
+    Config(int maxBatch, boolean batchListener) {
+      if (maxBatch < 0) {
+        throw new IllegalArgumentException("Maximum batch must not be negative.");
+      }
+      this.maxBatch = maxBatch;
+      this.batchListener = batchListener;
+    }
+
+    /**
+     * Answer the {@code Config} with which each message is dispatched by its own executor task.
+     * @return Config
+     */
+    public static Config perMessage() {
+      return new Config(0, false);
+    }
+
+    /**
+     * Answer the {@code Config} with which messages are delivered by a drain task that
+     * runs only when the queue transitions from empty.
+     * @param maxBatch the maximum number of messages delivered each time the drain task runs
+     * @return Config
+     */
+    public static Config batching(int maxBatch) {
+      if (maxBatch <= 0) {
+        throw new IllegalArgumentException("Maximum batch must be positive.");
+      }
+      return new Config(maxBatch, false);
+    }
+
+    /**
+     * Answer a copy of this {@code Config} with which each batch is delivered by a single
+     * {@link MessageQueueListener#handleMessages(List)}.
+     * @return Config
+     */
+    public Config withBatchListener() {
+      if (maxBatch == 0) {
+        throw new IllegalArgumentException("A batch listener requires batching.");
+      }
+      return new Config(maxBatch, true);
+    }
+  }
 }
@@ -0,0 +1,31 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.message;
+
+/**
+ * When a {@link JournalMessageQueue} forces its journal to the storage device.
+ */
+public enum FsyncPolicy {
+  /**
+   * Force each message as it is enqueued, so that a message is durable once enqueued,
+   * which is the safest but also adds the cost of a force to every enqueue.
+   */
+  PerMessage,
+
+  /**
+   * Force the journal before each batch of messages is dispatched to the listener, so that
+   * no message is dispatched before it is durable, and the cost of a force is shared by the batch.
+   */
+  PerBatch,
+
+  /**
+   * Force the journal at an interval, which is supported only by queues constructed with a
+   * {@code Scheduler}, and of which the messages enqueued within the last interval may be lost.
+   */
+  Periodic
+}
@@ -0,0 +1,701 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.message;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+import io.vlingo.xoom.common.Cancellable;
+import io.vlingo.xoom.common.Scheduled;
+import io.vlingo.xoom.common.Scheduler;
+import io.vlingo.xoom.common.pool.DirectMemory;
+import io.vlingo.xoom.common.serialization.JsonSerialization;
+
+/**
+ * A {@link MessageQueue} that appends each enqueued message to a journal of memory-mapped segment
+ * files before it is dispatched to the listener, so that the messages not yet acknowledged survive
+ * a crash or a {@link #close(boolean)} without flush, and are replayed to the listener when a queue
+ * is next constructed on the same directory.
+ * <p>
+ * The id, type, version, occurrence and payload of each message are written directly into the mapped
+ * segment, so that appending does not require a system call, and the journal is forced to the storage
+ * device according to the {@link FsyncPolicy} of the {@link Config}. The payload is journaled as JSON
+ * with the name of its class, by which it is deserialized when replayed.
+ * <p>
+ * The messages are dispatched in batches on a thread of their own, and are acknowledged by a
+ * checkpoint of the sequence of the last message of each batch once the listener has handled it,
+ * including any messages that failed and were sent to the dead letters queue, or that were lost
+ * with a batch that failed as a whole. The messages that the listener failed to handle are counted by
+ * {@link #failed()}. A segment is rolled when full, and unmapped and deleted once all of its messages
+ * are acknowledged, of which those that cannot be deleted are counted by {@link #undeletedSegments()}.
+ */
+public class JournalMessageQueue implements MessageQueue {
+  private static final String CheckpointFile = "acknowledged.checkpoint";
+  private static final String SegmentSuffix = ".journal";
+  private static final int RecordHeaderSize = 16;
+
+  private final MappedByteBuffer checkpoint;
+  private final AsyncMessageQueue dispatcher;
+  private final MessageQueue deadLettersQueue;
+  private final Path directory;
+  private final LongAdder failed = new LongAdder();
+  private final Cancellable fsync;
+  private final FsyncPolicy fsyncPolicy;
+  private final List<SequencedMessage> replayed;
+  private final int segmentSize;
+  private final ArrayDeque<Segment> segments;
+  private final LongAdder undeletedSegments = new LongAdder();
+  // held while a segment is forced or unmapped, so that a reclaimed segment is not forced once unmapped
+  private final Object unmapping = new Object();
+
+  private long acknowledged;
+  private MessageQueueListener listener;
+  private long nextSequence;
+  private boolean open;
+
+  /**
+   * Creates a {@link JournalMessageQueue} on the {@link Config#directory}, of which the journal is
+   * recovered, so that its messages not yet acknowledged are replayed once a listener is registered.
+   *
+   * @param deadLettersQueue the MessageQueue to which the messages that the listener failed to handle are enqueued, or null
+   * @param config the Config parameters
+   */
+  public JournalMessageQueue(final MessageQueue deadLettersQueue, final Config config) {
+    this(deadLettersQueue, config, null);
+  }
+
+  /**
+   * Creates a {@link JournalMessageQueue} on the {@link Config#directory}, of which the journal is
+   * recovered, and forced every {@link Config#fsyncInterval} by the {@code scheduler} when the
+   * {@link FsyncPolicy} is {@code Periodic}.
+   *
+   * @param deadLettersQueue the MessageQueue to which the messages that the listener failed to handle are enqueued, or null
+   * @param config the Config parameters
+   * @param scheduler the Scheduler that forces the journal periodically
+   */
+  public JournalMessageQueue(final MessageQueue deadLettersQueue, final Config config, final Scheduler scheduler) {
+    if ((config.fsyncPolicy == FsyncPolicy.Periodic) != (scheduler != null)) {
+      throw new IllegalArgumentException("A Scheduler must be given for, and only for, periodic fsync.");
+    }
+
+    this.deadLettersQueue = deadLettersQueue;
+    this.directory = config.directory;
+    this.fsyncPolicy = config.fsyncPolicy;
+    this.segmentSize = config.segmentSize;
+    this.segments = new ArrayDeque<>();
+    this.replayed = new ArrayList<>();
+
+    try {
+      Files.createDirectories(directory);
+      this.checkpoint = map(directory.resolve(CheckpointFile), Long.BYTES);
+      this.acknowledged = checkpoint.getLong(0);
+      recover();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot open journal at: " + directory, e);
+    }
+
+    this.dispatcher = new AsyncMessageQueue(null, AsyncMessageQueue.Config.batching(config.maxBatch).withBatchListener());
+    this.fsync = scheduler == null ? null : scheduler.schedule(new Fsync(), null, config.fsyncInterval, config.fsyncInterval);
+  }
+
+  @Override
+  public void close() {
+    close(true);
+  }
+
+  /**
+   * Close this queue, either after all of its messages are dispatched, or leaving those not
+   * yet dispatched in the journal to be replayed when a queue is next constructed on it.
+   * @param flush whether the messages are dispatched before this queue is closed
+   */
+  @Override
+  public void close(final boolean flush) {
+    synchronized (this) {
+      open = false;
+    }
+
+    dispatcher.close(flush);
+
+    if (fsync != null) {
+      fsync.cancel();
+    }
+
+    synchronized (this) {
+      for (final Segment segment : segments) {
+        segment.buffer.force();
+      }
+      checkpoint.force();
+    }
+  }
+
+  @Override
+  public void enqueue(final Message message) {
+    final byte[] id = bytesOf(message.id());
+    final byte[] type = bytesOf(message.type());
+    final byte[] version = bytesOf(message.version());
+    final Object payload = message.payload();
+    final byte[] payloadType = payload == null ? null : bytesOf(payload.getClass().getName());
+    final byte[] payloadJson = payload == null ? null : bytesOf(JsonSerialization.serialized(payload));
+    final Date occurredOn = message.occurredOn();
+
+    final int length = Long.BYTES + sizeOf(id) + sizeOf(type) + sizeOf(version) + sizeOf(payloadType) + sizeOf(payloadJson);
+
+    synchronized (this) {
+      if (!open) {
+        return;
+      }
+
+      final MappedByteBuffer buffer = segmentFor(RecordHeaderSize + length).buffer;
+      final int position = buffer.position();
+
+      buffer.position(position + RecordHeaderSize);
+      buffer.putLong(occurredOn == null ? Long.MIN_VALUE : occurredOn.getTime());
+      put(buffer, id);
+      put(buffer, type);
+      put(buffer, version);
+      put(buffer, payloadType);
+      put(buffer, payloadJson);
+
+      final long sequence = nextSequence++;
+      buffer.putInt(position + 4, checksumOf(buffer, position + RecordHeaderSize, length));
+      buffer.putLong(position + 8, sequence);
+      // the length is written last, so that a record is not recovered unless complete
+      buffer.putInt(position, length);
+
+      if (fsyncPolicy == FsyncPolicy.PerMessage) {
+        buffer.force();
+      }
+
+      dispatcher.enqueue(new SequencedMessage(message, sequence));
+    }
+  }
+
+  @Override
+  public void flush() {
+    dispatcher.flush();
+  }
+
+  /**
+   * Await the dispatch of all messages enqueued before and during this flush,
+   * for no longer than the {@code timeout}.
+   * @param timeout the long number of milliseconds to await the dispatch of the messages
+   * @return true if all messages were dispatched
+   */
+  public boolean flush(final long timeout) {
+    return dispatcher.flush(timeout);
+  }
+
+  public boolean isEmpty() {
+    return dispatcher.isEmpty();
+  }
+
+  /**
+   * Registers the {@code listener}, to which the messages not yet acknowledged by a previous
+   * queue on the same journal are first replayed, in the order they were enqueued.
+   * @param listener the MessageQueueListener
+   */
+  @Override
+  public void registerListener(final MessageQueueListener listener) {
+    synchronized (this) {
+      this.listener = listener;
+      this.open = true;
+      dispatcher.registerListener(new Dispatcher());
+
+      for (final SequencedMessage message : replayed) {
+        dispatcher.enqueue(message);
+      }
+      replayed.clear();
+    }
+  }
+
+  /**
+   * Answer the sequence of the last message acknowledged by the listener,
+   * where the first message enqueued to a journal has the sequence 1.
+   * @return long
+   */
+  public synchronized long acknowledged() {
+    return acknowledged;
+  }
+
+  /**
+   * Answer the number of messages that the listener failed to handle,
+   * which were enqueued to the dead letters queue if any.
+   * @return long
+   */
+  public long failed() {
+    return failed.sum();
+  }
+
+  /**
+   * Answer the number of acknowledged segment files that could not be deleted.
+   * @return long
+   */
+  public long undeletedSegments() {
+    return undeletedSegments.sum();
+  }
+
+  synchronized int segmentCount() {
+    return segments.size();
+  }
+
+  private void acknowledge(final long sequence) {
+    final List<Segment> reclaimed = new ArrayList<>();
+
+    synchronized (this) {
+      if (sequence <= acknowledged) {
+        return;
+      }
+      acknowledged = sequence;
+      checkpoint.putLong(0, acknowledged);
+      if (fsyncPolicy != FsyncPolicy.Periodic) {
+        checkpoint.force();
+      }
+
+      // a segment is acknowledged entirely when the next begins no later than the next unacknowledged
+      while (segments.size() > 1 && secondSegment().firstSequence <= acknowledged + 1) {
+        reclaimed.add(segments.removeFirst());
+      }
+    }
+
+    for (final Segment segment : reclaimed) {
+      // unmapped first, without which the file is not deleted on some platforms nor its space freed until collected
+      synchronized (unmapping) {
+        DirectMemory.free(segment.buffer);
+      }
+      try {
+        Files.deleteIfExists(segment.path);
+      } catch (IOException e) {
+        undeletedSegments.increment();
+      }
+    }
+  }
+
+  private void force() {
+    synchronized (unmapping) {
+      final Segment segment;
+      synchronized (this) {
+        segment = segments.peekLast();
+      }
+      if (segment != null) {
+        segment.buffer.force();
+      }
+    }
+  }
+
+  private void recover() throws IOException {
+    final List<Path> paths = new ArrayList<>();
+    try (final DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SegmentSuffix)) {
+      stream.forEach(paths::add);
+    }
+    paths.sort(null);
+
+    long expected = -1;
+    boolean truncated = false;
+
+    for (final Path path : paths) {
+      if (truncated) {
+        // follows a torn or corrupt record, and so cannot be reached
+        Files.delete(path);
+        continue;
+      }
+
+      final long firstSequence = firstSequenceOf(path);
+      if (expected != -1 && firstSequence != expected) {
+        truncated = true;
+        Files.delete(path);
+        continue;
+      }
+
+      final Segment segment = new Segment(path, firstSequence, map(path, (int) Files.size(path)));
+      if (segments.isEmpty()) {
+        // the messages of reclaimed segments were acknowledged, even if the checkpoint was not yet forced
+        acknowledged = Math.max(acknowledged, firstSequence - 1);
+      }
+      segments.addLast(segment);
+      expected = replay(segment);
+      truncated = segment.buffer.position() + RecordHeaderSize <= segment.buffer.capacity() &&
+          segment.buffer.getInt(segment.buffer.position()) != 0;
+    }
+
+    nextSequence = expected == -1 ? acknowledged + 1 : expected;
+  }
+
+  // answer the sequence following the last complete record, positioning the buffer after it
+  private long replay(final Segment segment) {
+    final MappedByteBuffer buffer = segment.buffer;
+    long sequence = segment.firstSequence;
+    int position = 0;
+
+    while (position + RecordHeaderSize <= buffer.capacity()) {
+      final int length = buffer.getInt(position);
+      if (length <= 0 || length > buffer.capacity() - position - RecordHeaderSize ||
+          buffer.getLong(position + 8) != sequence ||
+          buffer.getInt(position + 4) != checksumOf(buffer, position + RecordHeaderSize, length)) {
+        break;
+      }
+
+      if (sequence > acknowledged) {
+        buffer.position(position + RecordHeaderSize);
+        replayed.add(new SequencedMessage(read(buffer), sequence));
+      }
+
+      position += RecordHeaderSize + length;
+      ++sequence;
+    }
+
+    buffer.position(position);
+    return sequence;
+  }
+
+  private Segment secondSegment() {
+    final Iterator<Segment> iterator = segments.iterator();
+    iterator.next();
+    return iterator.next();
+  }
+
+  private Segment segmentFor(final int recordSize) {
+    final Segment current = segments.peekLast();
+    if (current != null && current.buffer.remaining() >= recordSize) {
+      return current;
+    }
+
+    try {
+      if (current != null) {
+        current.buffer.force();
+      }
+      final Path path = directory.resolve(String.format("%020d%s", nextSequence, SegmentSuffix));
+      final Segment segment = new Segment(path, nextSequence, map(path, Math.max(segmentSize, recordSize)));
+      segments.addLast(segment);
+      return segment;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot roll journal segment at: " + directory, e);
+    }
+  }
+
+  private static byte[] bytesOf(final String value) {
+    return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static int checksumOf(final ByteBuffer buffer, final int position, final int length) {
+    final ByteBuffer record = buffer.duplicate();
+    record.limit(position + length).position(position);
+    final CRC32 crc = new CRC32();
+    crc.update(record);
+    return (int) crc.getValue();
+  }
+
+  private static long firstSequenceOf(final Path path) {
+    final String name = path.getFileName().toString();
+    return Long.parseLong(name.substring(0, name.length() - SegmentSuffix.length()));
+  }
+
+  private static MappedByteBuffer map(final Path path, final int size) throws IOException {
+    try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+  }
+
+  private static void put(final ByteBuffer buffer, final byte[] value) {
+    if (value == null) {
+      buffer.putInt(-1);
+    } else {
+      buffer.putInt(value.length);
+      buffer.put(value);
+    }
+  }
+
+  private static Message read(final ByteBuffer buffer) {
+    final long occurredOn = buffer.getLong();
+    final String id = readString(buffer);
+    final String type = readString(buffer);
+    final String version = readString(buffer);
+    final String payloadType = readString(buffer);
+    final String payloadJson = readString(buffer);
+
+    return new JournaledMessage(id, occurredOn == Long.MIN_VALUE ? null : new Date(occurredOn), payloadOf(payloadType, payloadJson), type, version);
+  }
+
+  private static String readString(final ByteBuffer buffer) {
+    final int length = buffer.getInt();
+    if (length < 0) {
+      return null;
+    }
+    final byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static Object payloadOf(final String payloadType, final String payloadJson) {
+    if (payloadType == null) {
+      return null;
+    }
+    try {
+      return JsonSerialization.deserialized(payloadJson, Class.forName(payloadType));
+    } catch (ClassNotFoundException e) {
+      // replayed as its JSON when its class is no longer available
+      return payloadJson;
+    }
+  }
+
+  private static int sizeOf(final byte[] value) {
+    return Integer.BYTES + (value == null ? 0 : value.length);
+  }
+
+  /**
+   * Dispatches each batch to the listener once the journal is forced, and acknowledges it.
+   */
+  private class Dispatcher implements MessageQueueListener {
+    @Override
+    public void handleMessage(final Message message) throws Exception {
+      final SequencedMessage sequenced = (SequencedMessage) message;
+      listener.handleMessage(sequenced.message);
+      acknowledge(sequenced.sequence);
+    }
+
+    @Override
+    public void handleMessages(final List<Message> messages) {
+      if (fsyncPolicy == FsyncPolicy.PerBatch) {
+        force();
+      }
+
+      for (final Message message : messages) {
+        final Message original = ((SequencedMessage) message).message;
+        try {
+          listener.handleMessage(original);
+        } catch (Exception e) {
+          failed.increment();
+          if (deadLettersQueue != null) {
+            deadLettersQueue.enqueue(original);
+          }
+        }
+      }
+
+      // by sequence rather than by count, so that the checkpoint does not lag behind a batch that failed as a whole
+      acknowledge(((SequencedMessage) messages.get(messages.size() - 1)).sequence);
+    }
+  }
+
+  /**
+   * Forces the journal and its checkpoint when signaled by the {@code Scheduler}.
+   */
+  private class Fsync implements Scheduled<Object> {
+    @Override
+    public void intervalSignal(final Scheduled<Object> scheduled, final Object data) {
+      force();
+      synchronized (JournalMessageQueue.this) {
+        checkpoint.force();
+      }
+    }
+  }
+
+  /**
+   * A mapped segment file of the journal, of which the name is the sequence of its first message.
+   */
+  private static final class Segment {
+    final MappedByteBuffer buffer;
+    final long firstSequence;
+    final Path path;
+
+    Segment(final Path path, final long firstSequence, final MappedByteBuffer buffer) {
+      this.path = path;
+      this.firstSequence = firstSequence;
+      this.buffer = buffer;
+    }
+  }
+
+  /**
+   * A {@link Message} dispatched with the sequence of its record in the journal, by which it is acknowledged.
+   */
+  private static final class SequencedMessage implements Message {
+    final Message message;
+    final long sequence;
+
+    SequencedMessage(final Message message, final long sequence) {
+      this.message = message;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public String id() {
+      return message.id();
+    }
+
+    @Override
+    public Date occurredOn() {
+      return message.occurredOn();
+    }
+
+    @Override
+    public <T> T payload() {
+      return message.payload();
+    }
+
+    @Override
+    public String type() {
+      return message.type();
+    }
+
+    @Override
+    public String version() {
+      return message.version();
+    }
+  }
+
+  /**
+   * A {@link Message} replayed from the journal.
+   */
+  private static final class JournaledMessage implements Message {
+    private final String id;
+    private final Date occurredOn;
+    private final Object payload;
+    private final String type;
+    private final String version;
+
+    JournaledMessage(final String id, final Date occurredOn, final Object payload, final String type, final String version) {
+      this.id = id;
+      this.occurredOn = occurredOn;
+      this.payload = payload;
+      this.type = type;
+      this.version = version;
+    }
+
+    @Override
+    public String id() {
+      return id;
+    }
+
+    @Override
+    public Date occurredOn() {
+      return occurredOn;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T payload() {
+      return (T) payload;
+    }
+
+    @Override
+    public String type() {
+      return type;
+    }
+
+    @Override
+    public String version() {
+      return version;
+    }
+  }
+
+  /**
+   * {@link JournalMessageQueue} configuration parameters.
+   */
+  public static final class Config {
+
+    final Path directory;
+    final int segmentSize;
+    final FsyncPolicy fsyncPolicy;
+    final long fsyncInterval;
+    final int maxBatch;
+
+    /**
+     * @param directory     the Path of the directory of the journal
+     * @param segmentSize   the int number of bytes of each segment file
+     * @param fsyncPolicy   the {@code FsyncPolicy} by which the journal is forced
+     * @param fsyncInterval the long number of milliseconds between periodic forces
+     * @param maxBatch      the maximum number of messages dispatched per batch
+     */
+    Config(Path directory, int segmentSize, FsyncPolicy fsyncPolicy, long fsyncInterval, int maxBatch) {
+      if (directory == null) {
+        throw new IllegalArgumentException("Directory must not be null.");
+      }
+      if (segmentSize < RecordHeaderSize) {
+        throw new IllegalArgumentException("Segment size must be at least " + RecordHeaderSize + " bytes.");
+      }
+      if (fsyncPolicy == null) {
+        throw new IllegalArgumentException("Fsync policy must not be null.");
+      }
+      if (fsyncPolicy == FsyncPolicy.Periodic && fsyncInterval <= 0) {
+        throw new IllegalArgumentException("Fsync interval must be positive.");
+      }
+      if (maxBatch <= 0) {
+        throw new IllegalArgumentException("Maximum batch must be positive.");
+      }
+      this.directory = directory;
+      this.segmentSize = segmentSize;
+      this.fsyncPolicy = fsyncPolicy;
+      this.fsyncInterval = fsyncInterval;
+      this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Answer the {@code Config} of a journal in {@code directory} of 16 MiB segments,
+     * which is forced before each batch is dispatched.
+     * @param directory the Path of the directory of the journal
+     * @return Config
+     */
+    public static Config of(Path directory) {
+      return new Config(directory, 16 * 1024 * 1024, FsyncPolicy.PerBatch, 0, 64);
+    }
+
+    /**
+     * Answer a copy of this {@code Config} with segment files of {@code segmentSize} bytes,
+     * or larger where a single message requires.
+     * @param segmentSize the int number of bytes of each segment file
+     * @return Config
+     */
+    public Config withSegmentSize(int segmentSize) {
+      return new Config(directory, segmentSize, fsyncPolicy, fsyncInterval, maxBatch);
+    }
+
+    /**
+     * Answer a copy of this {@code Config} that forces the journal per message or per batch.
+     * @param fsyncPolicy the {@code FsyncPolicy}, which is {@code PerMessage} or {@code PerBatch}
+     * @return Config
+     */
+    public Config withFsync(FsyncPolicy fsyncPolicy) {
+      if (fsyncPolicy == FsyncPolicy.Periodic) {
+        throw new IllegalArgumentException("Periodic fsync requires an interval.");
+      }
+      return new Config(directory, segmentSize, fsyncPolicy, 0, maxBatch);
+    }
+
+    /**
+     * Answer a copy of this {@code Config} that forces the journal every {@code fsyncInterval},
+     * which requires the queue to be constructed with a {@code Scheduler}.
+     * @param fsyncInterval the long number of milliseconds between forces
+     * @return Config
+     */
+    public Config withPeriodicFsync(long fsyncInterval) {
+      return new Config(directory, segmentSize, FsyncPolicy.Periodic, fsyncInterval, maxBatch);
+    }
+
+    /**
+     * Answer a copy of this {@code Config} with which up to {@code maxBatch} messages are dispatched per batch.
+     * @param maxBatch the maximum number of messages dispatched per batch
+     * @return Config
+     */
+    public Config withMaxBatch(int maxBatch) {
+      return new Config(directory, segmentSize, fsyncPolicy, fsyncInterval, maxBatch);
+    }
+  }
+}
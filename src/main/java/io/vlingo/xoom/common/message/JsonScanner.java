@@ -0,0 +1,395 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.message;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+/**
+ * Resolves key paths of a JSON object representation by scanning only the objects on each path,
+ * rather than parsing it into a tree. The offsets of the values of the members of an object are
+ * indexed when it is first scanned, so that it is not scanned again, where a duplicate key answers
+ * its last value as when parsed. The values of the members are skipped rather than decoded until
+ * read. Instances are not thread-safe.
+ */
+final class JsonScanner {
+  static final int Absent = -1;
+
+  // the powers of ten exactly representable as a double
+  private static final double[] PowersOfTen = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+  private final String json;
+  private final Map<Integer, ObjectIndex> objects = new HashMap<>();
+  private final int root;
+
+  JsonScanner(final String json) {
+    this.json = json;
+    this.root = skipWhitespace(0);
+
+    if (root >= json.length() || json.charAt(root) != '{') {
+      throw new IllegalArgumentException("Must be a JSON object.");
+    }
+  }
+
+  /**
+   * Answer the offset of the value of the path of {@code keys}, or {@link #Absent} if a key is
+   * absent or a value before the last is null. As for a parsed {@code MessageReader}, each key
+   * is also looked up with the prefix {@code @} when absent.
+   * @param keys the String[] of keys of nested objects, of which the last is that of the value
+   * @return int
+   */
+  int valueOffset(final String... keys) {
+    if (keys.length == 0) {
+      throw new IllegalArgumentException("Must specify one or more keys.");
+    }
+    return valueOffset(keys, null);
+  }
+
+  /**
+   * Answer the offset of the value of the {@code path}, as by {@link #valueOffset(String...)}.
+   * @param path the compiled MessagePath
+   * @return int
+   */
+  int valueOffset(final MessagePath path) {
+    return valueOffset(path.keys, path.attributedKeys);
+  }
+
+  private int valueOffset(final String[] keys, final String[] attributedKeys) {
+    int offset = root;
+
+    for (int keyIndex = 0; keyIndex < keys.length; ++keyIndex) {
+      if (keyIndex > 0) {
+        switch (json.charAt(offset)) {
+        case '{':
+          break;
+        case 'n':
+          return Absent;
+        default:
+          throw new IllegalArgumentException("Last name must reference a simple value.");
+        }
+      }
+
+      final ObjectIndex object = objectAt(offset);
+      offset = object.valueOffset(keys[keyIndex]);
+      if (offset == Absent) {
+        offset = object.valueOffset(attributedKeys == null ? "@" + keys[keyIndex] : attributedKeys[keyIndex]);
+        if (offset == Absent) {
+          return Absent;
+        }
+      }
+    }
+
+    return offset;
+  }
+
+  /**
+   * Answer the value at {@code offset} as a String, as by {@code JsonElement.getAsString()},
+   * or null if it is JSON null.
+   * @param offset the int offset of the value
+   * @return String
+   */
+  String stringAt(final int offset) {
+    switch (json.charAt(offset)) {
+    case '"':
+      return decodeString(offset);
+    case '{':
+    case '[':
+      return elementAt(offset).getAsString();
+    case 'n':
+      return null;
+    default:
+      return json.substring(offset, skipValue(offset));
+    }
+  }
+
+  /**
+   * Answer the value at {@code offset} parsed as a {@code JsonElement}.
+   * @param offset the int offset of the value
+   * @return JsonElement
+   */
+  JsonElement elementAt(final int offset) {
+    return JsonParser.parseString(json.substring(offset, skipValue(offset)));
+  }
+
+  boolean isNullAt(final int offset) {
+    return json.charAt(offset) == 'n';
+  }
+
+  /**
+   * Answer the value at {@code offset} as a boolean, as by {@code JsonElement.getAsBoolean()},
+   * reading the literals {@code true} and {@code false} in place.
+   * @param offset the int offset of the value
+   * @return boolean
+   */
+  boolean booleanAt(final int offset) {
+    final int end = skipValue(offset);
+    if (end - offset == 4 && json.startsWith("true", offset)) {
+      return true;
+    }
+    if (end - offset == 5 && json.startsWith("false", offset)) {
+      return false;
+    }
+    return elementAt(offset).getAsBoolean();
+  }
+
+  /**
+   * Answer the value at {@code offset} as a double, as by {@code JsonElement.getAsDouble()},
+   * computing a number of up to 15 significant digits and a power of ten of up to 22 in place,
+   * for which the single multiplication or division by the power is correctly rounded.
+   * @param offset the int offset of the value
+   * @return double
+   */
+  double doubleAt(final int offset) {
+    final int end = skipValue(offset);
+    final double value = exactDoubleAt(offset, end);
+    return Double.isNaN(value) ? elementAt(offset).getAsDouble() : value;
+  }
+
+  /**
+   * Answer the value at {@code offset} as an int, as by {@code JsonElement.getAsInt()},
+   * reading an integral number of up to 18 digits in place.
+   * @param offset the int offset of the value
+   * @return int
+   */
+  int intAt(final int offset) {
+    final int end = skipValue(offset);
+    return isIntegral(offset, end) ? (int) integralAt(offset, end) : elementAt(offset).getAsInt();
+  }
+
+  /**
+   * Answer the value at {@code offset} as a long, as by {@code JsonElement.getAsLong()},
+   * reading an integral number of up to 18 digits in place.
+   * @param offset the int offset of the value
+   * @return long
+   */
+  long longAt(final int offset) {
+    final int end = skipValue(offset);
+    return isIntegral(offset, end) ? integralAt(offset, end) : elementAt(offset).getAsLong();
+  }
+
+  private ObjectIndex objectAt(final int offset) {
+    ObjectIndex object = objects.get(offset);
+    if (object == null) {
+      object = new ObjectIndex(offset + 1);
+      objects.put(offset, object);
+    }
+    return object;
+  }
+
+  private String decodeString(final int offset) {
+    final int end = skipString(offset);
+    final int escape = json.indexOf('\\', offset + 1);
+    if (escape == -1 || escape >= end) {
+      return json.substring(offset + 1, end - 1);
+    }
+
+    final StringBuilder builder = new StringBuilder(end - offset);
+    for (int index = offset + 1; index < end - 1; ++index) {
+      final char c = json.charAt(index);
+      if (c != '\\') {
+        builder.append(c);
+        continue;
+      }
+      final char escaped = json.charAt(++index);
+      switch (escaped) {
+      case 'b': builder.append('\b'); break;
+      case 'f': builder.append('\f'); break;
+      case 'n': builder.append('\n'); break;
+      case 'r': builder.append('\r'); break;
+      case 't': builder.append('\t'); break;
+      case 'u':
+        builder.append((char) Integer.parseInt(json.substring(index + 1, index + 5), 16));
+        index += 4;
+        break;
+      default: builder.append(escaped);
+      }
+    }
+    return builder.toString();
+  }
+
+  // answer the number from offset to end if exactly computable, otherwise NaN
+  private double exactDoubleAt(final int offset, final int end) {
+    final boolean negative = json.charAt(offset) == '-';
+    int index = negative ? offset + 1 : offset;
+    long significand = 0;
+    int digits = 0;
+    int exponent = 0;
+    boolean fraction = false;
+
+    for ( ; index < end; ++index) {
+      final char c = json.charAt(index);
+      if (c >= '0' && c <= '9') {
+        if (++digits > 15) {
+          return Double.NaN;
+        }
+        significand = significand * 10 + (c - '0');
+        if (fraction) {
+          --exponent;
+        }
+      } else if (c == '.' && !fraction) {
+        fraction = true;
+      } else {
+        break;
+      }
+    }
+
+    if (digits == 0) {
+      return Double.NaN;
+    }
+
+    if (index < end) {
+      final char e = json.charAt(index++);
+      if (e != 'e' && e != 'E') {
+        return Double.NaN;
+      }
+      final boolean negativeExponent = index < end && json.charAt(index) == '-';
+      if (index < end && (json.charAt(index) == '-' || json.charAt(index) == '+')) {
+        ++index;
+      }
+      if (index == end || end - index > 3) {
+        return Double.NaN;
+      }
+      int power = 0;
+      for ( ; index < end; ++index) {
+        final char c = json.charAt(index);
+        if (c < '0' || c > '9') {
+          return Double.NaN;
+        }
+        power = power * 10 + (c - '0');
+      }
+      exponent += negativeExponent ? -power : power;
+    }
+
+    if (exponent < -22 || exponent > 22) {
+      return Double.NaN;
+    }
+
+    final double value = exponent < 0 ? significand / PowersOfTen[-exponent] : significand * PowersOfTen[exponent];
+
+    return negative ? -value : value;
+  }
+
+  private int expect(final int offset, final char expected) {
+    if (offset >= json.length() || json.charAt(offset) != expected) {
+      throw new IllegalArgumentException("Expected '" + expected + "' at offset " + offset + ".");
+    }
+    return offset + 1;
+  }
+
+  // answer the integral number from offset to end, of which isIntegral(offset, end)
+  private long integralAt(final int offset, final int end) {
+    final boolean negative = json.charAt(offset) == '-';
+    long value = 0;
+    for (int index = negative ? offset + 1 : offset; index < end; ++index) {
+      value = value * 10 + (json.charAt(index) - '0');
+    }
+    return negative ? -value : value;
+  }
+
+  // answer whether offset to end is an optionally negative integral number of up to 18 digits
+  private boolean isIntegral(final int offset, final int end) {
+    final int start = json.charAt(offset) == '-' ? offset + 1 : offset;
+    if (end == start || end - start > 18) {
+      return false;
+    }
+    for (int index = start; index < end; ++index) {
+      final char c = json.charAt(index);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int skipString(final int offset) {
+    for (int index = offset + 1; index < json.length(); ++index) {
+      final char c = json.charAt(index);
+      if (c == '\\') {
+        ++index;
+      } else if (c == '"') {
+        return index + 1;
+      }
+    }
+    throw new IllegalArgumentException("Unterminated string at offset " + offset + ".");
+  }
+
+  // answer the offset following the value at offset
+  private int skipValue(final int offset) {
+    final char first = json.charAt(offset);
+
+    if (first == '"') {
+      return skipString(offset);
+    }
+
+    if (first == '{' || first == '[') {
+      int depth = 0;
+      for (int index = offset; index < json.length(); ++index) {
+        final char c = json.charAt(index);
+        if (c == '"') {
+          index = skipString(index) - 1;
+        } else if (c == '{' || c == '[') {
+          ++depth;
+        } else if ((c == '}' || c == ']') && --depth == 0) {
+          return index + 1;
+        }
+      }
+      throw new IllegalArgumentException("Unterminated value at offset " + offset + ".");
+    }
+
+    int index = offset;
+    while (index < json.length()) {
+      final char c = json.charAt(index);
+      if (c == ',' || c == '}' || c == ']' || Character.isWhitespace(c)) {
+        break;
+      }
+      ++index;
+    }
+    return index;
+  }
+
+  private int skipWhitespace(final int offset) {
+    int index = offset;
+    while (index < json.length() && Character.isWhitespace(json.charAt(index))) {
+      ++index;
+    }
+    return index;
+  }
+
+  /**
+   * The offsets of the values of the members of an object.
+   */
+  private final class ObjectIndex {
+    private final Map<String, Integer> offsets = new HashMap<>();
+
+    ObjectIndex(final int start) {
+      int index = skipWhitespace(start);
+
+      while (index < json.length() && json.charAt(index) != '}') {
+        final String name = decodeString(index);
+        final int value = skipWhitespace(expect(skipWhitespace(skipString(index)), ':'));
+        // all members are indexed, so that a duplicate key answers its last value as does Gson
+        offsets.put(name, value);
+
+        index = skipWhitespace(skipValue(value));
+        if (index < json.length() && json.charAt(index) == ',') {
+          index = skipWhitespace(index + 1);
+        }
+      }
+    }
+
+    int valueOffset(final String key) {
+      final Integer offset = offsets.get(key);
+      return offset == null ? Absent : offset;
+    }
+  }
+}
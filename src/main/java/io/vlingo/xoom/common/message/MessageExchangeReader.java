@@ -14,7 +14,18 @@ public class MessageExchangeReader extends MessageReader {
   private final Message message;
 
   public static MessageExchangeReader from(final Message message) {
-    return new MessageExchangeReader(message);
+    return new MessageExchangeReader(message, false);
+  }
+
+  /**
+   * Answer a reader of the {@code message} of which the payload is scanned by each read only
+   * as far as required, rather than parsed in full. The reader is not thread-safe, and so must
+   * be confined to one thread or guarded by its users.
+   * @param message the Message of which the payload is a String JSON object representation
+   * @return MessageExchangeReader
+   */
+  public static MessageExchangeReader lazyFrom(final Message message) {
+    return new MessageExchangeReader(message, true);
   }
 
   //==============================================
@@ -47,43 +58,114 @@ public class MessageExchangeReader extends MessageReader {
     return stringValue == null ? null : new BigDecimal(stringValue);
   }
 
+  public BigDecimal payloadBigDecimalValue(final MessagePath path) {
+    String stringValue = stringValue(path);
+    return stringValue == null ? null : new BigDecimal(stringValue);
+  }
+
+  public boolean payloadBooleanValue(final boolean defaultValue, final String... keys) {
+    return booleanValue(defaultValue, keys);
+  }
+
+  public boolean payloadBooleanValue(final boolean defaultValue, final MessagePath path) {
+    return booleanValue(defaultValue, path);
+  }
+
   public Boolean payloadBooleanValue(final String... keys) {
     String stringValue = stringValue(keys);
     return stringValue == null ? null : Boolean.parseBoolean(stringValue);
   }
 
+  public Boolean payloadBooleanValue(final MessagePath path) {
+    String stringValue = stringValue(path);
+    return stringValue == null ? null : Boolean.parseBoolean(stringValue);
+  }
+
   public Date payloadDateValue(final String... keys) {
     String stringValue = stringValue(keys);
     return stringValue == null ? null : new Date(Long.parseLong(stringValue));
   }
 
+  public Date payloadDateValue(final MessagePath path) {
+    String stringValue = stringValue(path);
+    return stringValue == null ? null : new Date(Long.parseLong(stringValue));
+  }
+
+  public double payloadDoubleValue(final double defaultValue, final String... keys) {
+    return doubleValue(defaultValue, keys);
+  }
+
+  public double payloadDoubleValue(final double defaultValue, final MessagePath path) {
+    return doubleValue(defaultValue, path);
+  }
+
   public Double payloadDoubleValue(final String... keys) {
     String stringValue = stringValue(keys);
     return stringValue == null ? null : Double.parseDouble(stringValue);
   }
 
+  public Double payloadDoubleValue(final MessagePath path) {
+    String stringValue = stringValue(path);
+    return stringValue == null ? null : Double.parseDouble(stringValue);
+  }
+
   public Float payloadFloatValue(final String... keys) {
     String stringValue = stringValue(keys);
     return stringValue == null ? null : Float.parseFloat(stringValue);
   }
 
+  public Float payloadFloatValue(final MessagePath path) {
+    String stringValue = stringValue(path);
+    return stringValue == null ? null : Float.parseFloat(stringValue);
+  }
+
+  public int payloadIntValue(final int defaultValue, final String... keys) {
+    return intValue(defaultValue, keys);
+  }
+
+  public int payloadIntValue(final int defaultValue, final MessagePath path) {
+    return intValue(defaultValue, path);
+  }
+
   public Integer payloadIntegerValue(final String... keys) {
     String stringValue = stringValue(keys);
     return stringValue == null ? null : Integer.parseInt(stringValue);
   }
 
+  public Integer payloadIntegerValue(final MessagePath path) {
+    String stringValue = stringValue(path);
+    return stringValue == null ? null : Integer.parseInt(stringValue);
+  }
+
+  public long payloadLongValue(final long defaultValue, final String... keys) {
+    return longValue(defaultValue, keys);
+  }
+
+  public long payloadLongValue(final long defaultValue, final MessagePath path) {
+    return longValue(defaultValue, path);
+  }
+
   public Long payloadLongValue(final String... keys) {
     String stringValue = stringValue(keys);
     return stringValue == null ? null : Long.parseLong(stringValue);
   }
 
+  public Long payloadLongValue(final MessagePath path) {
+    String stringValue = stringValue(path);
+    return stringValue == null ? null : Long.parseLong(stringValue);
+  }
+
   public String payloadStringValue(final String... keys) {
     String stringValue = stringValue(keys);
     return stringValue;
   }
 
-  private MessageExchangeReader(final Message message) {
-    super((String) message.payload());
+  public String payloadStringValue(final MessagePath path) {
+    return stringValue(path);
+  }
+
+  private MessageExchangeReader(final Message message, final boolean lazy) {
+    super((String) message.payload(), lazy);
 
     this.message = message;
   }
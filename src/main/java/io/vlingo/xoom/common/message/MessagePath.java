@@ -0,0 +1,61 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.message;
+
+import java.util.Arrays;
+
+/**
+ * A compiled key path of a {@link MessageReader}, of which the keys and their {@code @} prefixed
+ * alternatives are prepared once, so that a path read repeatedly is resolved without allocation.
+ * Instances are immutable and may be held in constants.
+ */
+public final class MessagePath {
+  final String[] attributedKeys;
+  final String[] keys;
+
+  /**
+   * Answer the {@code MessagePath} of the {@code keys} of nested objects, of which the last is that of the value.
+   * @param keys the String[] of keys
+   * @return MessagePath
+   */
+  public static MessagePath compile(final String... keys) {
+    if (keys.length == 0) {
+      throw new IllegalArgumentException("Must specify one or more keys.");
+    }
+    return new MessagePath(keys);
+  }
+
+  private MessagePath(final String[] keys) {
+    this.keys = keys.clone();
+    this.attributedKeys = new String[keys.length];
+
+    for (int index = 0; index < keys.length; ++index) {
+      if (keys[index] == null) {
+        throw new IllegalArgumentException("Keys must not be null.");
+      }
+      this.attributedKeys[index] = "@" + keys[index];
+    }
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other) return true;
+    if (other == null || getClass() != other.getClass()) return false;
+    return Arrays.equals(keys, ((MessagePath) other).keys);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(keys);
+  }
+
+  @Override
+  public String toString() {
+    return "MessagePath" + Arrays.toString(keys);
+  }
+}
@@ -7,6 +7,21 @@
 
 package io.vlingo.xoom.common.message;
 
+import java.util.List;
+
 public interface MessageQueueListener {
   void handleMessage(final Message message) throws Exception ;
+
+  /**
+   * Handle the {@code messages} drained together by a {@code MessageQueue} that dispatches
+   * batches to its listener. By default each message is handled by {@code handleMessage()}.
+   * The {@code messages} are valid only for the duration of this call.
+   * @param messages the {@code List<Message>} to handle, in the order they were enqueued
+   * @throws Exception if the batch could not be handled
+   */
+  default void handleMessages(final List<Message> messages) throws Exception {
+    for (final Message message : messages) {
+      handleMessage(message);
+    }
+  }
 }
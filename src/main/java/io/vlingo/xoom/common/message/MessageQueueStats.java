@@ -0,0 +1,111 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.message;
+
+import java.util.Objects;
+
+/**
+ * Bounded {@link MessageQueue} statistics
+ */
+public final class MessageQueueStats {
+
+  /**
+   * maximum number of messages the queue holds
+   */
+  public final int capacity;
+
+  /**
+   * number of messages held by the queue
+   */
+  public final int occupancy;
+
+  /**
+   * largest number of messages held by the queue at once
+   */
+  public final int maxOccupancy;
+
+  /**
+   * number of messages enqueued
+   */
+  public final long enqueued;
+
+  /**
+   * number of messages dispatched to the listener
+   */
+  public final long delivered;
+
+  /**
+   * number of messages dropped on overflow
+   */
+  public final long dropped;
+
+  /**
+   * number of messages sent to the dead letters queue on overflow or when the listener failed
+   */
+  public final long deadLettered;
+
+  /**
+   * number of enqueues that blocked on overflow
+   */
+  public final long blocked;
+
+  /**
+   * @param capacity     maximum number of messages the queue holds
+   * @param occupancy    number of messages held by the queue
+   * @param maxOccupancy largest number of messages held by the queue at once
+   * @param enqueued     number of messages enqueued
+   * @param delivered    number of messages dispatched to the listener
+   * @param dropped      number of messages dropped on overflow
+   * @param deadLettered number of messages sent to the dead letters queue
+   * @param blocked      number of enqueues that blocked on overflow
+   */
+  public MessageQueueStats(int capacity, int occupancy, int maxOccupancy, long enqueued, long delivered, long dropped, long deadLettered, long blocked) {
+    this.capacity = capacity;
+    this.occupancy = occupancy;
+    this.maxOccupancy = maxOccupancy;
+    this.enqueued = enqueued;
+    this.delivered = delivered;
+    this.dropped = dropped;
+    this.deadLettered = deadLettered;
+    this.blocked = blocked;
+  }
+
+  /**
+   * Answer the fraction of the capacity that is occupied.
+   * @return float
+   */
+  public float utilization() {
+    return (float) occupancy / Math.max(1, capacity);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    MessageQueueStats that = (MessageQueueStats) o;
+    return capacity == that.capacity &&
+        occupancy == that.occupancy &&
+        maxOccupancy == that.maxOccupancy &&
+        enqueued == that.enqueued &&
+        delivered == that.delivered &&
+        dropped == that.dropped &&
+        deadLettered == that.deadLettered &&
+        blocked == that.blocked;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(capacity, occupancy, maxOccupancy, enqueued, delivered, dropped, deadLettered, blocked);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("MessageQueueStats(capacity: %d, occupancy: %d, maxOccupancy: %d, enqueued: %d, delivered: %d, dropped: %d, deadLettered: %d, blocked: %d)",
+        capacity, occupancy, maxOccupancy, enqueued, delivered, dropped, deadLettered, blocked);
+  }
+}
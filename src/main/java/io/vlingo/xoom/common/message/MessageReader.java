@@ -15,18 +15,58 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
+/**
+ * Reads the values of key paths of a JSON object representation, which is either parsed in full
+ * when the reader is constructed, or with the lazy mode, scanned by each read only through the
+ * objects on the path of its keys, so that reading a few values of a large representation does not
+ * materialize all of it. A lazy reader parses the representation in full only when it is required
+ * as a {@code JsonObject}, after which it reads from the parsed representation. A lazy reader answers
+ * null for a key path that is absent, and as a parsed reader, the last value of a duplicate key.
+ * <p>
+ * A lazy reader is not thread-safe, since its reads index the representation as they scan it,
+ * and so must be confined to one thread or guarded by its users.
+ * <p>
+ * Each read is also available for a {@link MessagePath} compiled once, which is resolved without
+ * allocating the keys or their {@code @} prefixed alternatives, and answers null when absent.
+ * <p>
+ * The primitive reads, such as {@link #intValue(int, String...)}, answer their {@code defaultValue}
+ * when the key path is absent or its value is null, and otherwise read the value as by
+ * {@code JsonElement.getAsInt()} and the like, without first reading it as a String and boxing it.
+ */
 public abstract class MessageReader {
+  private String jsonRepresentation;
   private JsonObject representation;
+  private JsonScanner scanner;
 
   public MessageReader(final String jsonRepresentation) {
     initialize(jsonRepresentation);
   }
 
+  /**
+   * Constructs a reader of the {@code jsonRepresentation}, which when {@code lazy} is scanned
+   * by each read only as far as required, rather than parsed in full, and is not thread-safe.
+   * @param jsonRepresentation the String JSON object representation
+   * @param lazy whether the representation is scanned as read rather than parsed in full
+   */
+  public MessageReader(final String jsonRepresentation, final boolean lazy) {
+    if (lazy) {
+      this.jsonRepresentation = jsonRepresentation;
+      this.scanner = new JsonScanner(jsonRepresentation);
+    } else {
+      initialize(jsonRepresentation);
+    }
+  }
+
   public MessageReader(final JsonObject jsonRepresentation) {
     this.representation = jsonRepresentation;
   }
 
   public JsonArray array(final String... keys) {
+    if (scanner != null) {
+      final int offset = scanner.valueOffset(keys);
+      return offset == JsonScanner.Absent || scanner.isNullAt(offset) ? null : scanner.elementAt(offset).getAsJsonArray();
+    }
+
     JsonArray array = null;
 
     JsonElement element = navigateTo(representation(), keys);
@@ -38,55 +78,250 @@ public abstract class MessageReader {
     return array;
   }
 
+  public JsonArray array(final MessagePath path) {
+    final JsonElement element = elementOf(path);
+    return element == null ? null : element.getAsJsonArray();
+  }
+
   public BigDecimal bigDecimalValue(final String... keys) {
     final String stringValue = stringValue(keys);
 
     return stringValue == null ? null : new BigDecimal(stringValue);
   }
 
+  public BigDecimal bigDecimalValue(final MessagePath path) {
+    final String stringValue = stringValue(path);
+
+    return stringValue == null ? null : new BigDecimal(stringValue);
+  }
+
+  /**
+   * Answer the boolean value of the key path, or the {@code defaultValue} if absent or null.
+   * @param defaultValue the boolean answered if the value is absent or null
+   * @param keys the String[] of keys of nested objects, of which the last is that of the value
+   * @return boolean
+   */
+  public boolean booleanValue(final boolean defaultValue, final String... keys) {
+    if (scanner != null) {
+      final int offset = scanner.valueOffset(keys);
+      return isValueAt(offset) ? scanner.booleanAt(offset) : defaultValue;
+    }
+
+    final JsonElement element = elementAt(representation(), keys, null);
+    return element == null ? defaultValue : element.getAsBoolean();
+  }
+
+  /**
+   * Answer the boolean value of the {@code path}, or the {@code defaultValue} if absent or null.
+   * @param defaultValue the boolean answered if the value is absent or null
+   * @param path the compiled MessagePath
+   * @return boolean
+   */
+  public boolean booleanValue(final boolean defaultValue, final MessagePath path) {
+    if (scanner != null) {
+      final int offset = scanner.valueOffset(path);
+      return isValueAt(offset) ? scanner.booleanAt(offset) : defaultValue;
+    }
+
+    final JsonElement element = navigateTo(representation(), path);
+    return element == null ? defaultValue : element.getAsBoolean();
+  }
+
   public Boolean booleanValue(final String... keys) {
     final String stringValue = stringValue(keys);
 
     return stringValue == null ? null : Boolean.parseBoolean(stringValue);
   }
 
+  public Boolean booleanValue(final MessagePath path) {
+    final String stringValue = stringValue(path);
+
+    return stringValue == null ? null : Boolean.parseBoolean(stringValue);
+  }
+
   public Date dateValue(final String... keys) {
     final String stringValue = stringValue(keys);
 
     return stringValue == null ? null : new Date(Long.parseLong(stringValue));
   }
 
+  public Date dateValue(final MessagePath path) {
+    final String stringValue = stringValue(path);
+
+    return stringValue == null ? null : new Date(Long.parseLong(stringValue));
+  }
+
+  /**
+   * Answer the double value of the key path, or the {@code defaultValue} if absent or null.
+   * @param defaultValue the double answered if the value is absent or null
+   * @param keys the String[] of keys of nested objects, of which the last is that of the value
+   * @return double
+   */
+  public double doubleValue(final double defaultValue, final String... keys) {
+    if (scanner != null) {
+      final int offset = scanner.valueOffset(keys);
+      return isValueAt(offset) ? scanner.doubleAt(offset) : defaultValue;
+    }
+
+    final JsonElement element = elementAt(representation(), keys, null);
+    return element == null ? defaultValue : element.getAsDouble();
+  }
+
+  /**
+   * Answer the double value of the {@code path}, or the {@code defaultValue} if absent or null.
+   * @param defaultValue the double answered if the value is absent or null
+   * @param path the compiled MessagePath
+   * @return double
+   */
+  public double doubleValue(final double defaultValue, final MessagePath path) {
+    if (scanner != null) {
+      final int offset = scanner.valueOffset(path);
+      return isValueAt(offset) ? scanner.doubleAt(offset) : defaultValue;
+    }
+
+    final JsonElement element = navigateTo(representation(), path);
+    return element == null ? defaultValue : element.getAsDouble();
+  }
+
   public Double doubleValue(final String... keys) {
     final String stringValue = stringValue(keys);
 
     return stringValue == null ? null : Double.parseDouble(stringValue);
   }
 
+  public Double doubleValue(final MessagePath path) {
+    final String stringValue = stringValue(path);
+
+    return stringValue == null ? null : Double.parseDouble(stringValue);
+  }
+
   public Float floatValue(final String... keys) {
     final String stringValue = stringValue(keys);
 
     return stringValue == null ? null : Float.parseFloat(stringValue);
   }
 
+  public Float floatValue(final MessagePath path) {
+    final String stringValue = stringValue(path);
+
+    return stringValue == null ? null : Float.parseFloat(stringValue);
+  }
+
+  /**
+   * Answer the int value of the key path, or the {@code defaultValue} if absent or null.
+   * @param defaultValue the int answered if the value is absent or null
+   * @param keys the String[] of keys of nested objects, of which the last is that of the value
+   * @return int
+   */
+  public int intValue(final int defaultValue, final String... keys) {
+    if (scanner != null) {
+      final int offset = scanner.valueOffset(keys);
+      return isValueAt(offset) ? scanner.intAt(offset) : defaultValue;
+    }
+
+    final JsonElement element = elementAt(representation(), keys, null);
+    return element == null ? defaultValue : element.getAsInt();
+  }
+
+  /**
+   * Answer the int value of the {@code path}, or the {@code defaultValue} if absent or null.
+   * @param defaultValue the int answered if the value is absent or null
+   * @param path the compiled MessagePath
+   * @return int
+   */
+  public int intValue(final int defaultValue, final MessagePath path) {
+    if (scanner != null) {
+      final int offset = scanner.valueOffset(path);
+      return isValueAt(offset) ? scanner.intAt(offset) : defaultValue;
+    }
+
+    final JsonElement element = navigateTo(representation(), path);
+    return element == null ? defaultValue : element.getAsInt();
+  }
+
   public Integer integerValue(final String... keys) {
     final String stringValue = stringValue(keys);
 
     return stringValue == null ? null : Integer.parseInt(stringValue);
   }
 
+  public Integer integerValue(final MessagePath path) {
+    final String stringValue = stringValue(path);
+
+    return stringValue == null ? null : Integer.parseInt(stringValue);
+  }
+
+  /**
+   * Answer the long value of the key path, or the {@code defaultValue} if absent or null.
+   * @param defaultValue the long answered if the value is absent or null
+   * @param keys the String[] of keys of nested objects, of which the last is that of the value
+   * @return long
+   */
+  public long longValue(final long defaultValue, final String... keys) {
+    if (scanner != null) {
+      final int offset = scanner.valueOffset(keys);
+      return isValueAt(offset) ? scanner.longAt(offset) : defaultValue;
+    }
+
+    final JsonElement element = elementAt(representation(), keys, null);
+    return element == null ? defaultValue : element.getAsLong();
+  }
+
+  /**
+   * Answer the long value of the {@code path}, or the {@code defaultValue} if absent or null.
+   * @param defaultValue the long answered if the value is absent or null
+   * @param path the compiled MessagePath
+   * @return long
+   */
+  public long longValue(final long defaultValue, final MessagePath path) {
+    if (scanner != null) {
+      final int offset = scanner.valueOffset(path);
+      return isValueAt(offset) ? scanner.longAt(offset) : defaultValue;
+    }
+
+    final JsonElement element = navigateTo(representation(), path);
+    return element == null ? defaultValue : element.getAsLong();
+  }
+
   public Long longValue(final String... keys) {
     final String stringValue = stringValue(keys);
 
     return stringValue == null ? null : Long.parseLong(stringValue);
   }
 
+  public Long longValue(final MessagePath path) {
+    final String stringValue = stringValue(path);
+
+    return stringValue == null ? null : Long.parseLong(stringValue);
+  }
+
   public String stringValue(final String... keys) {
+    if (scanner != null) {
+      final int offset = scanner.valueOffset(keys);
+      return offset == JsonScanner.Absent ? null : scanner.stringAt(offset);
+    }
     return stringValue(representation(), keys);
   }
 
+  public String stringValue(final MessagePath path) {
+    if (scanner != null) {
+      final int offset = scanner.valueOffset(path);
+      return offset == JsonScanner.Absent ? null : scanner.stringAt(offset);
+    }
+
+    final JsonElement element = navigateTo(representation(), path);
+    return element == null ? null : element.getAsString();
+  }
+
   public String[] stringArrayValue(final String... keys) {
-    final JsonArray array = array(keys);
+    return stringArrayOf(array(keys));
+  }
+
+  public String[] stringArrayValue(final MessagePath path) {
+    return stringArrayOf(array(path));
+  }
 
+  private String[] stringArrayOf(final JsonArray array) {
     if (array != null) {
       final int size = array.size();
       final String[] stringArray = new String[size];
@@ -112,46 +347,27 @@ public abstract class MessageReader {
     return element;
   }
 
+  /**
+   * Answer the element of the {@code keys} from the {@code startingJsonObject}, as by
+   * {@link #navigateTo(JsonObject, MessagePath)}.
+   * @param startingJsonObject the JsonObject from which the keys are navigated
+   * @param keys the String[] of keys of nested objects, of which the last is that of the element
+   * @return JsonElement
+   */
   protected JsonElement navigateTo(final JsonObject startingJsonObject, final String... keys) {
-    if (keys.length == 0) {
-      throw new IllegalArgumentException("Must specify one or more keys.");
-    }
-
-    int keyIndex = 1;
-
-    JsonElement element = elementFrom(startingJsonObject, keys[0]);
-
-    if (!element.isJsonNull() && !element.isJsonPrimitive() && !element.isJsonArray()) {
-      JsonObject object = element.getAsJsonObject();
-
-      for ( ; element != null && !element.isJsonPrimitive() && keyIndex < keys.length; ++keyIndex) {
-
-        element = elementFrom(object, keys[keyIndex]);
-
-        if (!element.isJsonPrimitive()) {
-
-          element = elementFrom(object, keys[keyIndex]);
-
-          if (element.isJsonNull()) {
-            element = null;
-          } else {
-            object = element.getAsJsonObject();
-          }
-        }
-      }
-    }
-
-    if (element != null) {
-      if (!element.isJsonNull()) {
-        if (keyIndex != keys.length) {
-          throw new IllegalArgumentException("Last name must reference a simple value.");
-        }
-      } else {
-        element = null;
-      }
-    }
+    return elementAt(startingJsonObject, keys, null);
+  }
 
-    return element;
+  /**
+   * Answer the element of the {@code path} from the {@code startingJsonObject}, or null if a key is absent
+   * or an element before the last is JSON null. Each key is looked up with its {@code @} prefixed
+   * alternative when absent.
+   * @param startingJsonObject the JsonObject from which the path is navigated
+   * @param path the compiled MessagePath
+   * @return JsonElement
+   */
+  protected JsonElement navigateTo(final JsonObject startingJsonObject, final MessagePath path) {
+    return elementAt(startingJsonObject, path.keys, path.attributedKeys);
   }
 
   protected JsonObject parse(final String jsonRepresentation) {
@@ -165,6 +381,11 @@ public abstract class MessageReader {
   }
 
   protected JsonObject representation() {
+    if (representation == null && scanner != null) {
+      initialize(jsonRepresentation);
+      this.jsonRepresentation = null;
+      this.scanner = null;
+    }
     return representation;
   }
 
@@ -180,6 +401,52 @@ public abstract class MessageReader {
     return value;
   }
 
+  private JsonElement elementOf(final MessagePath path) {
+    if (scanner != null) {
+      final int offset = scanner.valueOffset(path);
+      return offset == JsonScanner.Absent || scanner.isNullAt(offset) ? null : scanner.elementAt(offset);
+    }
+    return navigateTo(representation(), path);
+  }
+
+  // answer the element of the keys as by navigateTo(JsonObject, MessagePath), of which
+  // the @ prefixed alternatives are either precomputed or, if null, concatenated as required
+  private JsonElement elementAt(final JsonObject startingJsonObject, final String[] keys, final String[] attributedKeys) {
+    if (keys.length == 0) {
+      throw new IllegalArgumentException("Must specify one or more keys.");
+    }
+
+    final int last = keys.length - 1;
+
+    JsonObject object = startingJsonObject;
+
+    for (int keyIndex = 0; ; ++keyIndex) {
+      JsonElement element = object.get(keys[keyIndex]);
+
+      if (element == null) {
+        element = object.get(attributedKeys == null ? "@" + keys[keyIndex] : attributedKeys[keyIndex]);
+      }
+
+      if (element == null || element.isJsonNull()) {
+        return null;
+      }
+
+      if (keyIndex == last) {
+        return element;
+      }
+
+      if (!element.isJsonObject()) {
+        throw new IllegalArgumentException("Last name must reference a simple value.");
+      }
+
+      object = element.getAsJsonObject();
+    }
+  }
+
+  private boolean isValueAt(final int offset) {
+    return offset != JsonScanner.Absent && !scanner.isNullAt(offset);
+  }
+
   private void initialize(final String jsonRepresentation) {
     this.representation = parse(jsonRepresentation);
   }
@@ -0,0 +1,34 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.message;
+
+/**
+ * What a bounded {@link MessageQueue} does with a message enqueued while it is full.
+ */
+public enum OverflowPolicy {
+  /**
+   * Block the enqueuing thread until the message can be enqueued or the queue is closed,
+   * which applies backpressure to producers that outpace the listener.
+   */
+  Block,
+
+  /**
+   * Drop the message being enqueued.
+   */
+  DropNewest,
+
+  /**
+   * Drop the oldest message not yet dispatched to the listener to make room for the message being enqueued.
+   */
+  DropOldest,
+
+  /**
+   * Enqueue the message to the dead letters {@link MessageQueue}, or drop it if there is none.
+   */
+  DeadLetters
+}
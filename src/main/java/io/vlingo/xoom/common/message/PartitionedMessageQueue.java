@@ -0,0 +1,303 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A {@link MessageQueue} that partitions its messages by a key, such as the id of the entity they
+ * concern, among a number of lanes, each of which dispatches its messages to the listener on a thread
+ * of its own. Messages of the same key are dispatched in the order they were enqueued, and messages of
+ * different lanes are dispatched in parallel, so the listener must be safe for concurrent use.
+ * <p>
+ * Each lane is an {@link AsyncMessageQueue} that dispatches its messages in batches, so that a failed
+ * message is sent to the dead letters queue and closing and flushing are as for that queue. The depth
+ * and lag of each lane are reported by {@link #stats()}.
+ */
+public class PartitionedMessageQueue implements MessageQueue {
+
+  private final Function<Message, ?> keyOf;
+  private final Lane[] lanes;
+  private volatile boolean open;
+
+  public PartitionedMessageQueue(final Config config) {
+    this(null, config);
+  }
+
+  public PartitionedMessageQueue(final MessageQueue deadLettersQueue, final Config config) {
+    this.keyOf = config.keyOf;
+    this.lanes = new Lane[config.lanes];
+    for (int index = 0; index < config.lanes; ++index) {
+      lanes[index] = new Lane(new AsyncMessageQueue(deadLettersQueue, AsyncMessageQueue.Config.batching(config.maxBatch)));
+    }
+  }
+
+  @Override
+  public void close() {
+    close(true);
+  }
+
+  @Override
+  public void close(final boolean flush) {
+    open = false;
+    for (final Lane lane : lanes) {
+      lane.queue.close(flush);
+    }
+  }
+
+  /**
+   * Close this queue after the messages of all lanes are dispatched, or at the {@code timeout},
+   * discarding any messages that are not yet dispatched.
+   * @param timeout the long number of milliseconds to await the dispatch of the messages
+   * @return true if all messages were dispatched before this queue was closed
+   */
+  public boolean close(final long timeout) {
+    open = false;
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+    boolean flushed = true;
+    for (final Lane lane : lanes) {
+      flushed &= lane.queue.close(remainingMillis(deadline));
+    }
+    return flushed;
+  }
+
+  @Override
+  public void enqueue(final Message message) {
+    if (open) {
+      lanes[laneOf(keyOf.apply(message))].enqueue(message);
+    }
+  }
+
+  @Override
+  public void flush() {
+    for (final Lane lane : lanes) {
+      lane.queue.flush();
+    }
+  }
+
+  /**
+   * Await the dispatch of the messages of all lanes, for no longer than the {@code timeout}.
+   * @param timeout the long number of milliseconds to await the dispatch of the messages
+   * @return true if all messages were dispatched
+   */
+  public boolean flush(final long timeout) {
+    if (timeout < 0) {
+      throw new IllegalArgumentException("Timeout must not be negative.");
+    }
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+    for (final Lane lane : lanes) {
+      if (!lane.queue.flush(remainingMillis(deadline))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public boolean isEmpty() {
+    for (final Lane lane : lanes) {
+      if (!lane.queue.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void registerListener(final MessageQueueListener listener) {
+    for (final Lane lane : lanes) {
+      lane.queue.registerListener(message -> {
+        try {
+          listener.handleMessage(message);
+        } finally {
+          lane.delivered.lazySet(lane.delivered.get() + 1);
+        }
+      });
+    }
+    open = true;
+  }
+
+  /**
+   * Answer the {@code LaneStats} of each lane, in lane order.
+   * @return {@code List<LaneStats>}
+   */
+  public List<LaneStats> stats() {
+    final long now = System.nanoTime();
+    final List<LaneStats> stats = new ArrayList<>(lanes.length);
+    for (int index = 0; index < lanes.length; ++index) {
+      stats.add(lanes[index].stats(index, now));
+    }
+    return stats;
+  }
+
+  int laneOf(final Object key) {
+    if (key == null) {
+      return 0;
+    }
+    final int hash = key.hashCode();
+    return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+  }
+
+  private static long remainingMillis(final long deadline) {
+    return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+  }
+
+  /**
+   * The messages of the keys of a single partition, of which the enqueue times
+   * of the most recent are kept by sequence to answer the lag of the lane.
+   */
+  private static final class Lane {
+    private static final int Stamps = 1024;
+
+    private final AtomicLong delivered = new AtomicLong(0);
+    private final AtomicLong enqueued = new AtomicLong(0);
+    private final long[] enqueuedAt = new long[Stamps];
+    private final AsyncMessageQueue queue;
+
+    Lane(final AsyncMessageQueue queue) {
+      this.queue = queue;
+    }
+
+    void enqueue(final Message message) {
+      final long sequence = enqueued.getAndIncrement();
+      enqueuedAt[(int) sequence & (Stamps - 1)] = System.nanoTime();
+      queue.enqueue(message);
+    }
+
+    LaneStats stats(final int lane, final long now) {
+      final long delivered = this.delivered.get();
+      final long enqueued = Math.max(delivered, this.enqueued.get());
+      final long depth = enqueued - delivered;
+      // the stamp of the oldest undispatched message, unless overwritten by newer ones
+      final long lag = depth == 0 ? 0 : Math.max(0, now - enqueuedAt[(int) delivered & (Stamps - 1)]);
+      return new LaneStats(lane, depth, enqueued, delivered, lag);
+    }
+  }
+
+  /**
+   * {@link PartitionedMessageQueue} lane statistics
+   */
+  public static final class LaneStats {
+
+    /**
+     * index of the lane
+     */
+    public final int lane;
+
+    /**
+     * number of messages enqueued to the lane and not yet dispatched
+     */
+    public final long depth;
+
+    /**
+     * number of messages enqueued to the lane
+     */
+    public final long enqueued;
+
+    /**
+     * number of messages dispatched by the lane
+     */
+    public final long delivered;
+
+    /**
+     * The time in nanoseconds since the oldest undispatched message of the lane was enqueued,
+     * which is understated when the depth exceeds the number of enqueue times kept by the lane
+     */
+    public final long lag;
+
+    /**
+     * @param lane      index of the lane
+     * @param depth     number of messages enqueued to the lane and not yet dispatched
+     * @param enqueued  number of messages enqueued to the lane
+     * @param delivered number of messages dispatched by the lane
+     * @param lag       time in nanoseconds since the oldest undispatched message was enqueued
+     */
+    public LaneStats(int lane, long depth, long enqueued, long delivered, long lag) {
+      this.lane = lane;
+      this.depth = depth;
+      this.enqueued = enqueued;
+      this.delivered = delivered;
+      this.lag = lag;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("LaneStats(lane: %d, depth: %d, enqueued: %d, delivered: %d, lag: %d)",
+          lane, depth, enqueued, delivered, lag);
+    }
+  }
+
+  /**
+   * {@link PartitionedMessageQueue} configuration parameters.
+   */
+  public static final class Config {
+
+    final int lanes;
+    final int maxBatch;
+    final Function<Message, ?> keyOf;
+
+    /**
+     * @param lanes    the number of lanes, each dispatching on a thread of its own
+     * @param maxBatch the maximum number of messages a lane dispatches per drain
+     * @param keyOf    the {@code Function} answering the key by which a message is partitioned
+     */
+    Config(int lanes, int maxBatch, Function<Message, ?> keyOf) {
+      if (lanes <= 0) {
+        throw new IllegalArgumentException("Lanes must be positive.");
+      }
+      if (maxBatch <= 0) {
+        throw new IllegalArgumentException("Maximum batch must be positive.");
+      }
+      if (keyOf == null) {
+        throw new IllegalArgumentException("Key function must not be null.");
+      }
+      this.lanes = lanes;
+      this.maxBatch = maxBatch;
+      this.keyOf = keyOf;
+    }
+
+    /**
+     * Answer the {@code Config} of a queue that partitions messages by their {@link Message#id()}.
+     * @param lanes the number of lanes, each dispatching on a thread of its own
+     * @return Config
+     */
+    public static Config of(int lanes) {
+      return new Config(lanes, 64, Message::id);
+    }
+
+    /**
+     * Answer the {@code Config} of a queue with a lane per available processor.
+     * @return Config
+     */
+    public static Config perProcessor() {
+      return of(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Answer a copy of this {@code Config} that partitions messages by the key answered by {@code keyOf},
+     * such as {@code Message::type}. Messages of equal keys are dispatched in the order they were enqueued.
+     * @param keyOf the {@code Function} answering the key by which a message is partitioned
+     * @return Config
+     */
+    public Config withKey(Function<Message, ?> keyOf) {
+      return new Config(lanes, maxBatch, keyOf);
+    }
+
+    /**
+     * Answer a copy of this {@code Config} with which each lane dispatches up to {@code maxBatch} messages per drain.
+     * @param maxBatch the maximum number of messages a lane dispatches per drain
+     * @return Config
+     */
+    public Config withMaxBatch(int maxBatch) {
+      return new Config(lanes, maxBatch, keyOf);
+    }
+  }
+}
@@ -0,0 +1,472 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.message;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded {@link MessageQueue} backed by a preallocated ring buffer, of which the messages are
+ * dispatched to the listener by a single consumer thread of its own.
+ * <p>
+ * Producers claim a slot by advancing the tail sequence and publish the message into it, and the
+ * consumer advances the head sequence as it takes each message, so that enqueuing neither allocates
+ * nor locks while the queue is not full. Each slot is stamped with the sequence for which it was last
+ * published or freed, so that a slot is neither taken before it is published nor reused before it is
+ * taken. The sequences are padded against false sharing. The consumer thread parks while the queue is
+ * empty and is unparked by the next producer.
+ * <p>
+ * A message of which the listener throws an {@code Exception} is sent to the dead letters queue. An
+ * {@code Error} thrown by the listener is rethrown to the uncaught exception handler of the consumer
+ * thread, once a new consumer thread has taken over the messages that follow.
+ * <p>
+ * When the queue is full, the message is handled according to the {@link OverflowPolicy} of the
+ * {@link Config}. The occupancy and overflow counts are reported by {@link #stats()}.
+ */
+public class RingBufferMessageQueue implements MessageQueue {
+  private static final AtomicReferenceFieldUpdater<RingBufferMessageQueue, Thread> ConsumerUpdater =
+      AtomicReferenceFieldUpdater.newUpdater(RingBufferMessageQueue.class, Thread.class, "consumer");
+
+  private final LongAdder blocked = new LongAdder();
+  private final AtomicInteger blockedProducers = new AtomicInteger(0);
+  private final LongAdder deadLettered = new LongAdder();
+  private final AtomicLong delivered = new AtomicLong(0);
+  private final LongAdder dropped = new LongAdder();
+  private final AtomicInteger flushWaiters = new AtomicInteger(0);
+  private final AtomicInteger maxOccupancy = new AtomicInteger(0);
+
+  private final Sequence head = new Sequence();
+  private final Sequence tail = new Sequence();
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notFull = lock.newCondition();
+  private final Condition drained = lock.newCondition();
+
+  private volatile Thread consumer;
+  private volatile boolean consumerWaiting;
+  private volatile boolean dispatching;
+  private volatile boolean open;
+
+  private final int capacity;
+  private final MessageQueue deadLettersQueue;
+  private MessageQueueListener listener;
+  private final int mask;
+  private final OverflowPolicy overflowPolicy;
+  private final AtomicLongArray published;
+  private final Message[] slots;
+
+  public RingBufferMessageQueue(final Config config) {
+    this(null, config);
+  }
+
+  public RingBufferMessageQueue(final MessageQueue deadLettersQueue, final Config config) {
+    this.capacity = config.capacity;
+    this.deadLettersQueue = deadLettersQueue;
+    this.mask = config.capacity - 1;
+    this.overflowPolicy = config.overflowPolicy;
+    this.published = new AtomicLongArray(config.capacity);
+    this.slots = new Message[config.capacity];
+
+    for (int index = 0; index < config.capacity; ++index) {
+      published.set(index, index);
+    }
+  }
+
+  @Override
+  public void close() {
+    close(true);
+  }
+
+  @Override
+  public void close(final boolean flush) {
+    if (open) {
+      open = false;
+
+      if (flush) {
+        flush();
+      }
+
+      LockSupport.unpark(ConsumerUpdater.getAndSet(this, null));
+
+      lock.lock();
+      try {
+        notFull.signalAll();
+        drained.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public void enqueue(final Message message) {
+    while (open) {
+      final long current = tail.get();
+      if (current - head.get() < capacity) {
+        if (tail.compareAndSet(current, current + 1)) {
+          publish(current, message);
+          return;
+        }
+        continue;
+      }
+
+      switch (overflowPolicy) {
+      case Block:
+        if (!awaitNotFull()) {
+          dropped.increment();
+          return;
+        }
+        break;
+      case DropNewest:
+        dropped.increment();
+        return;
+      case DropOldest:
+        dropOldest();
+        break;
+      case DeadLetters:
+        deadLetter(message);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Await the dispatch of all messages enqueued before and during this flush,
+   * unless this queue is closed meanwhile.
+   */
+  @Override
+  public void flush() {
+    awaitDrained(-1L);
+  }
+
+  /**
+   * Await the dispatch of all messages enqueued before and during this flush,
+   * for no longer than the {@code timeout}, unless this queue is closed meanwhile.
+   * @param timeout the long number of milliseconds to await the dispatch of the messages
+   * @return true if all messages were dispatched
+   */
+  public boolean flush(final long timeout) {
+    if (timeout < 0) {
+      throw new IllegalArgumentException("Timeout must not be negative.");
+    }
+    return awaitDrained(TimeUnit.MILLISECONDS.toNanos(timeout));
+  }
+
+  public boolean isEmpty() {
+    return tail.get() == head.get() && !dispatching;
+  }
+
+  @Override
+  public void registerListener(final MessageQueueListener listener) {
+    this.listener = listener;
+
+    if (consumer == null) {
+      open = true;
+      startConsumer(null);
+    }
+  }
+
+  /**
+   * Answer the maximum number of messages held by this queue.
+   * @return int
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Answer the number of messages held by this queue.
+   * @return int
+   */
+  public int size() {
+    return (int) Math.max(0, tail.get() - head.get());
+  }
+
+  /**
+   * Answer the {@code MessageQueueStats} of this queue.
+   * @return MessageQueueStats
+   */
+  public MessageQueueStats stats() {
+    return new MessageQueueStats(capacity, size(), maxOccupancy.get(), tail.get(),
+        delivered.get(), dropped.sum(), deadLettered.sum(), blocked.sum());
+  }
+
+  private void consume() {
+    final Thread self = Thread.currentThread();
+
+    while (consumer == self) {
+      final long current = head.get();
+      if (current == tail.get()) {
+        awaitMessages();
+        continue;
+      }
+
+      Error error = null;
+
+      dispatching = true;
+      try {
+        if (!advanceHead(current)) {
+          continue;
+        }
+
+        final Message message = take(current);
+        try {
+          listener.handleMessage(message);
+        } catch (Exception e) {
+          deadLetter(message);
+        } catch (Error e) {
+          error = e;
+        }
+        delivered.lazySet(delivered.get() + 1);
+      } finally {
+        dispatching = false;
+      }
+
+      if (flushWaiters.get() > 0 && isEmpty()) {
+        signalDrained();
+      }
+
+      if (error != null) {
+        startConsumer(self);
+        throw error;
+      }
+    }
+  }
+
+  // replaces the predecessor, unless closed meanwhile
+  private void startConsumer(final Thread predecessor) {
+    final Thread consumer = new Thread(this::consume, "RingBufferMessageQueue");
+    consumer.setDaemon(true);
+    if (ConsumerUpdater.compareAndSet(this, predecessor, consumer)) {
+      consumer.start();
+    }
+  }
+
+  private boolean advanceHead(final long current) {
+    switch (overflowPolicy) {
+    case DropOldest:
+      // producers may drop the oldest message concurrently
+      return head.compareAndSet(current, current + 1);
+    case Block:
+      // a full fence, so that a producer about to block is either seen or sees the slot freed
+      head.set(current + 1);
+      if (blockedProducers.get() > 0) {
+        signalNotFull();
+      }
+      return true;
+    default:
+      head.lazySet(current + 1);
+      return true;
+    }
+  }
+
+  private void awaitMessages() {
+    consumerWaiting = true;
+    if (head.get() == tail.get() && consumer != null) {
+      LockSupport.park(this);
+    }
+    consumerWaiting = false;
+  }
+
+  private boolean awaitDrained(final long timeoutNanos) {
+    if (isEmpty() || consumer == null) {
+      return isEmpty();
+    }
+
+    lock.lock();
+    try {
+      // counted before emptiness is checked, so that the consumer signals once it empties the queue
+      flushWaiters.incrementAndGet();
+      final long deadline = System.nanoTime() + timeoutNanos;
+      while (!isEmpty() && consumer != null) {
+        if (timeoutNanos < 0) {
+          drained.await();
+        } else {
+          final long remaining = deadline - System.nanoTime();
+          if (remaining <= 0) {
+            return false;
+          }
+          drained.awaitNanos(remaining);
+        }
+      }
+      return isEmpty();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return isEmpty();
+    } finally {
+      flushWaiters.decrementAndGet();
+      lock.unlock();
+    }
+  }
+
+  private boolean awaitNotFull() {
+    blocked.increment();
+    lock.lock();
+    try {
+      blockedProducers.incrementAndGet();
+      while (open && tail.get() - head.get() >= capacity) {
+        notFull.await();
+      }
+      return open;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } finally {
+      blockedProducers.decrementAndGet();
+      lock.unlock();
+    }
+  }
+
+  private void deadLetter(final Message message) {
+    if (deadLettersQueue == null) {
+      dropped.increment();
+    } else {
+      deadLettered.increment();
+      deadLettersQueue.enqueue(message);
+    }
+  }
+
+  private void dropOldest() {
+    final long current = head.get();
+    if (tail.get() - current >= capacity && head.compareAndSet(current, current + 1)) {
+      take(current);
+      dropped.increment();
+    }
+  }
+
+  private void publish(final long sequence, final Message message) {
+    final int index = (int) sequence & mask;
+    // the slot is freed for this sequence only once the message of the previous lap is taken
+    while (published.get(index) != sequence) {
+      Thread.yield();
+    }
+    slots[index] = message;
+    published.lazySet(index, sequence + 1);
+
+    final int occupancy = (int) (sequence + 1 - head.get());
+    int max;
+    while (occupancy > (max = maxOccupancy.get()) && !maxOccupancy.compareAndSet(max, occupancy)) ;
+
+    if (consumerWaiting) {
+      LockSupport.unpark(consumer);
+    }
+  }
+
+  private void signalDrained() {
+    lock.lock();
+    try {
+      drained.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void signalNotFull() {
+    lock.lock();
+    try {
+      notFull.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Message take(final long sequence) {
+    final int index = (int) sequence & mask;
+    // the message is published after the tail passes it
+    while (published.get(index) != sequence + 1) {
+      Thread.yield();
+    }
+    final Message message = slots[index];
+    slots[index] = null;
+    published.lazySet(index, sequence + capacity);
+    return message;
+  }
+
+  /**
+   * {@link RingBufferMessageQueue} configuration parameters.
+   */
+  public static final class Config {
+
+    final int capacity;
+    final OverflowPolicy overflowPolicy;
+
+    /**
+     * @param capacity       the maximum number of messages held by the queue, rounded up to a power of two
+     * @param overflowPolicy the {@code OverflowPolicy} applied to messages enqueued while the queue is full
+     */
+    Config(int capacity, OverflowPolicy overflowPolicy) {
+      if (capacity <= 0 || capacity > 1 << 30) {
+        throw new IllegalArgumentException("Capacity must satisfy 0 < capacity <= 2^30.");
+      }
+      if (overflowPolicy == null) {
+        throw new IllegalArgumentException("Overflow policy must not be null.");
+      }
+      this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+      this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Answer the {@code Config} of a queue that blocks producers while it is full.
+     * @param capacity the maximum number of messages held by the queue, rounded up to a power of two
+     * @return Config
+     */
+    public static Config of(int capacity) {
+      return new Config(capacity, OverflowPolicy.Block);
+    }
+
+    /**
+     * Answer a copy of this {@code Config} with the {@code overflowPolicy}.
+     * @param overflowPolicy the {@code OverflowPolicy} applied to messages enqueued while the queue is full
+     * @return Config
+     */
+    public Config withOverflow(OverflowPolicy overflowPolicy) {
+      return new Config(capacity, overflowPolicy);
+    }
+  }
+
+  private static abstract class LhsPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+  }
+
+  private static abstract class Value extends LhsPadding {
+    protected volatile long value;
+  }
+
+  /**
+   * A sequence counter padded on both sides, so that it does not share a cache line with others.
+   */
+  private static final class Sequence extends Value {
+    private static final AtomicLongFieldUpdater<Value> updater = AtomicLongFieldUpdater.newUpdater(Value.class, "value");
+
+    protected long p9, p10, p11, p12, p13, p14, p15;
+
+    long get() {
+      return value;
+    }
+
+    void set(final long value) {
+      this.value = value;
+    }
+
+    void lazySet(final long value) {
+      updater.lazySet(this, value);
+    }
+
+    boolean compareAndSet(final long expected, final long value) {
+      return updater.compareAndSet(this, expected, value);
+    }
+  }
+}
@@ -7,6 +7,9 @@
 
 package io.vlingo.xoom.common.pool;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * An abstract {@link ResourcePool} that implements {@link ResourcePool#acquire()}
  * using the default arguments from {@link ResourceFactory#defaultArguments()}.
@@ -17,9 +20,15 @@ package io.vlingo.xoom.common.pool;
 abstract class AbstractResourcePool<Resource, Arguments> implements ResourcePool<Resource, Arguments> {
 
   final ResourceFactory<Resource, Arguments> factory;
+  final Set<Validation> validations;
 
   AbstractResourcePool(ResourceFactory<Resource, Arguments> factory) {
+    this(factory, EnumSet.noneOf(Validation.class));
+  }
+
+  AbstractResourcePool(ResourceFactory<Resource, Arguments> factory, Set<Validation> validations) {
     this.factory = factory;
+    this.validations = validations;
   }
 
   /**
@@ -32,4 +41,27 @@ abstract class AbstractResourcePool<Resource, Arguments> implements ResourcePool
   public Resource acquire() {
     return acquire(factory.defaultArguments());
   }
+
+  /**
+   * Answers whether {@code resource} is valid at the {@code point}, which it
+   * always is unless this pool validates at that point.
+   *
+   * @param point    the Validation point
+   * @param resource the resource object
+   * @return true if the resource object may be used
+   */
+  boolean isValid(Validation point, Resource resource) {
+    return !validations.contains(point) || factory.validate(resource);
+  }
+
+  static Set<Validation> validations(Validation... points) {
+    final Set<Validation> validations = EnumSet.noneOf(Validation.class);
+    for (final Validation point : points) {
+      if (point == null) {
+        throw new IllegalArgumentException("Validation point must not be null.");
+      }
+      validations.add(point);
+    }
+    return validations;
+  }
 }
@@ -0,0 +1,506 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.pool;
+
+import java.util.ArrayDeque;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.vlingo.xoom.common.Cancellable;
+import io.vlingo.xoom.common.Completes;
+import io.vlingo.xoom.common.Scheduled;
+import io.vlingo.xoom.common.Scheduler;
+
+/**
+ * A bounded {@link ResourcePool} implementation that never holds more than {@link Config#maxSize}
+ * resource objects, whether idle or in use.
+ * <p>
+ * Resource objects are created on demand until the maximum size is reached. From then on, acquisitions
+ * wait for a resource object to be released, which gives back-pressure to the consumers instead of
+ * allocating ever more resources under a load spike. Waiting acquisitions are served strictly in their
+ * order of arrival, and released resource objects are handed directly to the longest waiting acquisition,
+ * so that newly arriving acquisitions cannot barge ahead of it.
+ * <p>
+ * Besides the blocking {@link #acquire(Object)}, resource objects may be acquired with a timeout by
+ * {@link #acquire(Object, long)}, without waiting by {@link #tryAcquire(Object)}, and asynchronously by
+ * {@link #acquireAsync(Object)}, which answers a {@code Completes} of the resource object.
+ * <p>
+ * Idle resource objects are reused most recently released first. Resource objects may be validated when acquired
+ * or released, and the slot of an invalid one, which is evicted, is used to create a new resource object.
+ * <p>
+ * The time spent waiting is reported by {@link ResourcePoolStats#waits}, {@link ResourcePoolStats#waitTimeouts},
+ * {@link ResourcePoolStats#meanWaitTime} and {@link ResourcePoolStats#maxWaitTime}.
+ * <p>
+ * See {@link Config} for configuration details.
+ *
+ * @param <Resource>  the type of resource
+ * @param <Arguments> the type of arguments for the {@link ResourceFactory}
+ */
+public class BoundedResourcePool<Resource, Arguments> extends AbstractResourcePool<Resource, Arguments> {
+
+  private static final long Indefinitely = -1L;
+
+  // claimed instead of a resource object when a slot is free to create one
+  private static final Object Creatable = new Object();
+
+  private final AtomicInteger allocations = new AtomicInteger(0);
+  private final AtomicInteger evictions = new AtomicInteger(0);
+  private final AtomicLong waits = new AtomicLong(0);
+  private final AtomicLong waitTimeouts = new AtomicLong(0);
+  private final AtomicLong waitTime = new AtomicLong(0);
+  private final AtomicLong maxWaitTime = new AtomicLong(0);
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // guarded by lock
+  private final ArrayDeque<Resource> cache = new ArrayDeque<>();
+  private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+  private int slots;
+
+  private final int maxSize;
+  private final int minIdle;
+
+  /**
+   * Creates a {@link BoundedResourcePool} instance initialized to pool from {@link Config#minIdle} resource objects,
+   * and that holds no more than {@link Config#maxSize} resource objects.
+   * <p>
+   * Resource object instances will be created using {@link ResourceFactory#create(Object)}
+   * with the default arguments specified in {@link ResourceFactory#defaultArguments()}.
+   *
+   * @param config  the Config parameters
+   * @param factory the resource object factory
+   */
+  public BoundedResourcePool(Config config, ResourceFactory<Resource, Arguments> factory) {
+    super(factory, config.validations);
+    this.minIdle = config.minIdle;
+    this.maxSize = config.maxSize;
+
+    this.initialize();
+  }
+
+  private void initialize() {
+    for (int i = 0; i < minIdle; i++) {
+      allocations.incrementAndGet();
+      cache.offerFirst(factory.create(factory.defaultArguments()));
+      ++slots;
+    }
+  }
+
+  /**
+   * Gets a resource object from the pool and resets it, or creates a new one if the pool
+   * has not reached its maximum size. Otherwise waits until a resource object is released.
+   *
+   * @param arguments the arguments
+   * @return a resource object
+   * @see ResourcePool#acquire(Object)
+   * @see ResourceFactory#create(Object)
+   * @see ResourceFactory#reset(Object, Object)
+   */
+  @Override
+  public Resource acquire(Arguments arguments) {
+    return take(arguments, Indefinitely);
+  }
+
+  /**
+   * Uses {@link ResourceFactory#defaultArguments()} to {@link #acquire(Object, long)} a resource object.
+   *
+   * @param timeout the long number of milliseconds to wait for a resource object
+   * @return a resource object, or null if none became available within the {@code timeout}
+   */
+  public Resource acquire(long timeout) {
+    return acquire(factory.defaultArguments(), timeout);
+  }
+
+  /**
+   * Gets a resource object from the pool and resets it, or creates a new one if the pool
+   * has not reached its maximum size. Otherwise waits no longer than {@code timeout}
+   * milliseconds for a resource object to be released.
+   * <p>
+   * If the waiting thread is interrupted, it stops waiting with its interrupt status set.
+   *
+   * @param arguments the arguments
+   * @param timeout   the long number of milliseconds to wait for a resource object
+   * @return a resource object, or null if none became available within the {@code timeout}
+   */
+  public Resource acquire(Arguments arguments, long timeout) {
+    if (timeout < 0) {
+      throw new IllegalArgumentException("Timeout must not be negative.");
+    }
+    return take(arguments, timeout);
+  }
+
+  /**
+   * Uses {@link ResourceFactory#defaultArguments()} to {@link #tryAcquire(Object)} a resource object.
+   *
+   * @return a resource object, or null if the pool is exhausted
+   */
+  public Resource tryAcquire() {
+    return tryAcquire(factory.defaultArguments());
+  }
+
+  /**
+   * Gets a resource object from the pool and resets it, or creates a new one if the pool
+   * has not reached its maximum size, but never waits.
+   *
+   * @param arguments the arguments
+   * @return a resource object, or null if the pool is exhausted
+   */
+  public Resource tryAcquire(Arguments arguments) {
+    return take(arguments, 0);
+  }
+
+  /**
+   * Uses {@link ResourceFactory#defaultArguments()} to {@link #acquireAsync(Object)} a resource object.
+   *
+   * @return {@code Completes<Resource>}
+   */
+  public Completes<Resource> acquireAsync() {
+    return acquireAsync(factory.defaultArguments());
+  }
+
+  /**
+   * Answers a {@code Completes} of a resource object, which is completed immediately when the pool
+   * is not exhausted, or otherwise as soon as a resource object is released to the pool.
+   *
+   * @param arguments the arguments
+   * @return {@code Completes<Resource>}
+   */
+  public Completes<Resource> acquireAsync(Arguments arguments) {
+    return acquireAsync(arguments, null, 0);
+  }
+
+  /**
+   * Answers a {@code Completes} of a resource object, which is completed immediately when the pool
+   * is not exhausted, or otherwise as soon as a resource object is released to the pool. If no
+   * resource object is released within {@code timeout} milliseconds, the {@code Completes} fails.
+   *
+   * @param arguments the arguments
+   * @param scheduler the Scheduler used to time out the acquisition
+   * @param timeout   the long number of milliseconds to wait for a resource object
+   * @return {@code Completes<Resource>}
+   */
+  public Completes<Resource> acquireAsync(Arguments arguments, Scheduler scheduler, long timeout) {
+    final Completes<Resource> completes = Completes.using(scheduler);
+    final Object claimed;
+    final Waiter waiter;
+
+    lock.lock();
+    try {
+      claimed = claim();
+      waiter = claimed == null ? enqueue(new Waiter(arguments, completes)) : null;
+    } finally {
+      lock.unlock();
+    }
+
+    if (waiter == null) {
+      fulfill(completes, claimed, arguments);
+    } else if (scheduler != null && timeout > 0) {
+      waiter.timeout = scheduler.scheduleOnce(waiter, null, 0, timeout);
+    }
+
+    return completes;
+  }
+
+  /**
+   * Releases the object back into the pool, handing it directly to the longest
+   * waiting acquisition, if any.
+   *
+   * @param resource the resource object
+   */
+  @Override
+  public void release(final Resource resource) {
+    if (resource == null) {
+      return;
+    }
+
+    if (!isValid(Validation.OnRelease, resource)) {
+      evict(resource);
+      vacate();
+      return;
+    }
+
+    final Waiter waiter;
+
+    lock.lock();
+    try {
+      waiter = waiters.pollFirst();
+      if (waiter == null) {
+        cache.offerFirst(resource);
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    if (waiter != null) {
+      waiter.handOff(resource);
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return cache.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public ResourcePoolStats stats() {
+    return new ResourcePoolStats(
+        allocations.get(), evictions.get(), size(),
+        waits.get(), waitTimeouts.get(), waitTime.get(), maxWaitTime.get());
+  }
+
+  private Resource take(final Arguments arguments, final long timeout) {
+    final Object claimed;
+    final Waiter waiter;
+
+    lock.lock();
+    try {
+      claimed = claim();
+      waiter = claimed == null && timeout != 0 ? enqueue(new Waiter(arguments, null)) : null;
+    } finally {
+      lock.unlock();
+    }
+
+    if (claimed != null) {
+      return obtain(claimed, arguments);
+    }
+    return waiter == null ? null : waiter.await(timeout);
+  }
+
+  // answer an idle resource object, Creatable, or null when exhausted; lock must be held
+  private Object claim() {
+    final Resource resource = cache.pollFirst();
+    if (resource != null) {
+      return resource;
+    }
+    if (slots < maxSize) {
+      ++slots;
+      return Creatable;
+    }
+    return null;
+  }
+
+  // lock must be held
+  private Waiter enqueue(final Waiter waiter) {
+    waiters.offerLast(waiter);
+    return waiter;
+  }
+
+  private boolean withdraw(final Waiter waiter) {
+    lock.lock();
+    try {
+      return waiters.remove(waiter);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Resource obtain(final Object claimed, final Arguments arguments) {
+    if (claimed != Creatable) {
+      final Resource resource = (Resource) claimed;
+      if (isValid(Validation.OnAcquire, resource)) {
+        return factory.reset(resource, arguments);
+      }
+      // the slot of the evicted resource is kept to create its replacement
+      evict(resource);
+    }
+
+    try {
+      final Resource resource = factory.create(arguments);
+      allocations.incrementAndGet();
+      return resource;
+    } catch (RuntimeException e) {
+      vacate();
+      throw e;
+    }
+  }
+
+  private void fulfill(final Completes<Resource> completes, final Object claimed, final Arguments arguments) {
+    final Resource resource;
+    try {
+      resource = obtain(claimed, arguments);
+    } catch (RuntimeException e) {
+      completes.failed(e);
+      return;
+    }
+    completes.with(resource);
+  }
+
+  // give up a slot, or pass it to the longest waiting acquisition so that it may create a resource object
+  private void vacate() {
+    final Waiter waiter;
+
+    lock.lock();
+    try {
+      waiter = waiters.pollFirst();
+      if (waiter == null) {
+        --slots;
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    if (waiter != null) {
+      waiter.handOff(Creatable);
+    }
+  }
+
+  private void evict(final Resource resource) {
+    evictions.incrementAndGet();
+    factory.destroy(resource);
+  }
+
+  private void waited(final long start, final boolean timedOut) {
+    final long waited = System.nanoTime() - start;
+    waits.incrementAndGet();
+    waitTime.addAndGet(waited);
+    maxWaitTime.accumulateAndGet(waited, Math::max);
+    if (timedOut) {
+      waitTimeouts.incrementAndGet();
+    }
+  }
+
+  /**
+   * An acquisition waiting for a resource object, either by a parked
+   * thread or by a {@code Completes} when acquired asynchronously.
+   */
+  private final class Waiter implements Scheduled<Object> {
+    private final Arguments arguments;
+    private final Completes<Resource> completes;
+    private final long start = System.nanoTime();
+    private final Thread thread;
+    private volatile Object claimed;
+    private volatile Cancellable timeout;
+
+    Waiter(final Arguments arguments, final Completes<Resource> completes) {
+      this.arguments = arguments;
+      this.completes = completes;
+      this.thread = completes == null ? Thread.currentThread() : null;
+    }
+
+    @Override
+    public void intervalSignal(final Scheduled<Object> scheduled, final Object data) {
+      if (withdraw(this)) {
+        waited(start, true);
+        completes.failed();
+      }
+    }
+
+    Resource await(final long timeout) {
+      final long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
+      boolean interrupted = false;
+
+      while (claimed == null) {
+        if (timeout == Indefinitely) {
+          LockSupport.park(this);
+        } else {
+          final long remaining = deadline - System.nanoTime();
+          if (remaining <= 0) {
+            break;
+          }
+          LockSupport.parkNanos(this, remaining);
+        }
+        if (Thread.interrupted()) {
+          interrupted = true;
+          break;
+        }
+      }
+
+      if (claimed == null && withdraw(this)) {
+        waited(start, !interrupted);
+        if (interrupted) {
+          thread.interrupt();
+        }
+        return null;
+      }
+
+      // already taken from the waiters, so the hand off is imminent
+      while (claimed == null) {
+        LockSupport.park(this);
+      }
+
+      waited(start, false);
+      if (interrupted) {
+        thread.interrupt();
+      }
+      return obtain(claimed, arguments);
+    }
+
+    void handOff(final Object claimed) {
+      if (completes == null) {
+        this.claimed = claimed;
+        LockSupport.unpark(thread);
+      } else {
+        final Cancellable timeout = this.timeout;
+        if (timeout != null) {
+          timeout.cancel();
+        }
+        waited(start, false);
+        fulfill(completes, claimed, arguments);
+      }
+    }
+  }
+
+  /**
+   * {@link BoundedResourcePool} configuration parameters.
+   */
+  public static final class Config {
+
+    final int minIdle;
+    final int maxSize;
+    final Set<Validation> validations;
+
+    /**
+     * @param minIdle the number of resource objects to create initially
+     * @param maxSize the maximum number of resource objects, whether idle or in use
+     */
+    Config(int minIdle, int maxSize) {
+      this(minIdle, maxSize, EnumSet.noneOf(Validation.class));
+    }
+
+    private Config(int minIdle, int maxSize, Set<Validation> validations) {
+      if (maxSize <= 0) {
+        throw new IllegalArgumentException("Maximum size must be greater than zero.");
+      }
+      if (minIdle < 0 || minIdle > maxSize) {
+        throw new IllegalArgumentException("Minimum idle must be between zero and the maximum size.");
+      }
+      this.minIdle = minIdle;
+      this.maxSize = maxSize;
+      this.validations = validations;
+    }
+
+    public static Config of(int minIdle, int maxSize) {
+      return new Config(minIdle, maxSize);
+    }
+
+    /**
+     * Answer a copy of this {@code Config} that validates resource objects at the {@code points},
+     * evicting those that are not valid. {@link Validation#WhenIdle} is not supported.
+     * @param points the Validation points
+     * @return Config
+     */
+    public Config withValidation(Validation... points) {
+      final Set<Validation> validations = validations(points);
+      if (validations.contains(Validation.WhenIdle)) {
+        throw new IllegalArgumentException("Validation when idle is not supported.");
+      }
+      return new Config(minIdle, maxSize, validations);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.pool;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link ResourceFactory} of a size class of the {@link ByteBufferPool}, which creates heap
+ * or direct {@code ByteBuffer} instances of the capacity of its size class, or of the requested
+ * capacity if greater, clears them on reset, optionally frees their direct memory on destroy,
+ * and keeps count of the bytes held by the buffers that were created and not destroyed.
+ */
+class ByteBufferFactory implements ResourceFactory<ByteBuffer, Integer> {
+
+  private final LongAdder allocatedBytes;
+  private final boolean direct;
+  private final boolean explicitFree;
+  private final int size;
+
+  /**
+   * @param direct         whether the buffers are direct rather than heap buffers
+   * @param explicitFree   whether the memory of destroyed direct buffers is freed immediately
+   * @param size           the int capacity of the size class, or zero for the requested capacity
+   * @param allocatedBytes the LongAdder counting the bytes held by the buffers created and not destroyed
+   */
+  ByteBufferFactory(final boolean direct, final boolean explicitFree, final int size, final LongAdder allocatedBytes) {
+    this.direct = direct;
+    this.explicitFree = explicitFree;
+    this.size = size;
+    this.allocatedBytes = allocatedBytes;
+  }
+
+  @Override
+  public Class<ByteBuffer> type() {
+    return ByteBuffer.class;
+  }
+
+  @Override
+  public ByteBuffer create(final Integer capacity) {
+    final int size = Math.max(this.size, capacity);
+    allocatedBytes.add(size);
+    return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+  }
+
+  @Override
+  public Integer defaultArguments() {
+    return size;
+  }
+
+  @Override
+  public ByteBuffer reset(final ByteBuffer buffer, final Integer capacity) {
+    buffer.clear();
+    return buffer;
+  }
+
+  @Override
+  public void destroy(final ByteBuffer buffer) {
+    allocatedBytes.add(-buffer.capacity());
+    if (explicitFree && buffer.isDirect()) {
+      DirectMemory.free(buffer);
+    }
+  }
+}
@@ -0,0 +1,241 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.pool;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link ResourcePool} of heap or direct {@code ByteBuffer} instances, which are acquired by their
+ * required capacity and lent with the capacity of its power-of-two size class, cleared.
+ * <p>
+ * Each size class from {@link Config#minSize} to {@link Config#maxSize} is pooled by its own
+ * {@link StripedResourcePool}, so that buffers are cached per processor stripe and acquiring and
+ * releasing a buffer is uncontended in the common case. Buffers larger than the maximum size are
+ * not pooled, but created when acquired and destroyed when released.
+ * <p>
+ * With {@link Config#withExplicitFree()}, the memory of evicted direct buffers is freed immediately
+ * rather than when they are garbage collected.
+ * <p>
+ * The bytes held by idle buffers and by those assigned to consumers are reported by
+ * {@link ResourcePoolStats#idleBytes} and {@link ResourcePoolStats#inUseBytes}.
+ */
+public class ByteBufferPool implements ResourcePool<ByteBuffer, Integer> {
+
+  static final int MaxSizeClass = 1 << 30;
+
+  private final LongAdder allocatedBytes = new LongAdder();
+  private final LongAdder unpooledAllocations = new LongAdder();
+  private final LongAdder unpooledEvictions = new LongAdder();
+
+  private final ByteBufferFactory unpooled;
+  private final StripedResourcePool<ByteBuffer, Integer>[] sizeClasses;
+  private final int minSize;
+  private final int minShift;
+
+  /**
+   * Creates a {@link ByteBufferPool} instance of the size classes from {@link Config#minSize}
+   * to {@link Config#maxSize}.
+   *
+   * @param config the Config parameters
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public ByteBufferPool(final Config config) {
+    this.unpooled = new ByteBufferFactory(config.direct, config.explicitFree, 0, allocatedBytes);
+    this.minSize = config.minSize;
+    this.minShift = Integer.numberOfTrailingZeros(config.minSize);
+
+    final int count = Integer.numberOfTrailingZeros(config.maxSize) - minShift + 1;
+    this.sizeClasses = new StripedResourcePool[count];
+    for (int i = 0; i < count; i++) {
+      final ByteBufferFactory factory = new ByteBufferFactory(config.direct, config.explicitFree, config.minSize << i, allocatedBytes);
+      // not prewarmed, so that unused size classes hold no memory
+      sizeClasses[i] = new StripedResourcePool<>(StripedResourcePool.Config.of(config.minIdle, config.magazineSize), factory, false);
+    }
+  }
+
+  /**
+   * Uses the minimum size to {@link #acquire(Integer)} a buffer.
+   *
+   * @return a buffer of the minimum size
+   */
+  @Override
+  public ByteBuffer acquire() {
+    return acquire(minSize);
+  }
+
+  /**
+   * Gets a cleared buffer of the size class of {@code capacity} from the pool,
+   * or creates a new one if the size class is exhausted or not pooled.
+   *
+   * @param capacity the Integer number of bytes required
+   * @return a buffer of at least {@code capacity} bytes
+   */
+  @Override
+  public ByteBuffer acquire(final Integer capacity) {
+    final StripedResourcePool<ByteBuffer, Integer> pool = sizeClassPoolOf(sizeClassOf(capacity));
+    if (pool == null) {
+      unpooledAllocations.increment();
+      return unpooled.create(sizeClassOf(capacity));
+    }
+    return pool.acquire(capacity);
+  }
+
+  /**
+   * Releases the buffer back into the pool of its size class, or destroys it
+   * if its capacity is not that of a pooled size class.
+   *
+   * @param buffer the buffer
+   */
+  @Override
+  public void release(final ByteBuffer buffer) {
+    final StripedResourcePool<ByteBuffer, Integer> pool = sizeClassPoolOf(buffer.capacity());
+    if (pool == null) {
+      unpooledEvictions.increment();
+      unpooled.destroy(buffer);
+    } else {
+      pool.release(buffer);
+    }
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (final StripedResourcePool<ByteBuffer, Integer> pool : sizeClasses) {
+      size += pool.size();
+    }
+    return size;
+  }
+
+  /**
+   * The number of available buffers of the size class of {@code capacity}.
+   *
+   * @param capacity the int number of bytes
+   * @return number
+   */
+  public int size(final int capacity) {
+    final StripedResourcePool<ByteBuffer, Integer> pool = sizeClassPoolOf(sizeClassOf(capacity));
+    return pool == null ? 0 : pool.size();
+  }
+
+  @Override
+  public ResourcePoolStats stats() {
+    int allocations = (int) unpooledAllocations.sum();
+    int evictions = (int) unpooledEvictions.sum();
+    int idle = 0;
+    long idleBytes = 0;
+
+    for (int i = 0; i < sizeClasses.length; i++) {
+      final ResourcePoolStats stats = sizeClasses[i].stats();
+      allocations += stats.allocations;
+      evictions += stats.evictions;
+      idle += stats.idle;
+      idleBytes += (long) stats.idle << (minShift + i);
+    }
+
+    return new ResourcePoolStats(allocations, evictions, idle, 0, 0, 0, 0,
+        idleBytes, Math.max(0, allocatedBytes.sum() - idleBytes));
+  }
+
+  /**
+   * Answer the power-of-two size class of the {@code capacity}, which is no less than the minimum size,
+   * or the {@code capacity} itself when it exceeds the largest power-of-two {@code int}.
+   * @param capacity the int number of bytes required
+   * @return int
+   */
+  private int sizeClassOf(final int capacity) {
+    if (capacity <= minSize) {
+      return minSize;
+    }
+    return capacity > MaxSizeClass ? capacity : Integer.highestOneBit(capacity - 1) << 1;
+  }
+
+  private StripedResourcePool<ByteBuffer, Integer> sizeClassPoolOf(final int capacity) {
+    if (Integer.bitCount(capacity) != 1) {
+      return null;
+    }
+    final int index = Integer.numberOfTrailingZeros(capacity) - minShift;
+    return index >= 0 && index < sizeClasses.length ? sizeClasses[index] : null;
+  }
+
+  /**
+   * {@link ByteBufferPool} configuration parameters.
+   */
+  public static final class Config {
+
+    final boolean direct;
+    final boolean explicitFree;
+    final int minSize;
+    final int maxSize;
+    final int minIdle;
+    final int magazineSize;
+
+    /**
+     * @param direct       whether the buffers are direct rather than heap buffers
+     * @param explicitFree whether the memory of evicted direct buffers is freed immediately
+     * @param minSize      the capacity of the smallest size class, rounded up to a power of two
+     * @param maxSize      the capacity of the largest size class, rounded up to a power of two
+     * @param minIdle      the minimum number of buffers to retain in the idle cache of each size class
+     * @param magazineSize the maximum number of idle buffers held by each stripe of each size class
+     */
+    Config(boolean direct, boolean explicitFree, int minSize, int maxSize, int minIdle, int magazineSize) {
+      if (minSize <= 0 || maxSize < minSize || maxSize > MaxSizeClass) {
+        throw new IllegalArgumentException("Sizes must satisfy 0 < minSize <= maxSize <= 2^30.");
+      }
+      this.direct = direct;
+      this.explicitFree = explicitFree;
+      this.minSize = ceilingPowerOfTwo(minSize);
+      this.maxSize = ceilingPowerOfTwo(maxSize);
+      this.minIdle = minIdle;
+      this.magazineSize = magazineSize;
+    }
+
+    /**
+     * Answer the {@code Config} of a pool of heap buffers.
+     * @param minSize the capacity of the smallest size class, rounded up to a power of two
+     * @param maxSize the capacity of the largest size class, rounded up to a power of two
+     * @return Config
+     */
+    public static Config heap(int minSize, int maxSize) {
+      return new Config(false, false, minSize, maxSize, 1, 8);
+    }
+
+    /**
+     * Answer the {@code Config} of a pool of direct buffers.
+     * @param minSize the capacity of the smallest size class, rounded up to a power of two
+     * @param maxSize the capacity of the largest size class, rounded up to a power of two
+     * @return Config
+     */
+    public static Config direct(int minSize, int maxSize) {
+      return new Config(true, false, minSize, maxSize, 1, 8);
+    }
+
+    /**
+     * Answer a copy of this {@code Config} that frees the memory of evicted direct buffers immediately,
+     * which must be done only when no references to the buffers remain.
+     * @return Config
+     */
+    public Config withExplicitFree() {
+      return new Config(direct, true, minSize, maxSize, minIdle, magazineSize);
+    }
+
+    /**
+     * Answer a copy of this {@code Config} with the idle cache bounds of each size class.
+     * @param minIdle      the minimum number of buffers to retain in the idle cache of each size class
+     * @param magazineSize the maximum number of idle buffers held by each stripe of each size class
+     * @return Config
+     */
+    public Config withIdle(int minIdle, int magazineSize) {
+      return new Config(direct, explicitFree, minSize, maxSize, minIdle, magazineSize);
+    }
+
+    private static int ceilingPowerOfTwo(final int value) {
+      return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.pool;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Frees the memory of direct buffers, including those of mapped files, ahead of their
+ * garbage collection, after which the buffer must no longer be used, using
+ * {@code sun.misc.Unsafe.invokeCleaner} where available, or otherwise the
+ * {@code cleaner()} of {@code sun.nio.ch.DirectBuffer}. When neither is
+ * accessible the memory is left to be freed by the garbage collector.
+ */
+public final class DirectMemory {
+  private static final Object unsafe;
+  private static final Method invokeCleaner;
+  private static final Method cleaner;
+  private static final Method clean;
+
+  static {
+    Object unsafeInstance = null;
+    Method invokeCleanerMethod = null;
+    Method cleanerMethod = null;
+    Method cleanMethod = null;
+
+    try {
+      final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      invokeCleanerMethod = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      unsafeInstance = theUnsafe.get(null);
+    } catch (Exception e) {
+      invokeCleanerMethod = null;
+      try {
+        cleanerMethod = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+        cleanMethod = Class.forName("sun.misc.Cleaner").getMethod("clean");
+      } catch (Exception unavailable) {
+        cleanerMethod = null;
+        cleanMethod = null;
+      }
+    }
+
+    unsafe = unsafeInstance;
+    invokeCleaner = invokeCleanerMethod;
+    cleaner = cleanerMethod;
+    clean = cleanMethod;
+  }
+
+  /**
+   * Answer whether the memory of direct buffers can be freed explicitly.
+   * @return boolean
+   */
+  public static boolean isSupported() {
+    return invokeCleaner != null || clean != null;
+  }
+
+  /**
+   * Free the memory of the direct {@code buffer}, which must not be a slice or duplicate,
+   * and answer whether it was freed.
+   * @param buffer the direct ByteBuffer to free
+   * @return boolean
+   */
+  public static boolean free(final ByteBuffer buffer) {
+    try {
+      if (invokeCleaner != null) {
+        invokeCleaner.invoke(unsafe, buffer);
+        return true;
+      }
+      if (clean != null) {
+        final Object bufferCleaner = cleaner.invoke(buffer);
+        if (bufferCleaner != null) {
+          clean.invoke(bufferCleaner);
+          return true;
+        }
+      }
+    } catch (Exception e) {
+      // left to the garbage collector
+    }
+    return false;
+  }
+
+  private DirectMemory() { }
+}
@@ -7,8 +7,15 @@
 
 package io.vlingo.xoom.common.pool;
 
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.vlingo.xoom.common.Cancellable;
+import io.vlingo.xoom.common.Scheduled;
+import io.vlingo.xoom.common.Scheduler;
 
 /**
  * An elastic {@link ResourcePool} implementation backed by a {@link ConcurrentLinkedQueue}.
@@ -21,6 +28,16 @@ import java.util.concurrent.atomic.AtomicInteger;
  * <p>
  * Compaction attempts to half the size of the idle cache, reaching the desired minimum resource count as the cache drains.
  * <p>
+ * Alternatively, when constructed with a {@link Scheduler} and a {@link Config#withIdleEviction(long, int)}, releasing
+ * never evicts. Instead, a maintenance task run by the {@code Scheduler} evicts the resource objects that were not
+ * needed for {@code maxIdleAge}, down to the desired minimum, as well as any beyond the maximum number of idle resources.
+ * Resource objects are then destroyed on the {@code Scheduler} thread rather than on the thread that releases them, and
+ * an idle pool shrinks after a spike without any further releases. With {@link Config#withPrewarming()}, the maintenance
+ * task also creates resource objects ahead of demand to bring the idle cache back to the desired minimum.
+ * <p>
+ * Resource objects may be validated by {@link ResourceFactory#validate(Object)} when acquired, released or,
+ * when maintained by a {@code Scheduler}, while idle, and invalid ones are evicted. See {@link Config#withValidation(Validation...)}.
+ * <p>
  * See {@link Config} for configuration details.
  * <p>
  * Resource object allocation, reset and destruction is managed by {@link ResourceFactory} implementation for the same type of Resource and Arguments.
@@ -30,12 +47,22 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class ElasticResourcePool<Resource, Arguments> extends AbstractResourcePool<Resource, Arguments> {
 
-  private final AtomicInteger idle = new AtomicInteger(0);
+  private static final long IdleUnit = 1L << 32;
+  private static final long InUseMask = IdleUnit - 1;
+
+  // the number of idle resources in the high and of resources in use in the low 32 bits,
+  // so that both are read and updated together
+  private final AtomicLong state = new AtomicLong(0);
   private final AtomicInteger allocations = new AtomicInteger(0);
   private final AtomicInteger evictions = new AtomicInteger(0);
 
+  // the fewest idle resources since the last maintenance, which were therefore not needed since
+  private final AtomicInteger lowWater = new AtomicInteger(0);
+
   private final ConcurrentLinkedQueue<Resource> cache = new ConcurrentLinkedQueue<>();
 
+  private final Config config;
+  private final Cancellable maintenance;
   private final int minIdle;
 
   /**
@@ -48,14 +75,39 @@ public class ElasticResourcePool<Resource, Arguments> extends AbstractResourcePo
    * @param factory the resource object factory
    */
   public ElasticResourcePool(Config config, ResourceFactory<Resource, Arguments> factory) {
-    this(config.minIdle, factory);
+    this(config, factory, null);
   }
 
-  ElasticResourcePool(int minIdle, ResourceFactory<Resource, Arguments> factory) {
-    super(factory);
-    this.minIdle = minIdle;
+  /**
+   * Creates an {@link ElasticResourcePool} instance initialized to pool from {@link Config#minIdle} resource objects,
+   * of which the idle resource objects are evicted by a maintenance task run by the {@code scheduler} every
+   * {@link Config#maxIdleAge} milliseconds.
+   *
+   * @param config    the Config parameters, which must include {@link Config#withIdleEviction(long, int)}
+   * @param factory   the resource object factory
+   * @param scheduler the Scheduler that runs the maintenance task
+   */
+  public ElasticResourcePool(Config config, ResourceFactory<Resource, Arguments> factory, Scheduler scheduler) {
+    super(factory, config.validations);
+    if (scheduler == null && config.validations.contains(Validation.WhenIdle)) {
+      throw new IllegalArgumentException("Validation when idle requires a Scheduler.");
+    }
+    this.config = config;
+    this.minIdle = config.minIdle;
 
     this.initialize();
+
+    if (scheduler == null) {
+      this.maintenance = null;
+    } else if (config.maxIdleAge > 0) {
+      this.maintenance = scheduler.schedule(new Maintenance(), null, config.maxIdleAge, config.maxIdleAge);
+    } else {
+      throw new IllegalArgumentException("Idle eviction must be configured for maintenance.");
+    }
+  }
+
+  ElasticResourcePool(int minIdle, ResourceFactory<Resource, Arguments> factory) {
+    this(Config.of(minIdle), factory);
   }
 
   private void initialize() {
@@ -66,7 +118,7 @@ public class ElasticResourcePool<Resource, Arguments> extends AbstractResourcePo
   }
 
   private void cache(Resource resource) {
-    idle.incrementAndGet();
+    state.addAndGet(IdleUnit);
     cache.offer(resource);
   }
 
@@ -82,31 +134,54 @@ public class ElasticResourcePool<Resource, Arguments> extends AbstractResourcePo
    */
   @Override
   public Resource acquire(Arguments arguments) {
-    Resource resource = cache.poll();
-    if (resource == null) {
-      allocations.incrementAndGet();
-      resource = factory.create(arguments);
-    } else {
-      idle.decrementAndGet();
-      resource = factory.reset(resource, arguments);
+    Resource resource;
+    while ((resource = cache.poll()) != null) {
+      final int idle = idleOf(state.addAndGet(1 - IdleUnit));
+      if (maintenance != null && idle < lowWater.get()) {
+        lowWater.accumulateAndGet(idle, Math::min);
+      }
+      if (isValid(Validation.OnAcquire, resource)) {
+        return factory.reset(resource, arguments);
+      }
+      state.decrementAndGet();
+      evict(resource);
     }
-    return resource;
+
+    allocations.incrementAndGet();
+    state.incrementAndGet();
+    return factory.create(arguments);
   }
 
   /**
    * Releases the object back into the pool, or evicts it when the idle to inUse ratio
-   * is higher than the desired minimum number of resources.
+   * is higher than the desired minimum number of resources. When maintained by a
+   * {@code Scheduler}, the object is always released back into the pool.
+   * <p>
+   * The decision is made on a single consistent reading of the idle and inUse counts,
+   * which is committed atomically along with the decision.
    *
    * @param resource the resource object
    * @see ResourceFactory#destroy(Object)
    */
   @Override
   public void release(final Resource resource) {
-    final ResourcePoolStats stats = stats();
-    if (stats.idleToInUse < minIdle) {
-      idle.incrementAndGet();
+    if (!isValid(Validation.OnRelease, resource)) {
+      state.updateAndGet(current -> inUseOf(current) > 0 ? current - 1 : current);
+      evict(resource);
+      return;
+    }
+
+    long current, released;
+    boolean retain;
+    do {
+      current = state.get();
+      released = inUseOf(current) > 0 ? current - 1 : current;
+      retain = maintenance != null || idleOf(current) < (long) minIdle * Math.max(1, inUseOf(current));
+    } while (!state.compareAndSet(current, retain ? released + IdleUnit : released));
+
+    if (retain) {
       cache.offer(resource);
-    } else if (idle.get() > minIdle) {
+    } else if (idleOf(current) > minIdle) {
       evict(resource);
       compact();
     } else {
@@ -114,28 +189,99 @@ public class ElasticResourcePool<Resource, Arguments> extends AbstractResourcePo
     }
   }
 
+  /**
+   * Stops the maintenance task, if any.
+   */
+  public void close() {
+    if (maintenance != null) {
+      maintenance.cancel();
+    }
+  }
+
+  private void maintain() {
+    if (validations.contains(Validation.WhenIdle)) {
+      validateIdle();
+    }
+
+    final int idle = idleOf(state.get());
+    final int unused = Math.min(lowWater.get(), idle);
+    final int surplus = Math.max(idle - config.maxIdle, unused - minIdle);
+
+    for (int i = 0; i < surplus; i++) {
+      final Resource resource = cache.poll();
+      if (resource == null) {
+        break;
+      }
+      state.addAndGet(-IdleUnit);
+      evict(resource);
+    }
+
+    if (config.prewarm) {
+      while (idleOf(state.get()) < minIdle) {
+        allocations.incrementAndGet();
+        cache(factory.create(factory.defaultArguments()));
+      }
+    }
+
+    lowWater.set(idleOf(state.get()));
+  }
+
+  private void validateIdle() {
+    for (int remaining = idleOf(state.get()); remaining > 0; --remaining) {
+      final Resource resource = cache.poll();
+      if (resource == null) {
+        return;
+      }
+      if (factory.validate(resource)) {
+        cache.offer(resource);
+      } else {
+        state.addAndGet(-IdleUnit);
+        evict(resource);
+      }
+    }
+  }
+
   private void evict(Resource resource) {
     evictions.incrementAndGet();
     factory.destroy(resource);
   }
 
   private void compact() {
-    while (idle.get() > target()) {
+    while (exceedsTarget(state.get())) {
       Resource resource = cache.poll();
       if (resource == null) {
         return;
       }
-      if (idle.getAndDecrement() > target()) {
+      if (claimForEviction()) {
         evict(resource);
       } else {
-        idle.incrementAndGet();
         cache.offer(resource);
       }
     }
   }
 
-  private int target() {
-    return Math.max(minIdle, (int) (idle.get() * 0.5));
+  private boolean claimForEviction() {
+    long current;
+    do {
+      current = state.get();
+      if (!exceedsTarget(current)) {
+        return false;
+      }
+    } while (!state.compareAndSet(current, current - IdleUnit));
+    return true;
+  }
+
+  private boolean exceedsTarget(final long state) {
+    final int idle = idleOf(state);
+    return idle > Math.max(minIdle, idle / 2);
+  }
+
+  private static int idleOf(final long state) {
+    return (int) (state >>> 32);
+  }
+
+  private static int inUseOf(final long state) {
+    return (int) (state & InUseMask);
   }
 
   @Override
@@ -146,7 +292,14 @@ public class ElasticResourcePool<Resource, Arguments> extends AbstractResourcePo
   @Override
   public ResourcePoolStats stats() {
     return new ResourcePoolStats(
-        allocations.get(), evictions.get(), idle.get());
+        allocations.get(), evictions.get(), idleOf(state.get()));
+  }
+
+  private class Maintenance implements Scheduled<Object> {
+    @Override
+    public void intervalSignal(final Scheduled<Object> scheduled, final Object data) {
+      maintain();
+    }
   }
 
   /**
@@ -155,16 +308,67 @@ public class ElasticResourcePool<Resource, Arguments> extends AbstractResourcePo
   public static final class Config {
 
     final int minIdle;
+    final long maxIdleAge;
+    final int maxIdle;
+    final boolean prewarm;
+    final Set<Validation> validations;
 
     /**
      * @param minIdle the minimum number of resource objects to retain in the idle cache
      */
     Config(int minIdle) {
+      this(minIdle, 0L, Integer.MAX_VALUE, false, EnumSet.noneOf(Validation.class));
+    }
+
+    private Config(int minIdle, long maxIdleAge, int maxIdle, boolean prewarm, Set<Validation> validations) {
       this.minIdle = minIdle;
+      this.maxIdleAge = maxIdleAge;
+      this.maxIdle = maxIdle;
+      this.prewarm = prewarm;
+      this.validations = validations;
     }
 
     public static Config of(int minIdle) {
       return new Config(minIdle);
     }
+
+    /**
+     * Answer a copy of this {@code Config} that evicts, beyond the minimum idle resources, those
+     * that were not needed for {@code maxIdleAge} milliseconds, and evicts any idle resources beyond
+     * {@code maxIdle}. Eviction is performed by a maintenance task every {@code maxIdleAge} milliseconds,
+     * so resources are evicted after being idle for between one and two {@code maxIdleAge}.
+     * @param maxIdleAge the long number of milliseconds after which unneeded idle resources are evicted
+     * @param maxIdle the maximum number of resource objects to retain in the idle cache
+     * @return Config
+     */
+    public Config withIdleEviction(long maxIdleAge, int maxIdle) {
+      if (maxIdleAge <= 0) {
+        throw new IllegalArgumentException("Maximum idle age must be greater than zero.");
+      }
+      if (maxIdle < minIdle) {
+        throw new IllegalArgumentException("Maximum idle must not be less than minimum idle.");
+      }
+      return new Config(minIdle, maxIdleAge, maxIdle, prewarm, validations);
+    }
+
+    /**
+     * Answer a copy of this {@code Config} of which the maintenance task creates resource objects
+     * ahead of demand whenever there are fewer idle resources than the minimum.
+     * @return Config
+     */
+    public Config withPrewarming() {
+      return new Config(minIdle, maxIdleAge, maxIdle, true, validations);
+    }
+
+    /**
+     * Answer a copy of this {@code Config} that validates resource objects at the {@code points},
+     * evicting those that are not valid. Validating {@link Validation#WhenIdle} is performed by
+     * the maintenance task, and so requires the pool to be constructed with a {@code Scheduler}.
+     * @param points the Validation points
+     * @return Config
+     */
+    public Config withValidation(Validation... points) {
+      return new Config(minIdle, maxIdleAge, maxIdle, prewarm, validations(points));
+    }
   }
 }
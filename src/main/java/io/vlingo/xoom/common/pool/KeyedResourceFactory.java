@@ -0,0 +1,36 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.pool;
+
+/**
+ * A {@link ResourceFactory} of resource objects of different shapes, such as buffers of different
+ * size classes, which are distinguished by a key. The key of the arguments of an acquisition must
+ * be equal to that of the resource objects created or reset with those arguments.
+ *
+ * @param <Resource>  the type of resource
+ * @param <Arguments> the type fo arguments to create and reset methods
+ * @param <Key>       the type of the key of the shape of a resource
+ * @see KeyedResourcePool
+ */
+public interface KeyedResourceFactory<Resource, Arguments, Key> extends ResourceFactory<Resource, Arguments> {
+  /**
+   * Answers the key of the shape of the resource objects required by the {@code arguments}.
+   *
+   * @param arguments the arguments
+   * @return the key
+   */
+  Key keyOfArguments(Arguments arguments);
+
+  /**
+   * Answers the key of the shape of the {@code resource}.
+   *
+   * @param resource the resource object
+   * @return the key
+   */
+  Key keyOfResource(Resource resource);
+}
@@ -0,0 +1,326 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.pool;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link ResourcePool} implementation that partitions its idle resource objects by the key of their shape,
+ * as answered by a {@link KeyedResourceFactory}, so that an acquisition is lent a resource object that already
+ * has the shape required by its arguments. For example, buffers may be partitioned by size class, so that a
+ * buffer pooled for a small request is not reset for a large request, which would force its reallocation.
+ * <p>
+ * Each partition retains no more than its maximum idle resource objects, and all partitions together retain
+ * no more than {@link Config#maxTotalIdle}, except that each partition may always retain its minimum idle
+ * resource objects. Resource objects released beyond those bounds are evicted. Partitions are created when
+ * first used, with the default minimum and maximum idle, unless configured by {@link Config#withPartition}.
+ * <p>
+ * When a partition is exhausted, a new resource object is created, or with {@link Config#withStealing()}
+ * an idle resource object is taken from another partition that holds more than its minimum idle and reset to
+ * the required shape by {@link ResourceFactory#reset(Object, Object)}. Resource objects may be validated when
+ * acquired or released, and invalid ones are evicted. See {@link Config#withValidation(Validation...)}.
+ * <p>
+ * See {@link Config} for configuration details.
+ *
+ * @param <Resource>  the type of resource
+ * @param <Arguments> the type of arguments for the {@link KeyedResourceFactory}
+ * @param <Key>       the type of the key of the shape of a resource
+ */
+public class KeyedResourcePool<Resource, Arguments, Key> extends AbstractResourcePool<Resource, Arguments> {
+
+  private final AtomicInteger idle = new AtomicInteger(0);
+  private final AtomicInteger allocations = new AtomicInteger(0);
+  private final AtomicInteger evictions = new AtomicInteger(0);
+
+  private final Map<Key, Partition> partitions = new ConcurrentHashMap<>();
+
+  private final Config<Key> config;
+  private final KeyedResourceFactory<Resource, Arguments, Key> keyedFactory;
+
+  /**
+   * Creates a {@link KeyedResourcePool} instance, of which the partitions are created when first used.
+   *
+   * @param config  the Config parameters
+   * @param factory the resource object factory
+   */
+  public KeyedResourcePool(Config<Key> config, KeyedResourceFactory<Resource, Arguments, Key> factory) {
+    super(factory, config.validations);
+    this.config = config;
+    this.keyedFactory = factory;
+  }
+
+  /**
+   * Gets a resource object from the partition of the key of the {@code arguments} and resets it,
+   * or steals one from another partition, or creates a new one if the partition is exhausted.
+   *
+   * @param arguments the arguments
+   * @return a resource object
+   * @see ResourcePool#acquire(Object)
+   * @see KeyedResourceFactory#keyOfArguments(Object)
+   */
+  @Override
+  public Resource acquire(Arguments arguments) {
+    final Partition partition = partition(keyedFactory.keyOfArguments(arguments));
+
+    Resource resource;
+    while ((resource = take(partition)) != null) {
+      if (isValid(Validation.OnAcquire, resource)) {
+        return factory.reset(resource, arguments);
+      }
+      evict(resource);
+    }
+
+    allocations.incrementAndGet();
+    return factory.create(arguments);
+  }
+
+  /**
+   * Releases the object back into the partition of its key, or evicts it when that would
+   * exceed the maximum idle resources of the partition or of all partitions.
+   *
+   * @param resource the resource object
+   * @see KeyedResourceFactory#keyOfResource(Object)
+   * @see ResourceFactory#destroy(Object)
+   */
+  @Override
+  public void release(final Resource resource) {
+    if (!isValid(Validation.OnRelease, resource)) {
+      evict(resource);
+      return;
+    }
+
+    final Partition partition = partition(keyedFactory.keyOfResource(resource));
+
+    if (!partition.offer(resource)) {
+      evict(resource);
+    }
+  }
+
+  @Override
+  public int size() {
+    return idle.get();
+  }
+
+  /**
+   * The number of available resource objects of the shape of {@code key}.
+   *
+   * @param key the key of the partition
+   * @return number
+   */
+  public int size(final Key key) {
+    final Partition partition = partitions.get(key);
+    return partition == null ? 0 : partition.idle.get();
+  }
+
+  @Override
+  public ResourcePoolStats stats() {
+    return new ResourcePoolStats(
+        allocations.get(), evictions.get(), idle.get());
+  }
+
+  private Partition partition(final Key key) {
+    final Partition partition = partitions.get(key);
+    return partition != null ? partition : partitions.computeIfAbsent(key, Partition::new);
+  }
+
+  private Resource take(final Partition partition) {
+    final Resource resource = partition.poll(0);
+    return resource == null && config.stealing ? steal(partition) : resource;
+  }
+
+  private void evict(final Resource resource) {
+    evictions.incrementAndGet();
+    factory.destroy(resource);
+  }
+
+  private Resource steal(final Partition thief) {
+    for (final Partition partition : partitions.values()) {
+      if (partition != thief) {
+        final Resource resource = partition.poll(partition.minIdle);
+        if (resource != null) {
+          return resource;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The idle resource objects of a single shape.
+   */
+  private final class Partition {
+    private final AtomicInteger idle = new AtomicInteger(0);
+    private final ConcurrentLinkedQueue<Resource> cache = new ConcurrentLinkedQueue<>();
+    private final int minIdle;
+    private final int maxIdle;
+
+    Partition(final Key key) {
+      final int[] bounds = config.partitions.get(key);
+      this.minIdle = bounds == null ? config.minIdle : bounds[0];
+      this.maxIdle = bounds == null ? config.maxIdle : bounds[1];
+    }
+
+    // poll a resource object, unless no more than reserve are idle; a resource object is taken
+    // before it is uncounted, as it is counted before it is offered, so that idle is never less
+    // than the resource objects cached, and a counted one that is not yet cached is not awaited
+    Resource poll(final int reserve) {
+      if (idle.get() <= reserve) {
+        return null;
+      }
+
+      final Resource resource = cache.poll();
+      if (resource == null) {
+        return null;
+      }
+
+      int current;
+      do {
+        current = idle.get();
+        if (current <= reserve) {
+          // taken by others meanwhile, so it is returned as it was taken, uncounted
+          cache.offer(resource);
+          return null;
+        }
+      } while (!idle.compareAndSet(current, current - 1));
+
+      KeyedResourcePool.this.idle.decrementAndGet();
+
+      return resource;
+    }
+
+    boolean offer(final Resource resource) {
+      final AtomicInteger total = KeyedResourcePool.this.idle;
+      while (true) {
+        final int current = idle.get();
+        if (current >= maxIdle) {
+          return false;
+        }
+        // beyond its minimum idle a partition must first reserve a slot of the total
+        final boolean reserved = current >= minIdle;
+        if (reserved && !reserve(total)) {
+          return false;
+        }
+        if (idle.compareAndSet(current, current + 1)) {
+          if (!reserved) {
+            total.incrementAndGet();
+          }
+          break;
+        }
+        if (reserved) {
+          total.decrementAndGet();
+        }
+      }
+
+      cache.offer(resource);
+      return true;
+    }
+
+    private boolean reserve(final AtomicInteger total) {
+      int current;
+      do {
+        current = total.get();
+        if (current >= config.maxTotalIdle) {
+          return false;
+        }
+      } while (!total.compareAndSet(current, current + 1));
+      return true;
+    }
+  }
+
+  /**
+   * {@link KeyedResourcePool} configuration parameters.
+   *
+   * @param <Key> the type of the key of the shape of a resource
+   */
+  public static final class Config<Key> {
+
+    final int minIdle;
+    final int maxIdle;
+    final int maxTotalIdle;
+    final boolean stealing;
+    final Map<Key, int[]> partitions;
+    final Set<Validation> validations;
+
+    /**
+     * @param minIdle      the default number of idle resource objects that each partition may always retain
+     * @param maxIdle      the default maximum number of idle resource objects of each partition
+     * @param maxTotalIdle the maximum number of idle resource objects of all partitions together
+     */
+    Config(int minIdle, int maxIdle, int maxTotalIdle) {
+      this(minIdle, maxIdle, maxTotalIdle, false, Collections.emptyMap(), EnumSet.noneOf(Validation.class));
+    }
+
+    private Config(int minIdle, int maxIdle, int maxTotalIdle, boolean stealing, Map<Key, int[]> partitions, Set<Validation> validations) {
+      checkBounds(minIdle, maxIdle);
+      if (maxTotalIdle < 0) {
+        throw new IllegalArgumentException("Maximum total idle must not be negative.");
+      }
+      this.minIdle = minIdle;
+      this.maxIdle = maxIdle;
+      this.maxTotalIdle = maxTotalIdle;
+      this.stealing = stealing;
+      this.partitions = partitions;
+      this.validations = validations;
+    }
+
+    public static <Key> Config<Key> of(int minIdle, int maxIdle, int maxTotalIdle) {
+      return new Config<>(minIdle, maxIdle, maxTotalIdle);
+    }
+
+    /**
+     * Answer a copy of this {@code Config} with which the partition of {@code key} has its own
+     * minimum and maximum idle resource objects.
+     * @param key the key of the partition
+     * @param minIdle the number of idle resource objects that the partition may always retain
+     * @param maxIdle the maximum number of idle resource objects of the partition
+     * @return Config
+     */
+    public Config<Key> withPartition(Key key, int minIdle, int maxIdle) {
+      checkBounds(minIdle, maxIdle);
+      final Map<Key, int[]> partitions = new HashMap<>(this.partitions);
+      partitions.put(key, new int[] { minIdle, maxIdle });
+      return new Config<>(this.minIdle, this.maxIdle, maxTotalIdle, stealing, partitions, validations);
+    }
+
+    /**
+     * Answer a copy of this {@code Config} with which an acquisition from an exhausted partition
+     * takes an idle resource object from another partition before creating a new one.
+     * @return Config
+     */
+    public Config<Key> withStealing() {
+      return new Config<>(minIdle, maxIdle, maxTotalIdle, true, partitions, validations);
+    }
+
+    /**
+     * Answer a copy of this {@code Config} that validates resource objects at the {@code points},
+     * evicting those that are not valid. {@link Validation#WhenIdle} is not supported.
+     * @param points the Validation points
+     * @return Config
+     */
+    public Config<Key> withValidation(Validation... points) {
+      final Set<Validation> validations = validations(points);
+      if (validations.contains(Validation.WhenIdle)) {
+        throw new IllegalArgumentException("Validation when idle is not supported.");
+      }
+      return new Config<>(minIdle, maxIdle, maxTotalIdle, stealing, partitions, validations);
+    }
+
+    private static void checkBounds(int minIdle, int maxIdle) {
+      if (minIdle < 0 || maxIdle < minIdle) {
+        throw new IllegalArgumentException("Idle bounds must satisfy 0 <= minIdle <= maxIdle.");
+      }
+    }
+  }
+}
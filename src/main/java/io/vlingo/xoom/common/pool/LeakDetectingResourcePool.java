@@ -0,0 +1,278 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.pool;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import io.vlingo.xoom.common.Cancellable;
+import io.vlingo.xoom.common.Scheduled;
+import io.vlingo.xoom.common.Scheduler;
+
+/**
+ * A {@link ResourcePool} that detects resource objects that are acquired from another
+ * {@code ResourcePool} but not released back to it within {@link Config#leakThreshold}.
+ * <p>
+ * Only one in every {@link Config#sampleEvery} leases is tracked, for which the site of
+ * the acquisition is recorded by a stack trace. The untracked leases cost no more than
+ * drawing a random number, and releases cost nothing more while no tracked leases are
+ * outstanding, so that leak detection may be left on in production.
+ * <p>
+ * The tracked leases are inspected by {@link #detect()}, which is run periodically when
+ * the pool is constructed with a {@code Scheduler}, and each {@link Leak} is reported once
+ * to the listener, after which its lease is no longer tracked, so that neither the leaked
+ * resource object nor the stack trace of its acquisition is retained by this pool.
+ *
+ * @param <Resource>  the type of resource
+ * @param <Arguments> the type of arguments for the {@link ResourceFactory}
+ */
+public class LeakDetectingResourcePool<Resource, Arguments> implements ResourcePool<Resource, Arguments> {
+
+  private static final int Stripes = 16;
+
+  private final ResourcePool<Resource, Arguments> pool;
+  private final Config config;
+  private final Consumer<Leak<Resource>> listener;
+  private final Cancellable detection;
+
+  private final List<Map<Resource, Lease>> leases;
+  private final AtomicInteger tracked = new AtomicInteger(0);
+
+  /**
+   * Creates a {@link LeakDetectingResourcePool} of the leases of {@code pool}, of which
+   * leaks are detected only when {@link #detect()} is run.
+   *
+   * @param pool     the ResourcePool of which leases are tracked
+   * @param config   the Config parameters
+   * @param listener the Consumer to which each Leak is reported
+   */
+  public LeakDetectingResourcePool(ResourcePool<Resource, Arguments> pool, Config config, Consumer<Leak<Resource>> listener) {
+    this(pool, config, listener, null);
+  }
+
+  /**
+   * Creates a {@link LeakDetectingResourcePool} of the leases of {@code pool}, of which
+   * leaks are detected by the {@code scheduler} every {@link Config#leakThreshold} milliseconds.
+   *
+   * @param pool      the ResourcePool of which leases are tracked
+   * @param config    the Config parameters
+   * @param listener  the Consumer to which each Leak is reported
+   * @param scheduler the Scheduler that runs the detection
+   */
+  public LeakDetectingResourcePool(ResourcePool<Resource, Arguments> pool, Config config, Consumer<Leak<Resource>> listener, Scheduler scheduler) {
+    if (pool == null || listener == null) {
+      throw new IllegalArgumentException("Pool and listener must not be null.");
+    }
+    this.pool = pool;
+    this.config = config;
+    this.listener = listener;
+
+    this.leases = new ArrayList<>(Stripes);
+    for (int i = 0; i < Stripes; i++) {
+      this.leases.add(new IdentityHashMap<>());
+    }
+
+    this.detection = scheduler == null ? null : scheduler.schedule(new Detection(), null, config.leakThreshold, config.leakThreshold);
+  }
+
+  @Override
+  public Resource acquire() {
+    return track(pool.acquire());
+  }
+
+  @Override
+  public Resource acquire(Arguments arguments) {
+    return track(pool.acquire(arguments));
+  }
+
+  @Override
+  public void release(Resource resource) {
+    if (resource != null && tracked.get() > 0) {
+      final Map<Resource, Lease> stripe = stripeOf(resource);
+      final Lease lease;
+      synchronized (stripe) {
+        lease = stripe.remove(resource);
+      }
+      if (lease != null) {
+        tracked.decrementAndGet();
+      }
+    }
+    pool.release(resource);
+  }
+
+  @Override
+  public int size() {
+    return pool.size();
+  }
+
+  @Override
+  public ResourcePoolStats stats() {
+    return pool.stats();
+  }
+
+  /**
+   * Answers the number of leases that are currently tracked.
+   *
+   * @return int
+   */
+  public int tracked() {
+    return tracked.get();
+  }
+
+  /**
+   * Reports to the listener and answers the tracked leases that are held beyond
+   * {@link Config#leakThreshold}, which are no longer tracked thereafter.
+   *
+   * @return the newly detected leaks
+   */
+  public List<Leak<Resource>> detect() {
+    if (tracked.get() == 0) {
+      return Collections.emptyList();
+    }
+
+    final long now = System.currentTimeMillis();
+    final List<Leak<Resource>> leaks = new ArrayList<>();
+
+    for (final Map<Resource, Lease> stripe : leases) {
+      synchronized (stripe) {
+        for (final Iterator<Map.Entry<Resource, Lease>> iterator = stripe.entrySet().iterator(); iterator.hasNext(); ) {
+          final Map.Entry<Resource, Lease> entry = iterator.next();
+          final Lease lease = entry.getValue();
+          if (now - lease.leasedAt > config.leakThreshold) {
+            leaks.add(new Leak<>(entry.getKey(), lease.leasedAt, now - lease.leasedAt, lease.site));
+            iterator.remove();
+            tracked.decrementAndGet();
+          }
+        }
+      }
+    }
+
+    leaks.forEach(listener);
+
+    return leaks;
+  }
+
+  /**
+   * Stops the periodic detection, if any.
+   */
+  public void close() {
+    if (detection != null) {
+      detection.cancel();
+    }
+  }
+
+  private Resource track(final Resource resource) {
+    if (resource != null && ThreadLocalRandom.current().nextInt(config.sampleEvery) == 0) {
+      final Map<Resource, Lease> stripe = stripeOf(resource);
+      final Lease previous;
+      synchronized (stripe) {
+        previous = stripe.put(resource, new Lease(System.currentTimeMillis(), new Throwable("Leased at")));
+      }
+      if (previous == null) {
+        tracked.incrementAndGet();
+      }
+    }
+    return resource;
+  }
+
+  private Map<Resource, Lease> stripeOf(final Resource resource) {
+    return leases.get(System.identityHashCode(resource) & (Stripes - 1));
+  }
+
+  private static final class Lease {
+    final long leasedAt;
+    final Throwable site;
+
+    Lease(final long leasedAt, final Throwable site) {
+      this.leasedAt = leasedAt;
+      this.site = site;
+    }
+  }
+
+  private class Detection implements Scheduled<Object> {
+    @Override
+    public void intervalSignal(final Scheduled<Object> scheduled, final Object data) {
+      detect();
+    }
+  }
+
+  /**
+   * A resource object that is held beyond {@link Config#leakThreshold}.
+   *
+   * @param <Resource> the type of resource
+   */
+  public static final class Leak<Resource> {
+
+    /**
+     * the leaked resource object
+     */
+    public final Resource resource;
+
+    /**
+     * the time in milliseconds since the epoch at which the resource object was acquired
+     */
+    public final long leasedAt;
+
+    /**
+     * the number of milliseconds that the resource object was held when detected
+     */
+    public final long heldFor;
+
+    /**
+     * the stack trace of the acquisition
+     */
+    public final Throwable site;
+
+    Leak(final Resource resource, final long leasedAt, final long heldFor, final Throwable site) {
+      this.resource = resource;
+      this.leasedAt = leasedAt;
+      this.heldFor = heldFor;
+      this.site = site;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("Leak(resource: %s, leasedAt: %d, heldFor: %d)", resource, leasedAt, heldFor);
+    }
+  }
+
+  /**
+   * {@link LeakDetectingResourcePool} configuration parameters.
+   */
+  public static final class Config {
+
+    final int sampleEvery;
+    final long leakThreshold;
+
+    /**
+     * @param sampleEvery   track one in every {@code sampleEvery} leases
+     * @param leakThreshold the number of milliseconds after which a tracked lease is a leak
+     */
+    Config(int sampleEvery, long leakThreshold) {
+      if (sampleEvery <= 0) {
+        throw new IllegalArgumentException("Sample every must be greater than zero.");
+      }
+      if (leakThreshold <= 0) {
+        throw new IllegalArgumentException("Leak threshold must be greater than zero.");
+      }
+      this.sampleEvery = sampleEvery;
+      this.leakThreshold = leakThreshold;
+    }
+
+    public static Config of(int sampleEvery, long leakThreshold) {
+      return new Config(sampleEvery, leakThreshold);
+    }
+  }
+}
@@ -44,6 +44,18 @@ public interface ResourceFactory<Resource, Arguments> {
    */
   Resource reset(Resource resource, Arguments arguments);
 
+  /**
+   * Answers whether a resource object is still fit to be used, such as a connection that
+   * is still open. Invalid resource objects are evicted by pools configured to validate them
+   * at one or more {@link Validation} points. By default every resource object is valid.
+   *
+   * @param resource the resource object
+   * @return true if the resource object may be used
+   */
+  default boolean validate(Resource resource) {
+    return true;
+  }
+
   /**
    * Destroys a resource object.
    *
@@ -39,17 +39,81 @@ public final class ResourcePoolStats {
    */
   public final float idleToInUse;
 
+  /**
+   * number of acquisitions that waited for a resource to become available
+   */
+  public final long waits;
+
+  /**
+   * number of waiting acquisitions that timed out
+   */
+  public final long waitTimeouts;
+
+  /**
+   * The mean time in nanoseconds spent waiting by waiting acquisitions
+   */
+  public final long meanWaitTime;
+
+  /**
+   * The longest time in nanoseconds spent waiting by an acquisition
+   */
+  public final long maxWaitTime;
+
+  /**
+   * number of bytes held by idle resources, where resources are measured in bytes
+   */
+  public final long idleBytes;
+
+  /**
+   * number of bytes held by resources assigned to consumers, where resources are measured in bytes
+   */
+  public final long inUseBytes;
+
   /**
    * @param allocations number of resource allocations
    * @param evictions   number of evicted resources
    * @param idle        number of idle resources
    */
   public ResourcePoolStats(int allocations, int evictions, int idle) {
+    this(allocations, evictions, idle, 0, 0, 0, 0);
+  }
+
+  /**
+   * @param allocations   number of resource allocations
+   * @param evictions     number of evicted resources
+   * @param idle          number of idle resources
+   * @param waits         number of acquisitions that waited for a resource
+   * @param waitTimeouts  number of waiting acquisitions that timed out
+   * @param totalWaitTime total time in nanoseconds spent waiting by waiting acquisitions
+   * @param maxWaitTime   longest time in nanoseconds spent waiting by an acquisition
+   */
+  public ResourcePoolStats(int allocations, int evictions, int idle, long waits, long waitTimeouts, long totalWaitTime, long maxWaitTime) {
+    this(allocations, evictions, idle, waits, waitTimeouts, totalWaitTime, maxWaitTime, 0, 0);
+  }
+
+  /**
+   * @param allocations   number of resource allocations
+   * @param evictions     number of evicted resources
+   * @param idle          number of idle resources
+   * @param waits         number of acquisitions that waited for a resource
+   * @param waitTimeouts  number of waiting acquisitions that timed out
+   * @param totalWaitTime total time in nanoseconds spent waiting by waiting acquisitions
+   * @param maxWaitTime   longest time in nanoseconds spent waiting by an acquisition
+   * @param idleBytes     number of bytes held by idle resources
+   * @param inUseBytes    number of bytes held by resources assigned to consumers
+   */
+  public ResourcePoolStats(int allocations, int evictions, int idle, long waits, long waitTimeouts, long totalWaitTime, long maxWaitTime, long idleBytes, long inUseBytes) {
     this.allocations = allocations;
     this.evictions = evictions;
     this.idle = idle;
     this.inUse = allocations - evictions - idle;
     this.idleToInUse = (float) idle / Math.max(1, inUse);
+    this.waits = waits;
+    this.waitTimeouts = waitTimeouts;
+    this.meanWaitTime = totalWaitTime / Math.max(1, waits);
+    this.maxWaitTime = maxWaitTime;
+    this.idleBytes = idleBytes;
+    this.inUseBytes = inUseBytes;
   }
 
   @Override
@@ -59,17 +123,23 @@ public final class ResourcePoolStats {
     ResourcePoolStats that = (ResourcePoolStats) o;
     return allocations == that.allocations &&
         evictions == that.evictions &&
-        idle == that.idle;
+        idle == that.idle &&
+        waits == that.waits &&
+        waitTimeouts == that.waitTimeouts &&
+        meanWaitTime == that.meanWaitTime &&
+        maxWaitTime == that.maxWaitTime &&
+        idleBytes == that.idleBytes &&
+        inUseBytes == that.inUseBytes;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(allocations, evictions, idle);
+    return Objects.hash(allocations, evictions, idle, waits, waitTimeouts, meanWaitTime, maxWaitTime, idleBytes, inUseBytes);
   }
 
   @Override
   public String toString() {
-    return String.format("ResourcePoolStats(allocations: %d, evictions: %d, idle: %d, inUse: %d, idleToInUse: %f)",
-        allocations, evictions, idle, inUse, idleToInUse);
+    return String.format("ResourcePoolStats(allocations: %d, evictions: %d, idle: %d, inUse: %d, idleToInUse: %f, waits: %d, waitTimeouts: %d, meanWaitTime: %d, maxWaitTime: %d, idleBytes: %d, inUseBytes: %d)",
+        allocations, evictions, idle, inUse, idleToInUse, waits, waitTimeouts, meanWaitTime, maxWaitTime, idleBytes, inUseBytes);
   }
 }
@@ -0,0 +1,314 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.pool;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An elastic {@link ResourcePool} implementation that keeps a small magazine of idle resource objects
+ * in each of a number of stripes in front of a shared depot, which is backed by a {@link ConcurrentLinkedQueue}.
+ * <p>
+ * Each thread is assigned to one stripe, of which there is by default one per available processor, so that
+ * acquiring and releasing in the common case touches only the magazine of its own stripe. Only when a magazine
+ * is empty is it refilled from the depot, and only when it is full is it spilled to the depot, in both cases
+ * by batches of half of its capacity. Should a stripe be in use by another thread, the depot is used directly.
+ * Statistics are kept by {@link LongAdder} counters, so they too avoid contention.
+ * <p>
+ * Like the {@link ElasticResourcePool}, new resource objects are allocated as needed in case the pool is exhausted,
+ * and resource objects spilled to the depot are evicted when the idle to inUse ratio is not less than the desired
+ * minimum idle resources. Resource objects may be validated when acquired or released, and invalid ones are evicted.
+ * <p>
+ * See {@link Config} for configuration details.
+ * <p>
+ * Resource object allocation, reset and destruction is managed by {@link ResourceFactory} implementation for the same type of Resource and Arguments.
+ *
+ * @param <Resource>  the type of resource
+ * @param <Arguments> the type of arguments for the {@link ResourceFactory}
+ */
+public class StripedResourcePool<Resource, Arguments> extends AbstractResourcePool<Resource, Arguments> {
+
+  private final LongAdder idle = new LongAdder();
+  private final LongAdder allocations = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  private final ConcurrentLinkedQueue<Resource> depot = new ConcurrentLinkedQueue<>();
+
+  private final Magazine[] stripes;
+  private final int mask;
+  private final int minIdle;
+
+  /**
+   * Creates a {@link StripedResourcePool} instance initialized to pool from {@link Config#minIdle} resource objects.
+   * <p>
+   * Resource object instances will be created using {@link ResourceFactory#create(Object)}
+   * with the default arguments specified in {@link ResourceFactory#defaultArguments()}.
+   *
+   * @param config  the Config parameters
+   * @param factory the resource object factory
+   */
+  public StripedResourcePool(Config config, ResourceFactory<Resource, Arguments> factory) {
+    this(config, factory, true);
+  }
+
+  StripedResourcePool(Config config, ResourceFactory<Resource, Arguments> factory, boolean prewarm) {
+    super(factory, config.validations);
+    this.minIdle = config.minIdle;
+
+    final int stripes = ceilingPowerOfTwo(config.stripes);
+    this.stripes = new Magazine[stripes];
+    this.mask = stripes - 1;
+    for (int i = 0; i < stripes; i++) {
+      this.stripes[i] = new Magazine(config.magazineSize);
+    }
+
+    if (prewarm) {
+      this.initialize();
+    }
+  }
+
+  private void initialize() {
+    for (int i = 0; i < minIdle; i++) {
+      allocations.increment();
+      idle.increment();
+      depot.offer(factory.create(factory.defaultArguments()));
+    }
+  }
+
+  /**
+   * Gets a resource object from the magazine of the current thread's stripe, or from the shared depot,
+   * and resets it, or creates a new one if the pool is exhausted.
+   *
+   * @param arguments the arguments
+   * @return a resource object
+   * @see ResourcePool#acquire(Object)
+   * @see ResourceFactory#create(Object)
+   * @see ResourceFactory#reset(Object, Object)
+   */
+  @Override
+  public Resource acquire(Arguments arguments) {
+    Resource resource;
+    while ((resource = take()) != null) {
+      if (isValid(Validation.OnAcquire, resource)) {
+        idle.decrement();
+        return factory.reset(resource, arguments);
+      }
+      evict(resource);
+    }
+
+    allocations.increment();
+    return factory.create(arguments);
+  }
+
+  /**
+   * Releases the object back into the magazine of the current thread's stripe, spilling half of
+   * a full magazine to the shared depot, or evicting the spilled resource objects when the idle to
+   * inUse ratio is not less than the desired minimum number of resources.
+   *
+   * @param resource the resource object
+   * @see ResourceFactory#destroy(Object)
+   */
+  @Override
+  public void release(final Resource resource) {
+    if (!isValid(Validation.OnRelease, resource)) {
+      evictions.increment();
+      factory.destroy(resource);
+      return;
+    }
+
+    final Magazine magazine = stripe();
+
+    idle.increment();
+
+    if (magazine.tryLock()) {
+      try {
+        if (magazine.size == magazine.rounds.length) {
+          spill(magazine);
+        }
+        magazine.push(resource);
+      } finally {
+        magazine.unlock();
+      }
+    } else if (retains()) {
+      depot.offer(resource);
+    } else {
+      evict(resource);
+    }
+  }
+
+  @Override
+  public int size() {
+    return (int) idle.sum();
+  }
+
+  @Override
+  public ResourcePoolStats stats() {
+    return new ResourcePoolStats(
+        (int) allocations.sum(), (int) evictions.sum(), (int) idle.sum());
+  }
+
+  private Magazine stripe() {
+    return stripes[(int) Thread.currentThread().getId() & mask];
+  }
+
+  @SuppressWarnings("unchecked")
+  private Resource take() {
+    final Magazine magazine = stripe();
+
+    if (!magazine.tryLock()) {
+      return depot.poll();
+    }
+    try {
+      if (magazine.size == 0) {
+        refill(magazine);
+      }
+      return (Resource) magazine.pop();
+    } finally {
+      magazine.unlock();
+    }
+  }
+
+  private void refill(final Magazine magazine) {
+    final int batch = magazine.batch();
+    for (int i = 0; i < batch; i++) {
+      final Resource resource = depot.poll();
+      if (resource == null) {
+        return;
+      }
+      magazine.push(resource);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void spill(final Magazine magazine) {
+    final boolean retains = retains();
+    final int batch = magazine.batch();
+    for (int i = 0; i < batch; i++) {
+      final Resource resource = (Resource) magazine.pop();
+      if (retains) {
+        depot.offer(resource);
+      } else {
+        evict(resource);
+      }
+    }
+  }
+
+  // the integer form of idleToInUse < minIdle, decided from the counters without allocating stats()
+  private boolean retains() {
+    final long idle = this.idle.sum();
+    final long inUse = allocations.sum() - evictions.sum() - idle;
+    return idle < (long) minIdle * Math.max(1, inUse);
+  }
+
+  private void evict(final Resource resource) {
+    idle.decrement();
+    evictions.increment();
+    factory.destroy(resource);
+  }
+
+  private static int ceilingPowerOfTwo(final int value) {
+    return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+  }
+
+  /**
+   * The idle resource objects of a single stripe, which is
+   * used only by the thread that holds its lock.
+   */
+  private static final class Magazine {
+    private final AtomicBoolean locked = new AtomicBoolean(false);
+    private final Object[] rounds;
+    private int size;
+
+    Magazine(final int capacity) {
+      this.rounds = new Object[capacity];
+    }
+
+    int batch() {
+      return Math.max(1, rounds.length / 2);
+    }
+
+    Object pop() {
+      if (size == 0) {
+        return null;
+      }
+      final Object resource = rounds[--size];
+      rounds[size] = null;
+      return resource;
+    }
+
+    void push(final Object resource) {
+      rounds[size++] = resource;
+    }
+
+    boolean tryLock() {
+      return !locked.get() && locked.compareAndSet(false, true);
+    }
+
+    void unlock() {
+      locked.set(false);
+    }
+  }
+
+  /**
+   * {@link StripedResourcePool} configuration parameters.
+   */
+  public static final class Config {
+
+    final int minIdle;
+    final int magazineSize;
+    final int stripes;
+    final Set<Validation> validations;
+
+    /**
+     * @param minIdle      the minimum number of resource objects to retain in the idle cache
+     * @param magazineSize the maximum number of idle resource objects held by each stripe
+     * @param stripes      the number of stripes, rounded up to a power of two
+     */
+    Config(int minIdle, int magazineSize, int stripes) {
+      this(minIdle, magazineSize, stripes, EnumSet.noneOf(Validation.class));
+    }
+
+    private Config(int minIdle, int magazineSize, int stripes, Set<Validation> validations) {
+      if (magazineSize <= 0) {
+        throw new IllegalArgumentException("Magazine size must be greater than zero.");
+      }
+      if (stripes <= 0) {
+        throw new IllegalArgumentException("Stripes must be greater than zero.");
+      }
+      this.minIdle = minIdle;
+      this.magazineSize = magazineSize;
+      this.stripes = stripes;
+      this.validations = validations;
+    }
+
+    public static Config of(int minIdle, int magazineSize) {
+      return new Config(minIdle, magazineSize, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static Config of(int minIdle, int magazineSize, int stripes) {
+      return new Config(minIdle, magazineSize, stripes);
+    }
+
+    /**
+     * Answer a copy of this {@code Config} that validates resource objects at the {@code points},
+     * evicting those that are not valid. {@link Validation#WhenIdle} is not supported.
+     * @param points the Validation points
+     * @return Config
+     */
+    public Config withValidation(Validation... points) {
+      final Set<Validation> validations = validations(points);
+      if (validations.contains(Validation.WhenIdle)) {
+        throw new IllegalArgumentException("Validation when idle is not supported.");
+      }
+      return new Config(minIdle, magazineSize, stripes, validations);
+    }
+  }
+}
@@ -0,0 +1,31 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.pool;
+
+/**
+ * The points at which a {@link ResourcePool} validates its resource objects using
+ * {@link ResourceFactory#validate(Object)}, evicting those that are no longer valid.
+ */
+public enum Validation {
+  /**
+   * Validate idle resource objects before lending them, which is the most
+   * thorough but also adds the cost of validation to every acquisition.
+   */
+  OnAcquire,
+
+  /**
+   * Validate resource objects as they are returned to the pool.
+   */
+  OnRelease,
+
+  /**
+   * Validate idle resource objects in the background, which is supported only by
+   * pools that are maintained by a {@code Scheduler}.
+   */
+  WhenIdle
+}
@@ -0,0 +1,91 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.vlingo.xoom.common.Completes.CompletesId;
+import io.vlingo.xoom.common.Completes.CompletesId.Allocation;
+
+public class CompletesIdTest {
+
+  @After
+  public void tearDown() {
+    CompletesId.useAllocation(Allocation.Sequential);
+  }
+
+  @Test
+  public void testThatSequentialIdsAreOrdered() {
+    final CompletesId first = Completes.completesId();
+    final CompletesId second = Completes.completesId();
+
+    assertEquals(Long.parseLong(first.value()) + 1, Long.parseLong(second.value()));
+    assertEquals("CompletesId [id=" + second.value() + "]", second.toString());
+  }
+
+  @Test
+  public void testThatNumericAndTextualIdsAreEqual() {
+    final CompletesId generated = Completes.completesId();
+    final CompletesId given = Completes.completesId(generated.value());
+
+    assertEquals(generated, given);
+    assertEquals(given, generated);
+    assertEquals(generated.hashCode(), given.hashCode());
+
+    assertEquals(Completes.completesId("abc"), Completes.completesId("abc"));
+    assertEquals(Completes.completesId("007"), Completes.completesId("007"));
+    assertNotEquals(Completes.completesId("007"), Completes.completesId("7"));
+    assertFalse(Completes.completesId("abc").equals(generated));
+  }
+
+  @Test
+  public void testThatThreadLocalBlockIdsAreUnique() throws Exception {
+    CompletesId.useAllocation(Allocation.ThreadLocalBlocks);
+
+    final int threads = 4;
+    final int idsPerThread = CompletesId.BlockSize * 3 + 7;
+    final Set<CompletesId> ids = ConcurrentHashMap.newKeySet();
+    final CountDownLatch done = new CountDownLatch(threads);
+
+    for (int thread = 0; thread < threads; ++thread) {
+      new Thread(() -> {
+        for (int count = 0; count < idsPerThread; ++count) {
+          ids.add(Completes.completesId());
+        }
+        done.countDown();
+      }).start();
+    }
+
+    done.await();
+
+    assertEquals(threads * idsPerThread, ids.size());
+  }
+
+  @Test
+  public void testThatThreadLocalBlockIdsAreOrderedWithinThread() {
+    CompletesId.useAllocation(Allocation.ThreadLocalBlocks);
+
+    long previous = Long.parseLong(Completes.completesId().value());
+
+    for (int count = 0; count < CompletesId.BlockSize * 2; ++count) {
+      final long current = Long.parseLong(Completes.completesId().value());
+      assertTrue(current > previous);
+      previous = current;
+    }
+  }
+}
@@ -11,7 +11,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.After;
 import org.junit.Before;
@@ -44,7 +47,225 @@ public class SchedulerTest {
     assertFalse(1 == holder.counter);
     assertTrue(holder.counter > 500);
   }
-  
+
+  @Test
+  public void testTimingWheelScheduleOnceOneHappyDelivery() throws Exception {
+    final Scheduler wheelScheduler = new Scheduler(Scheduler.Config.timingWheel(1L, 512));
+    final CounterHolder holder = new CounterHolder(1);
+
+    wheelScheduler.scheduleOnce(scheduled, holder, 0L, 1L);
+
+    holder.completes();
+
+    assertEquals(1, holder.counter);
+
+    wheelScheduler.close();
+  }
+
+  @Test
+  public void testTimingWheelScheduleManyHappyDelivery() throws Exception {
+    final Scheduler wheelScheduler = new Scheduler(Scheduler.Config.timingWheel(1L, 512));
+    final CounterHolder holder = new CounterHolder(505);
+
+    wheelScheduler.schedule(scheduled, holder, 0L, 1L);
+
+    holder.completes();
+
+    assertTrue(holder.counter >= 505);
+
+    wheelScheduler.close();
+  }
+
+  @Test
+  public void testTimingWheelDeliversAcrossRounds() throws Exception {
+    final Scheduler wheelScheduler = new Scheduler(Scheduler.Config.timingWheel(1L, 4));
+    final CounterHolder holder = new CounterHolder(3);
+
+    final long start = System.currentTimeMillis();
+
+    wheelScheduler.scheduleOnce(scheduled, holder, 0L, 10L);
+    wheelScheduler.scheduleOnce(scheduled, holder, 5L, 10L);
+    wheelScheduler.scheduleOnce(scheduled, holder, 0L, 30L);
+
+    holder.completes();
+
+    assertEquals(3, holder.counter);
+    assertTrue(System.currentTimeMillis() - start >= 30L);
+
+    wheelScheduler.close();
+  }
+
+  @Test
+  public void testTimingWheelCancel() throws Exception {
+    final Scheduler wheelScheduler = new Scheduler(Scheduler.Config.timingWheel(1L, 512));
+    final CounterHolder cancelledHolder = new CounterHolder(1);
+    final CounterHolder holder = new CounterHolder(1);
+
+    final Cancellable cancellable = wheelScheduler.scheduleOnce(scheduled, cancelledHolder, 0L, 10L);
+    wheelScheduler.scheduleOnce(scheduled, holder, 0L, 20L);
+
+    assertTrue(cancellable.cancel());
+    assertFalse(cancellable.cancel());
+
+    holder.completes();
+
+    assertEquals(1, holder.counter);
+    assertEquals(0, cancelledHolder.counter);
+
+    wheelScheduler.close();
+  }
+
+  @Test
+  public void testTimingWheelEndsFailedRepeatingSignal() throws Exception {
+    final Scheduler wheelScheduler = new Scheduler(Scheduler.Config.timingWheel(1L, 512));
+    final AtomicInteger failures = new AtomicInteger(0);
+    final CounterHolder holder = new CounterHolder(1);
+
+    final Cancellable failing = wheelScheduler.schedule((Scheduled<Object> s, Object data) -> {
+      failures.incrementAndGet();
+      throw new IllegalStateException("failed");
+    }, null, 0L, 1L);
+
+    wheelScheduler.scheduleOnce(scheduled, holder, 0L, 20L);
+
+    holder.completes();
+    Thread.sleep(20);
+
+    assertEquals(1, holder.counter);
+    assertEquals(1, failures.get());
+    assertFalse(failing.cancel());
+
+    wheelScheduler.close();
+  }
+
+  @Test
+  public void testLanesScheduleManyHappyDelivery() throws Exception {
+    final Scheduler lanedScheduler = new Scheduler(Scheduler.Config.lanes(4));
+    final CounterHolder holder = new CounterHolder(505);
+
+    lanedScheduler.schedule(scheduled, holder, 0L, 1L);
+
+    holder.completes();
+
+    assertTrue(holder.counter >= 505);
+    assertEquals(4, lanedScheduler.backlog().length);
+
+    lanedScheduler.close();
+  }
+
+  @Test
+  public void testLanesPinScheduledToOneThread() throws Exception {
+    final Scheduler lanedScheduler = new Scheduler(Scheduler.Config.lanes(4));
+    final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    final CounterHolder holder = new CounterHolder(100);
+
+    final Scheduled<CounterHolder> pinned = (scheduled, data) -> {
+      threads.add(Thread.currentThread());
+      data.increment();
+    };
+
+    lanedScheduler.schedule(pinned, holder, 0L, 1L);
+
+    holder.completes();
+
+    assertEquals(1, threads.size());
+
+    lanedScheduler.close();
+  }
+
+  @Test
+  public void testLanesIsolateSlowScheduled() throws Exception {
+    final Scheduler lanedScheduler = new Scheduler(Scheduler.Config.lanes(2));
+    final CountDownLatch release = new CountDownLatch(1);
+
+    final Scheduled<CounterHolder> slow = (scheduled, data) -> {
+      try { release.await(); } catch (InterruptedException e) { }
+    };
+
+    Scheduled<CounterHolder> fast = null;
+    final int slowLane = LanedSchedulerTimer.laneIndexOf(slow, 2);
+    while (fast == null) {
+      final Scheduled<CounterHolder> candidate = new Scheduled<CounterHolder>() {
+        @Override
+        public void intervalSignal(final Scheduled<CounterHolder> scheduled, final CounterHolder data) {
+          data.increment();
+        }
+      };
+      if (LanedSchedulerTimer.laneIndexOf(candidate, 2) != slowLane) {
+        fast = candidate;
+      }
+    }
+
+    final CounterHolder holder = new CounterHolder(1);
+
+    lanedScheduler.scheduleOnce(slow, null, 0L, 1L);
+    lanedScheduler.scheduleOnce(fast, holder, 0L, 10L);
+
+    holder.completes();
+
+    assertEquals(1, holder.counter);
+
+    release.countDown();
+    lanedScheduler.close();
+  }
+
+  @Test
+  public void testDeadlineBucketsCoalesceEqualDeadlines() throws Exception {
+    final Scheduler bucketScheduler = new Scheduler(Scheduler.Config.singleThreaded().withDeadlineBuckets(10L));
+    final CounterHolder holder = new CounterHolder(1000);
+    final AtomicInteger counter = new AtomicInteger();
+    final Scheduled<CounterHolder> counting = (scheduled, data) -> { counter.incrementAndGet(); data.until.countDown(); };
+
+    for (int idx = 0; idx < 1000; ++idx) {
+      bucketScheduler.scheduleOnce(counting, holder, 0L, 50L);
+    }
+
+    assertTrue(bucketScheduler.backlog()[0] < 1000);
+
+    holder.completes();
+
+    assertEquals(1000, counter.get());
+
+    bucketScheduler.close();
+  }
+
+  @Test
+  public void testDeadlineBucketsNeverSignalEarly() throws Exception {
+    final Scheduler bucketScheduler = new Scheduler(Scheduler.Config.timingWheel(1L, 64).withDeadlineBuckets(10L));
+    final CounterHolder holder = new CounterHolder(1);
+
+    final long start = System.nanoTime();
+
+    bucketScheduler.scheduleOnce(scheduled, holder, 0L, 25L);
+
+    holder.completes();
+
+    assertEquals(1, holder.counter);
+    assertTrue(System.nanoTime() - start >= 25_000_000L);
+
+    bucketScheduler.close();
+  }
+
+  @Test
+  public void testDeadlineBucketsCancel() throws Exception {
+    final Scheduler bucketScheduler = new Scheduler(Scheduler.Config.singleThreaded().withDeadlineBuckets(5L));
+    final CounterHolder cancelledHolder = new CounterHolder(1);
+    final CounterHolder holder = new CounterHolder(1);
+
+    final Cancellable cancellable = bucketScheduler.scheduleOnce(scheduled, cancelledHolder, 0L, 20L);
+    bucketScheduler.scheduleOnce(scheduled, holder, 0L, 20L);
+
+    assertTrue(cancellable.cancel());
+    assertFalse(cancellable.cancel());
+
+    holder.completes();
+
+    assertEquals(1, holder.counter);
+    assertEquals(0, cancelledHolder.counter);
+
+    bucketScheduler.close();
+  }
+
   @Before
   public void setUp() {
     scheduled = new Scheduled<CounterHolder>() {
@@ -0,0 +1,199 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import io.vlingo.xoom.common.Completes;
+import io.vlingo.xoom.common.Scheduler;
+
+@RunWith(Parameterized.class)
+public class AwaitStrategyTest {
+  @Parameterized.Parameters(name = "{0}")
+  public static Collection<Object[]> factories() {
+    return Arrays.asList(new Object[][] {
+      { "basic", CompletesFactory.basic() },
+      { "future", CompletesFactory.future() }
+    });
+  }
+
+  private final CompletesFactory factory;
+
+  public AwaitStrategyTest(final String name, final CompletesFactory factory) {
+    this.factory = factory;
+  }
+
+  @After
+  public void tearDown() {
+    AwaitStrategy.useDefault(AwaitStrategy.park());
+  }
+
+  @Test
+  public void testThatParkAwaitsOutcomeFromOtherThread() {
+    final Completes<Integer> completes = factory.using(Completes.completesId(), null);
+
+    completeLater(completes, 10, 5);
+
+    assertEquals(Integer.valueOf(10), completes.await(AwaitStrategy.park()));
+  }
+
+  @Test
+  public void testThatSpinYieldParkAwaitsOutcomeFromOtherThread() {
+    final Completes<Integer> completes = factory.using(Completes.completesId(), null);
+
+    completeLater(completes, 20, 5);
+
+    assertEquals(Integer.valueOf(20), completes.await(AwaitStrategy.spinYieldPark()));
+  }
+
+  @Test
+  public void testThatSpinYieldParkAwaitsPipelineOutcome() {
+    final Completes<Integer> completes = factory.using(Completes.completesId(), null);
+
+    final Completes<Integer> pipeline = completes.andThen(value -> value * 2);
+
+    completeLater(completes, 15, 0);
+
+    assertEquals(Integer.valueOf(30), pipeline.await(1_000, AwaitStrategy.spinYieldPark(10, 10)));
+  }
+
+  @Test
+  public void testThatDefaultStrategyIsUsed() {
+    final Counting counting = new Counting();
+
+    AwaitStrategy.useDefault(counting);
+
+    assertSame(counting, AwaitStrategy.defaultStrategy());
+
+    final Completes<Integer> completes = factory.using(Completes.completesId(), null);
+
+    completeLater(completes, 1, 5);
+
+    assertEquals(Integer.valueOf(1), completes.await());
+    assertEquals(1, counting.count);
+  }
+
+  @Test
+  public void testThatTimedAwaitAnswersNullWhenNotCompleted() {
+    for (final AwaitStrategy strategy : Arrays.asList(AwaitStrategy.park(), AwaitStrategy.spinYieldPark(), AwaitStrategy.spinYieldPark(0, 0))) {
+      final Completes<Integer> completes = factory.using(Completes.completesId(), null);
+
+      final long start = System.nanoTime();
+
+      assertNull(completes.await(20, strategy));
+      assertTrue(System.nanoTime() - start >= 19_000_000L);
+      assertFalse(completes.isCompleted());
+    }
+  }
+
+  @Test
+  public void testThatTimedOutFailureIsAwaited() {
+    final Scheduler scheduler = new Scheduler();
+    final Completes<Integer> completes = factory.using(Completes.completesId(), scheduler);
+
+    final Completes<Integer> pipeline = completes.andThen(10, -1, value -> value);
+
+    assertEquals(Integer.valueOf(-1), pipeline.await(1_000, AwaitStrategy.spinYieldPark()));
+    assertTrue(pipeline.hasFailed());
+
+    scheduler.close();
+  }
+
+  @Test
+  public void testThatTimedOutFailureWakesAwait() {
+    final Scheduler scheduler = new Scheduler();
+    final Completes<Integer> completes = factory.using(Completes.completesId(), scheduler);
+
+    final Completes<Integer> pipeline = completes.andThen(10, -1, value -> value);
+
+    final long start = System.nanoTime();
+    assertEquals(Integer.valueOf(-1), pipeline.await(5_000, AwaitStrategy.park()));
+    assertTrue(System.nanoTime() - start < 2_000_000_000L);
+
+    scheduler.close();
+  }
+
+  @Test
+  public void testThatRepeatedTimedAwaitsDoNotAccumulate() {
+    final Completes<Integer> completes = factory.using(Completes.completesId(), null);
+
+    assertNull(completes.await(1, AwaitStrategy.park()));
+    final int dependents = dependentsOf(completes);
+
+    for (int count = 0; count < 100; ++count) {
+      assertNull(completes.await(1, AwaitStrategy.park()));
+    }
+
+    if (completes instanceof FutureCompletes) {
+      assertEquals(dependents, dependentsOf(completes));
+    } else {
+      assertEquals(0, ((BasicCompletes<Integer>) completes).waiterCount());
+    }
+
+    completes.with(1);
+    assertEquals(Integer.valueOf(1), completes.await(AwaitStrategy.park()));
+  }
+
+  @Test
+  public void testThatInterruptedAwaitAnswersNull() throws Exception {
+    final Completes<Integer> completes = factory.using(Completes.completesId(), null);
+    final AtomicReference<Object> outcome = new AtomicReference<>("unset");
+
+    final Thread waiter = new Thread(() -> outcome.set(completes.await(AwaitStrategy.park())));
+    waiter.start();
+    Thread.sleep(20);
+    waiter.interrupt();
+    waiter.join(1_000);
+
+    assertFalse(waiter.isAlive());
+    assertNull(outcome.get());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatNegativeSpinsAreRejected() {
+    AwaitStrategy.spinYieldPark(-1, 0);
+  }
+
+  private int dependentsOf(final Completes<Integer> completes) {
+    return completes instanceof FutureCompletes ? ((FutureCompletes<Integer>) completes).asCompletableFuture().getNumberOfDependents() : 0;
+  }
+
+  private void completeLater(final Completes<Integer> completes, final int outcome, final long delay) {
+    new Thread(() -> {
+      try {
+        Thread.sleep(delay);
+      } catch (InterruptedException e) {
+        // ignore
+      }
+      completes.with(outcome);
+    }).start();
+  }
+
+  private static class Counting implements AwaitStrategy {
+    int count;
+
+    @Override
+    public boolean await(final Awaitable awaitable, final long timeout) {
+      ++count;
+      return awaitable.isReady() || awaitable.block(timeout);
+    }
+  }
+}
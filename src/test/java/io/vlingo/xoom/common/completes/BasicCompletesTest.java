@@ -0,0 +1,83 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.vlingo.xoom.common.Completes;
+import io.vlingo.xoom.common.Scheduler;
+
+public class BasicCompletesTest extends FutureCompletesTest {
+  @BeforeClass
+  public static void useBasicCompletes() {
+    CompletesFactory.useDefault(CompletesFactory.basic());
+  }
+
+  @AfterClass
+  public static void useFutureCompletes() {
+    CompletesFactory.useDefault(CompletesFactory.future());
+  }
+
+  @Test
+  public void testThatDefaultFactoryCreatesBasicCompletes() {
+    Assert.assertTrue(Completes.asTyped() instanceof BasicCompletes);
+    Assert.assertTrue(Completes.withSuccess(1) instanceof BasicCompletes);
+  }
+
+  @Test
+  public void testThatBasicComposesFutureCompletes() {
+    final Completes<Integer> completes = new BasicCompletes<Integer>((Scheduler) null);
+
+    final Completes<Integer> composed =
+            completes.andThenTo(value -> (Completes<Integer>) new FutureCompletes<>(value * 2))
+                     .andThen(value -> value + 1);
+
+    completes.with(5);
+
+    Assert.assertEquals(11, composed.<Integer>await().intValue());
+  }
+
+  @Test
+  public void testThatFutureComposesBasicCompletes() {
+    final Completes<Integer> completes = new FutureCompletes<Integer>((Scheduler) null);
+
+    final Completes<Integer> composed =
+            completes.andThenTo(value -> (Completes<Integer>) new BasicCompletes<>(value * 2))
+                     .andThen(value -> value + 1);
+
+    completes.with(5);
+
+    Assert.assertEquals(11, composed.<Integer>await().intValue());
+  }
+
+  @Test
+  public void testThatTimedOutAwaitsAreUnlinked() throws Exception {
+    final BasicCompletes<Integer> completes = new BasicCompletes<Integer>((Scheduler) null);
+
+    for (int count = 0; count < 100; ++count) {
+      Assert.assertNull(completes.await(1, AwaitStrategy.park()));
+    }
+    Assert.assertEquals(0, completes.waiterCount());
+
+    final Thread awaiting = new Thread(() -> completes.await(AwaitStrategy.park()));
+    awaiting.start();
+    while (completes.waiterCount() == 0) {
+      Thread.sleep(1);
+    }
+    Assert.assertNull(completes.await(1, AwaitStrategy.park()));
+    Assert.assertEquals(1, completes.waiterCount());
+
+    completes.with(1);
+    awaiting.join(5000);
+    Assert.assertFalse(awaiting.isAlive());
+    Assert.assertEquals(0, completes.waiterCount());
+  }
+}
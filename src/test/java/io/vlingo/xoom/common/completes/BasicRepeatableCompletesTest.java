@@ -0,0 +1,23 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+
+public class BasicRepeatableCompletesTest extends RepeatableCompletesTest {
+  @BeforeClass
+  public static void useBasicCompletes() {
+    CompletesFactory.useDefault(CompletesFactory.basic());
+  }
+
+  @AfterClass
+  public static void useFutureCompletes() {
+    CompletesFactory.useDefault(CompletesFactory.future());
+  }
+}
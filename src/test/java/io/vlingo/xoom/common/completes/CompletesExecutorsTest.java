@@ -0,0 +1,143 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import io.vlingo.xoom.common.Completes;
+
+@RunWith(Parameterized.class)
+public class CompletesExecutorsTest {
+  @Parameterized.Parameters(name = "{0}")
+  public static Collection<Object[]> factories() {
+    return Arrays.asList(new Object[][] {
+      { "basic", CompletesFactory.basic() },
+      { "future", CompletesFactory.future() }
+    });
+  }
+
+  private final CompletesFactory factory;
+  private ExecutorService executor;
+
+  public CompletesExecutorsTest(final String name, final CompletesFactory factory) {
+    this.factory = factory;
+  }
+
+  @Before
+  public void setUp() {
+    executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "bound-executor"));
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    CompletesExecutors.useDefault(CompletesExecutors.commonPool());
+  }
+
+  @Test
+  public void testThatAsyncStagesRunOnBoundExecutor() {
+    final AtomicReference<String> first = new AtomicReference<>();
+    final AtomicReference<String> second = new AtomicReference<>();
+
+    final Completes<Integer> completes = factory.<Integer>using(Completes.completesId(), null).usingExecutor(executor);
+
+    final Completes<Integer> pipeline =
+            completes
+              .andThen(value -> value + 1)
+              .andThenTo(value -> { first.set(Thread.currentThread().getName()); return Completes.withSuccess(value * 2); })
+              .andThenTo(value -> { second.set(Thread.currentThread().getName()); return Completes.withSuccess(value + 10); });
+
+    completes.with(1);
+
+    assertEquals(Integer.valueOf(14), pipeline.await(2_000));
+    assertEquals("bound-executor", first.get());
+    assertEquals("bound-executor", second.get());
+  }
+
+  @Test
+  public void testThatDirectRunsOnCompletingThread() {
+    final AtomicReference<Thread> runOn = new AtomicReference<>();
+
+    final Completes<Integer> completes = factory.<Integer>using(Completes.completesId(), null).usingExecutor(CompletesExecutors.direct());
+
+    final Completes<Integer> pipeline =
+            completes.andThenTo(value -> { runOn.set(Thread.currentThread()); return Completes.withSuccess(value); });
+
+    completes.with(5);
+
+    assertSame(Thread.currentThread(), runOn.get());
+    assertTrue(pipeline.isCompleted());
+    assertEquals(Integer.valueOf(5), pipeline.outcome());
+  }
+
+  @Test
+  public void testThatDefaultExecutorIsUsedWhenNotBound() {
+    final AtomicInteger executions = new AtomicInteger();
+
+    CompletesExecutors.useDefault(command -> { executions.incrementAndGet(); command.run(); });
+
+    final Completes<Integer> completes = factory.using(Completes.completesId(), null);
+
+    final Completes<Integer> pipeline = completes.andThenTo(value -> Completes.withSuccess(value * 3));
+
+    completes.with(2);
+
+    assertEquals(Integer.valueOf(6), pipeline.await(2_000));
+    assertEquals(1, executions.get());
+  }
+
+  @Test
+  public void testThatVirtualThreadPerTaskIsDetected() {
+    final Executor fallback = CompletesExecutors.direct();
+
+    if (CompletesExecutors.isVirtualThreadSupported()) {
+      final AtomicReference<Thread> runOn = new AtomicReference<>();
+
+      final Completes<Integer> completes = factory.<Integer>using(Completes.completesId(), null).usingExecutor(CompletesExecutors.virtualThreadPerTask());
+
+      final Completes<Integer> pipeline =
+              completes.andThenTo(value -> { runOn.set(Thread.currentThread()); return Completes.withSuccess(value); });
+
+      completes.with(7);
+
+      assertEquals(Integer.valueOf(7), pipeline.await(2_000));
+      assertTrue(runOn.get().toString().startsWith("VirtualThread"));
+      assertSame(CompletesExecutors.virtualThreadPerTask(), CompletesExecutors.virtualThreadPerTaskOr(fallback));
+    } else {
+      assertSame(fallback, CompletesExecutors.virtualThreadPerTaskOr(fallback));
+      try {
+        CompletesExecutors.virtualThreadPerTask();
+        fail("Should not support virtual threads.");
+      } catch (UnsupportedOperationException e) {
+        // expected
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatNullExecutorIsRejected() {
+    factory.using(Completes.completesId(), null).usingExecutor(null);
+  }
+}
@@ -0,0 +1,357 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import io.vlingo.xoom.common.Completes;
+import io.vlingo.xoom.common.Scheduler;
+
+@RunWith(Parameterized.class)
+public class CompletesFanInTest {
+  @Parameterized.Parameters(name = "{0}")
+  public static Collection<Object[]> factories() {
+    return Arrays.asList(new Object[][] {
+      { "basic", CompletesFactory.basic() },
+      { "future", CompletesFactory.future() }
+    });
+  }
+
+  private final CompletesFactory factory;
+  private Scheduler scheduler;
+
+  public CompletesFanInTest(final String name, final CompletesFactory factory) {
+    this.factory = factory;
+  }
+
+  @Before
+  public void setUp() {
+    CompletesFactory.useDefault(factory);
+    scheduler = new Scheduler();
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.close();
+    CompletesFactory.useDefault(CompletesFactory.future());
+  }
+
+  @Test
+  public void testThatAllCompletesInOrder() {
+    final List<Completes<Integer>> elements = uncompleted(3);
+
+    final Completes<List<Integer>> all = Completes.all(elements);
+
+    elements.get(2).with(3);
+    elements.get(0).with(1);
+
+    assertFalse(all.isCompleted());
+
+    elements.get(1).with(2);
+
+    assertEquals(Arrays.asList(1, 2, 3), all.await(1_000));
+    assertFalse(all.hasFailed());
+  }
+
+  @Test
+  public void testThatAllFailsWhenOneFails() {
+    final List<Completes<Integer>> elements = uncompleted(3);
+
+    final Completes<List<Integer>> all = Completes.all(elements);
+
+    elements.get(0).with(1);
+    elements.get(1).failed();
+
+    assertTrue(all.isCompleted());
+    assertTrue(all.hasFailed());
+
+    elements.get(2).with(3);
+
+    assertTrue(all.hasFailed());
+    assertNull(all.outcome());
+  }
+
+  @Test
+  public void testThatAllFailsWithNullListForFailureValue() {
+    final List<Completes<Integer>> elements = uncompleted(2);
+    elements.get(1).useFailedOutcomeOf(-1);
+
+    final Completes<List<Integer>> all = Completes.all(elements);
+
+    elements.get(1).failed();
+
+    assertTrue(all.hasFailed());
+    final List<Integer> outcome = all.outcome();
+    assertNull(outcome);
+  }
+
+  @Test
+  public void testThatAllFailsWhenOneTimesOut() {
+    final List<Completes<Integer>> elements = uncompleted(2);
+    elements.get(1).useFailedOutcomeOf(-1).timeoutWithin(10);
+
+    final Completes<List<Integer>> all = Completes.all(elements);
+
+    elements.get(0).with(1);
+
+    final List<Integer> outcome = all.await(1_000);
+    assertNull(outcome);
+    assertTrue(all.isCompleted());
+    assertTrue(all.hasFailed());
+  }
+
+  @Test
+  public void testThatAllObservesOtherImplementations() {
+    final List<Completes<Integer>> elements = new ArrayList<>();
+    for (final Completes<Integer> element : uncompleted(2)) {
+      elements.add(delegating(element));
+    }
+
+    final Completes<List<Integer>> all = Completes.all(elements);
+
+    elements.get(1).with(2);
+    elements.get(0).with(1);
+
+    assertEquals(Arrays.asList(1, 2), all.await(1_000));
+  }
+
+  @Test
+  public void testThatAnyFailsForOtherImplementation() {
+    final Completes<Integer> element = delegating(Completes.<Integer>using(scheduler).useFailedOutcomeOf(-1));
+
+    final Completes<Integer> any = Completes.any(Collections.singletonList(element));
+
+    element.failed();
+
+    assertEquals(Integer.valueOf(-1), any.await(1_000));
+    assertTrue(any.hasFailed());
+  }
+
+  @Test
+  public void testThatNotifiedObserversAreNotHeld() {
+    final List<Completes<Integer>> elements = uncompleted(2);
+    elements.get(1).useFailedOutcomeOf(-1).timeoutWithin(10);
+
+    final Completes<List<Integer>> all = Completes.all(elements);
+
+    elements.get(0).with(1);
+    all.await(1_000);
+
+    for (final Completes<Integer> element : elements) {
+      if (element instanceof FutureCompletes) {
+        assertEquals(0, ((FutureCompletes<Integer>) element).observerCount());
+      }
+    }
+  }
+
+  @Test
+  public void testThatAllFailsWhenOneTimedOutBefore() throws Exception {
+    final List<Completes<Integer>> elements = uncompleted(2);
+    elements.get(0).useFailedOutcomeOf(-1).timeoutWithin(1);
+    Thread.sleep(50);
+
+    final Completes<List<Integer>> all = Completes.all(elements);
+
+    assertTrue(all.isCompleted());
+    assertTrue(all.hasFailed());
+  }
+
+  @Test
+  public void testThatAllOfNoneCompletesEmpty() {
+    final Completes<List<Integer>> all = Completes.all(Collections.<Completes<Integer>>emptyList());
+
+    assertTrue(all.isCompleted());
+    assertEquals(Collections.emptyList(), all.outcome());
+  }
+
+  @Test
+  public void testThatAllOfCompletedCompletes() {
+    final Completes<List<Integer>> all = Completes.all(Arrays.asList(Completes.withSuccess(1), Completes.withSuccess(2)));
+
+    assertEquals(Arrays.asList(1, 2), all.await(1_000));
+  }
+
+  @Test
+  public void testThatAllTimesOut() {
+    final List<Completes<Integer>> elements = uncompleted(2);
+
+    final Completes<List<Integer>> all = Completes.all(elements, scheduler, 10);
+
+    elements.get(0).with(1);
+
+    assertNull(all.await(1_000));
+    assertTrue(all.hasFailed());
+  }
+
+  @Test
+  public void testThatAllGathersManyConcurrently() throws Exception {
+    final int count = 500;
+    final List<Completes<Integer>> elements = uncompleted(count);
+
+    final Completes<List<Integer>> all = Completes.all(elements);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    for (int index = 0; index < count; ++index) {
+      final int value = index;
+      executor.execute(() -> elements.get(value).with(value));
+    }
+
+    final List<Integer> outcome = all.await(2_000);
+
+    executor.shutdown();
+
+    assertEquals(count, outcome.size());
+    for (int index = 0; index < count; ++index) {
+      assertEquals(Integer.valueOf(index), outcome.get(index));
+    }
+  }
+
+  @Test
+  public void testThatAnyCompletesWithFirst() {
+    final List<Completes<Integer>> elements = uncompleted(3);
+
+    final Completes<Integer> any = Completes.any(elements);
+
+    elements.get(1).with(2);
+    elements.get(0).with(1);
+
+    assertEquals(Integer.valueOf(2), any.await(1_000));
+    assertFalse(any.hasFailed());
+  }
+
+  @Test
+  public void testThatAnyFailsWithFirstFailed() {
+    final List<Completes<Integer>> elements = uncompleted(2);
+    elements.get(0).useFailedOutcomeOf(-1);
+
+    final Completes<Integer> any = Completes.any(elements);
+
+    elements.get(0).with(-1);
+    elements.get(1).with(2);
+
+    assertEquals(Integer.valueOf(-1), any.await(1_000));
+    assertTrue(any.hasFailed());
+  }
+
+  @Test
+  public void testThatAnyTimesOut() {
+    final Completes<Integer> any = Completes.any(uncompleted(2), scheduler, 10);
+
+    assertNull(any.await(1_000));
+    assertTrue(any.hasFailed());
+  }
+
+  @Test
+  public void testThatAnyFailsWhenFirstTimesOut() {
+    final List<Completes<Integer>> elements = uncompleted(2);
+    elements.get(0).useFailedOutcomeOf(-1).timeoutWithin(10);
+
+    final Completes<Integer> any = Completes.any(elements);
+
+    assertEquals(Integer.valueOf(-1), any.await(1_000));
+    assertTrue(any.hasFailed());
+
+    elements.get(1).with(2);
+
+    assertEquals(Integer.valueOf(-1), any.outcome());
+  }
+
+  @Test
+  public void testThatFirstSuccessfulSkipsFailures() {
+    final List<Completes<Integer>> elements = uncompleted(3);
+    elements.get(0).useFailedOutcomeOf(-1);
+
+    final Completes<Integer> first = Completes.firstSuccessful(elements);
+
+    elements.get(0).with(-1);
+
+    assertFalse(first.isCompleted());
+
+    elements.get(2).with(3);
+    elements.get(1).with(2);
+
+    assertEquals(Integer.valueOf(3), first.await(1_000));
+    assertFalse(first.hasFailed());
+  }
+
+  @Test
+  public void testThatFirstSuccessfulFailsWhenAllFail() {
+    final List<Completes<Integer>> elements = uncompleted(2);
+    elements.get(0).useFailedOutcomeOf(-1);
+    elements.get(1).useFailedOutcomeOf(-2);
+
+    final Completes<Integer> first = Completes.firstSuccessful(elements);
+
+    elements.get(0).with(-1);
+    elements.get(1).with(-2);
+
+    assertEquals(Integer.valueOf(-2), first.await(1_000));
+    assertTrue(first.hasFailed());
+  }
+
+  @Test
+  public void testThatFirstSuccessfulFailsWhenAllTimeOut() {
+    final List<Completes<Integer>> elements = uncompleted(2);
+    elements.get(0).useFailedOutcomeOf(-1).timeoutWithin(10);
+    elements.get(1).useFailedOutcomeOf(-2).timeoutWithin(20);
+
+    final Completes<Integer> first = Completes.firstSuccessful(elements);
+
+    assertEquals(Integer.valueOf(-2), first.await(1_000));
+    assertTrue(first.hasFailed());
+  }
+
+  @Test
+  public void testThatFirstSuccessfulOfNoneFails() {
+    final Completes<Integer> first = Completes.firstSuccessful(Collections.<Completes<Integer>>emptyList());
+
+    assertTrue(first.isCompleted());
+    assertTrue(first.hasFailed());
+  }
+
+  // a Completes of an implementation other than those of CompletesFactory
+  @SuppressWarnings("unchecked")
+  private static Completes<Integer> delegating(final Completes<Integer> completes) {
+    final InvocationHandler handler = (proxy, method, arguments) -> {
+      try {
+        return method.invoke(completes, arguments);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    };
+    return (Completes<Integer>) Proxy.newProxyInstance(Completes.class.getClassLoader(), new Class<?>[] { Completes.class }, handler);
+  }
+
+  private List<Completes<Integer>> uncompleted(final int count) {
+    final List<Completes<Integer>> elements = new ArrayList<>(count);
+    for (int index = 0; index < count; ++index) {
+      elements.add(Completes.using(scheduler));
+    }
+    return elements;
+  }
+}
@@ -0,0 +1,166 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import io.vlingo.xoom.common.Completes;
+import io.vlingo.xoom.common.Scheduler;
+import io.vlingo.xoom.common.completes.CompletesInstrumentation.Stage;
+import io.vlingo.xoom.common.serialization.JsonSerialization;
+
+@RunWith(Parameterized.class)
+public class CompletesInstrumentationTest {
+  @Parameterized.Parameters(name = "{0}")
+  public static Collection<Object[]> factories() {
+    return Arrays.asList(new Object[][] {
+      { "basic", CompletesFactory.basic() },
+      { "future", CompletesFactory.future() }
+    });
+  }
+
+  private final CompletesFactory factory;
+  private CompletesMetrics metrics;
+  private Scheduler scheduler;
+
+  public CompletesInstrumentationTest(final String name, final CompletesFactory factory) {
+    this.factory = factory;
+  }
+
+  @Before
+  public void setUp() {
+    Assume.assumeTrue(CompletesInstrumentation.Enabled);
+    metrics = new CompletesMetrics();
+    CompletesInstrumentation.install(metrics);
+    scheduler = new Scheduler();
+  }
+
+  @After
+  public void tearDown() {
+    CompletesInstrumentation.install(CompletesMetrics.shared());
+    if (scheduler != null) {
+      scheduler.close();
+    }
+  }
+
+  @Test
+  public void testThatCompletionsAndLatenciesAreRecorded() throws Exception {
+    final Completes<Integer> completes = factory.using(Completes.completesId(), null);
+
+    final Completes<Integer> pipeline =
+            completes
+              .andThen(value -> value + 1)
+              .andThen(value -> value * 2);
+
+    Thread.sleep(5);
+
+    completes.with(1);
+
+    assertEquals(Integer.valueOf(4), pipeline.await());
+
+    until(() -> metrics.snapshot().of(Stage.AndThen).completions == 2);
+
+    final CompletesMetrics.Snapshot snapshot = metrics.snapshot();
+
+    assertEquals(1, snapshot.of(Stage.Root).completions);
+    assertEquals(0, snapshot.of(Stage.Root).failures);
+    assertTrue(snapshot.of(Stage.Root).max >= 5_000_000L);
+    assertTrue(snapshot.of(Stage.AndThen).p50 >= 5_000_000L);
+  }
+
+  @Test
+  public void testThatFailuresAndRecoveriesAreCounted() {
+    final Completes<Integer> completes = factory.using(Completes.completesId(), null);
+
+    final Completes<Integer> pipeline =
+            completes
+              .useFailedOutcomeOf(-1)
+              .andThen(value -> value + 1)
+              .otherwise(failed -> 100);
+
+    completes.with(-1);
+
+    assertEquals(Integer.valueOf(100), pipeline.await());
+
+    until(() -> metrics.snapshot().of(Stage.Otherwise).completions == 1);
+
+    final CompletesMetrics.Snapshot snapshot = metrics.snapshot();
+
+    assertEquals(1, snapshot.of(Stage.Root).failures);
+    assertEquals(1, snapshot.of(Stage.Otherwise).recoveries);
+  }
+
+  @Test
+  public void testThatRecoverFromIsCounted() {
+    final Completes<Integer> completes = factory.using(Completes.completesId(), null);
+
+    final Completes<Integer> pipeline =
+            completes
+              .andThen(value -> { if (value > 0) throw new IllegalStateException("" + value); return value; })
+              .recoverFrom(e -> 7);
+
+    completes.with(1);
+
+    assertEquals(Integer.valueOf(7), pipeline.await());
+    assertEquals(1, metrics.snapshot().of(Stage.RecoverFrom).recoveries);
+  }
+
+  @Test
+  public void testThatTimeoutsAreCounted() {
+    final Completes<Integer> completes = factory.using(Completes.completesId(), scheduler);
+
+    final Completes<Integer> pipeline = completes.andThen(10, -1, value -> value);
+
+    until(() -> metrics.snapshot().of(Stage.AndThen).timeouts == 1);
+
+    assertTrue(pipeline.hasFailed());
+  }
+
+  @Test
+  public void testThatRepeatsAreCounted() {
+    final Completes<Integer> completes = factory.using(Completes.completesId(), null);
+
+    completes.andThen(value -> value + 1).repeat();
+
+    completes.with(1);
+    completes.with(2);
+    completes.with(3);
+
+    assertEquals(2, metrics.snapshot().repeats);
+  }
+
+  @Test
+  public void testThatSnapshotIsExportable() {
+    factory.using(Completes.completesId(), null).with(1);
+
+    final String json = JsonSerialization.serialized(metrics.snapshot());
+
+    assertTrue(json.contains("\"Root\":{\"completions\":1"));
+    assertTrue(json.contains("\"repeats\":0"));
+  }
+
+  private void until(final BooleanSupplier condition) {
+    final long deadline = System.currentTimeMillis() + 2_000;
+    while (!condition.getAsBoolean()) {
+      assertTrue("Timed out waiting for condition.", System.currentTimeMillis() < deadline);
+      Thread.yield();
+    }
+  }
+}
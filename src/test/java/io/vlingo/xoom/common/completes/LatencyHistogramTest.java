@@ -0,0 +1,58 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.completes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void testThatIndexAndValueAgree() {
+    for (long value : new long[] { 0, 1, 31, 32, 33, 63, 64, 1_000, 123_456_789L, Long.MAX_VALUE }) {
+      final int index = LatencyHistogram.indexOf(value);
+      assertTrue(LatencyHistogram.valueOf(index) >= value);
+      if (index > 0) {
+        assertTrue(LatencyHistogram.valueOf(index - 1) < value);
+      }
+    }
+  }
+
+  @Test
+  public void testThatPercentilesAreWithinPrecision() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+
+    for (long value = 1; value <= 100_000; ++value) {
+      histogram.record(value);
+    }
+
+    final long[] summary = histogram.summary(50.0, 99.0, 100.0);
+
+    assertEquals(100_000, summary[0]);
+    assertWithin(50_000, summary[1]);
+    assertWithin(50_000, summary[2]);
+    assertWithin(99_000, summary[3]);
+    assertWithin(100_000, summary[4]);
+  }
+
+  @Test
+  public void testThatResetClears() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+
+    histogram.record(10);
+    histogram.reset();
+
+    assertEquals(0, histogram.summary(50.0)[0]);
+  }
+
+  private void assertWithin(final long expected, final long actual) {
+    assertTrue("Expected about " + expected + " but was " + actual, Math.abs(actual - expected) <= expected * 0.035);
+  }
+}
@@ -8,11 +8,17 @@
 package io.vlingo.xoom.common.message;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
@@ -94,6 +100,179 @@ public class AsyncMessageQueueTest {
     assertEquals(5, countingDeadLettersListener.handledCount());
   }
 
+  @Test
+  public void testBatchingDeliversAll() {
+    final AsyncMessageQueue batching = new AsyncMessageQueue(null, AsyncMessageQueue.Config.batching(16));
+    batching.registerListener(new ExceptionThrowingListener(false));
+
+    for (int idx = 0; idx < 1000; ++idx) {
+      batching.enqueue(new EmptyMessage());
+    }
+
+    batching.flush();
+
+    assertEquals(1000, deliveredMessages.size());
+    assertEquals(true, batching.isEmpty());
+    batching.close();
+  }
+
+  @Test
+  public void testBatchListenerReceivesBoundedBatches() {
+    final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    final AsyncMessageQueue batching =
+            new AsyncMessageQueue(null, AsyncMessageQueue.Config.batching(16).withBatchListener());
+
+    batching.registerListener(new MessageQueueListener() {
+      @Override
+      public void handleMessage(final Message message) {
+        throw new IllegalStateException("Not delivered as a batch.");
+      }
+
+      @Override
+      public void handleMessages(final List<Message> messages) {
+        batchSizes.add(messages.size());
+        deliveredMessages.addAll(messages);
+      }
+    });
+
+    for (int idx = 0; idx < 1000; ++idx) {
+      batching.enqueue(new EmptyMessage());
+    }
+
+    batching.flush();
+
+    assertEquals(1000, deliveredMessages.size());
+    for (final int size : batchSizes) {
+      assertTrue(size > 0 && size <= 16);
+    }
+    batching.close();
+  }
+
+  @Test
+  public void testBatchingDeadLettersQueue() throws Exception {
+    final int expected = 5;
+
+    final AsyncMessageQueue batching =
+            new AsyncMessageQueue(countingDeadLettersQueue, AsyncMessageQueue.Config.batching(2).withBatchListener());
+    batching.registerListener(new ExceptionThrowingListener(true));
+
+    for (int idx = 0; idx < expected; ++idx) {
+      batching.enqueue(new EmptyMessage());
+    }
+
+    batching.close();
+
+    while (countingDeadLettersQueue.hasNotCompleted(expected) ||
+            countingDeadLettersListener.hasNotCompleted(expected)) {
+      Thread.sleep(5);
+    }
+
+    assertEquals(5, countingDeadLettersQueue.enqueuedCount());
+    assertEquals(5, countingDeadLettersListener.handledCount());
+  }
+
+  @Test
+  public void testBatchingDrainsAfterListenerError() {
+    final AtomicBoolean failed = new AtomicBoolean(false);
+    final AsyncMessageQueue batching = new AsyncMessageQueue(null, AsyncMessageQueue.Config.batching(1));
+    batching.registerListener(message -> {
+      if (failed.compareAndSet(false, true)) {
+        throw new AssertionError("listener error");
+      }
+      deliveredMessages.add(message);
+    });
+
+    for (int idx = 0; idx < 10; ++idx) {
+      batching.enqueue(new EmptyMessage());
+    }
+
+    assertTrue(batching.flush(5000));
+    assertEquals(9, deliveredMessages.size());
+    assertTrue(batching.close(5000));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBatchListenerRequiresBatching() {
+    AsyncMessageQueue.Config.perMessage().withBatchListener();
+  }
+
+  @Test
+  public void testFlushWithDeadline() throws Exception {
+    final CountDownLatch gate = new CountDownLatch(1);
+    final AsyncMessageQueue gated = new AsyncMessageQueue();
+    gated.registerListener(message -> gate.await());
+
+    gated.enqueue(new EmptyMessage());
+    gated.enqueue(new EmptyMessage());
+
+    assertFalse(gated.flush(20));
+    assertFalse(gated.isEmpty());
+
+    gate.countDown();
+
+    assertTrue(gated.flush(5000));
+    assertTrue(gated.isEmpty());
+    gated.close();
+  }
+
+  @Test
+  public void testCloseDoesNotInterruptListener() throws Exception {
+    final CountDownLatch entered = new CountDownLatch(1);
+    final CountDownLatch handled = new CountDownLatch(1);
+    final AtomicBoolean interrupted = new AtomicBoolean(false);
+    final AsyncMessageQueue slow = new AsyncMessageQueue();
+    slow.registerListener(message -> {
+      entered.countDown();
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        interrupted.set(true);
+      }
+      handled.countDown();
+    });
+
+    slow.enqueue(new EmptyMessage());
+    slow.enqueue(new EmptyMessage());
+    assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+    slow.close(false);
+
+    assertTrue(handled.await(5, TimeUnit.SECONDS));
+    assertFalse(interrupted.get());
+    assertTrue(slow.flush(5000));
+  }
+
+  @Test
+  public void testCloseWithDeadlineDiscardsUndispatched() throws Exception {
+    final CountDownLatch gate = new CountDownLatch(1);
+    final AsyncMessageQueue gated = new AsyncMessageQueue(null, AsyncMessageQueue.Config.batching(1));
+    gated.registerListener(message -> {
+      gate.await();
+      deliveredMessages.add(message);
+    });
+
+    for (int idx = 0; idx < 3; ++idx) {
+      gated.enqueue(new EmptyMessage());
+    }
+
+    assertFalse(gated.close(20));
+
+    gate.countDown();
+
+    assertTrue(gated.flush(5000));
+    assertEquals(1, deliveredMessages.size());
+  }
+
+  @Test
+  public void testCloseAfterFlush() {
+    for (int idx = 0; idx < 1000; ++idx) {
+      queue.enqueue(new EmptyMessage());
+    }
+
+    assertTrue(queue.close(5000));
+    assertEquals(1000, deliveredMessages.size());
+  }
+
   @Before
   public void setUp() {
     deliveredMessages = new ArrayList<Message>();
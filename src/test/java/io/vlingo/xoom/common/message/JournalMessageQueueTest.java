@@ -0,0 +1,300 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.RandomAccessFile;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.vlingo.xoom.common.Scheduler;
+
+public class JournalMessageQueueTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private List<Message> delivered;
+  private Path directory;
+
+  @Test
+  public void testThatEnqueuedMessagesAreDeliveredAndAcknowledged() {
+    final JournalMessageQueue queue = new JournalMessageQueue(null, JournalMessageQueue.Config.of(directory));
+    queue.registerListener(delivered::add);
+
+    for (int index = 1; index <= 100; ++index) {
+      queue.enqueue(new JournalTestMessage(index));
+    }
+
+    assertTrue(queue.flush(5000));
+    queue.close();
+
+    assertEquals(100, delivered.size());
+    assertEquals(100, queue.acknowledged());
+  }
+
+  @Test
+  public void testThatUnacknowledgedMessagesAreReplayed() throws Exception {
+    final CountDownLatch entered = new CountDownLatch(1);
+    final CountDownLatch gate = new CountDownLatch(1);
+    final JournalMessageQueue queue = new JournalMessageQueue(null, JournalMessageQueue.Config.of(directory).withMaxBatch(1));
+    queue.registerListener(message -> {
+      entered.countDown();
+      gate.await();
+      delivered.add(message);
+    });
+
+    final Date occurredOn = new Date();
+    for (int index = 1; index <= 5; ++index) {
+      queue.enqueue(new JournalTestMessage(index, occurredOn));
+    }
+
+    assertTrue(entered.await(5, TimeUnit.SECONDS));
+    queue.close(false);
+    gate.countDown();
+    awaitAcknowledged(queue, 1);
+
+    final List<Message> replayed = new CopyOnWriteArrayList<>();
+    final JournalMessageQueue reopened = new JournalMessageQueue(null, JournalMessageQueue.Config.of(directory));
+    reopened.registerListener(replayed::add);
+    assertTrue(reopened.flush(5000));
+
+    assertEquals(4, replayed.size());
+    for (int index = 0; index < 4; ++index) {
+      final Message message = replayed.get(index);
+      assertEquals("id-" + (index + 2), message.id());
+      assertEquals("JournalTestMessage", message.type());
+      assertEquals("1.0.0", message.version());
+      assertEquals(occurredOn, message.occurredOn());
+      assertEquals("payload-" + (index + 2), message.payload());
+    }
+    assertEquals(5, reopened.acknowledged());
+
+    reopened.enqueue(new JournalTestMessage(6));
+    assertTrue(reopened.flush(5000));
+    reopened.close();
+
+    assertEquals("id-6", replayed.get(4).id());
+    assertEquals(6, reopened.acknowledged());
+  }
+
+  @Test
+  public void testThatFailedBatchDoesNotHoldBackAcknowledgement() throws Exception {
+    // dead-lettering fails, so that the batch of the second message fails as a whole
+    final MessageQueue deadLetters = new MessageQueue() {
+      @Override public void close() { }
+      @Override public void close(boolean flush) { }
+      @Override public void enqueue(Message message) { throw new IllegalStateException("dead letters unavailable"); }
+      @Override public void flush() { }
+      @Override public void registerListener(MessageQueueListener listener) { }
+    };
+    final JournalMessageQueue queue = new JournalMessageQueue(deadLetters, JournalMessageQueue.Config.of(directory).withMaxBatch(1));
+    queue.registerListener(message -> {
+      if (message.id().equals("id-2")) {
+        throw new IllegalArgumentException("listener failure");
+      }
+      delivered.add(message);
+    });
+
+    for (int index = 1; index <= 5; ++index) {
+      queue.enqueue(new JournalTestMessage(index));
+    }
+
+    assertTrue(queue.flush(5000));
+    queue.close();
+
+    assertEquals(4, delivered.size());
+    assertEquals(1, queue.failed());
+    assertEquals(5, queue.acknowledged());
+
+    final List<Message> replayed = new CopyOnWriteArrayList<>();
+    final JournalMessageQueue reopened = new JournalMessageQueue(null, JournalMessageQueue.Config.of(directory));
+    reopened.registerListener(replayed::add);
+    assertTrue(reopened.flush(5000));
+    reopened.close();
+
+    assertTrue(replayed.isEmpty());
+  }
+
+  @Test
+  public void testThatSegmentsRollAndAreReclaimed() throws Exception {
+    final JournalMessageQueue queue = new JournalMessageQueue(null, JournalMessageQueue.Config.of(directory).withSegmentSize(256));
+    queue.registerListener(delivered::add);
+
+    for (int index = 1; index <= 100; ++index) {
+      queue.enqueue(new JournalTestMessage(index));
+    }
+
+    assertTrue(queue.flush(5000));
+    queue.close();
+
+    assertEquals(100, delivered.size());
+    assertEquals(1, queue.segmentCount());
+    assertEquals(1, segmentFiles().size());
+    assertEquals(0, queue.undeletedSegments());
+  }
+
+  @Test
+  public void testThatTornRecordIsNotReplayed() throws Exception {
+    final CountDownLatch gate = new CountDownLatch(1);
+    final JournalMessageQueue queue = new JournalMessageQueue(null, JournalMessageQueue.Config.of(directory).withSegmentSize(1024).withMaxBatch(1));
+    queue.registerListener(message -> gate.await());
+
+    for (int index = 1; index <= 3; ++index) {
+      queue.enqueue(new JournalTestMessage(index));
+    }
+    queue.close(false);
+
+    // corrupts the last byte of the payload of the third record
+    final Path segment = segmentFiles().get(0);
+    try (final RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+      int position = 0;
+      for (int record = 0; record < 3; ++record) {
+        file.seek(position);
+        position += 16 + file.readInt();
+      }
+      file.seek(position - 1);
+      file.write(0);
+    }
+
+    final List<Message> replayed = new CopyOnWriteArrayList<>();
+    final JournalMessageQueue reopened = new JournalMessageQueue(null, JournalMessageQueue.Config.of(directory).withSegmentSize(1024));
+    reopened.registerListener(replayed::add);
+    reopened.enqueue(new JournalTestMessage(4));
+    assertTrue(reopened.flush(5000));
+    reopened.close();
+
+    gate.countDown();
+
+    assertEquals(3, replayed.size());
+    assertEquals("id-1", replayed.get(0).id());
+    assertEquals("id-2", replayed.get(1).id());
+    assertEquals("id-4", replayed.get(2).id());
+  }
+
+  @Test
+  public void testThatNullFieldsAreJournaled() throws Exception {
+    final CountDownLatch gate = new CountDownLatch(1);
+    final JournalMessageQueue queue = new JournalMessageQueue(null, JournalMessageQueue.Config.of(directory).withFsync(FsyncPolicy.PerMessage));
+    queue.registerListener(message -> gate.await());
+    queue.enqueue(new AsyncMessageQueueTest.EmptyMessage());
+    queue.close(false);
+
+    final JournalMessageQueue reopened = new JournalMessageQueue(null, JournalMessageQueue.Config.of(directory));
+    reopened.registerListener(delivered::add);
+    assertTrue(reopened.flush(5000));
+    reopened.close();
+    gate.countDown();
+
+    assertEquals(1, delivered.size());
+    final Message message = delivered.get(0);
+    assertNull(message.id());
+    assertNull(message.occurredOn());
+    assertNull(message.payload());
+  }
+
+  @Test
+  public void testPeriodicFsync() {
+    final Scheduler scheduler = new Scheduler();
+    final JournalMessageQueue queue = new JournalMessageQueue(null, JournalMessageQueue.Config.of(directory).withPeriodicFsync(10), scheduler);
+    queue.registerListener(delivered::add);
+
+    for (int index = 1; index <= 10; ++index) {
+      queue.enqueue(new JournalTestMessage(index));
+    }
+
+    assertTrue(queue.flush(5000));
+    queue.close();
+    scheduler.close();
+
+    assertEquals(10, delivered.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatPeriodicFsyncRequiresScheduler() {
+    new JournalMessageQueue(null, JournalMessageQueue.Config.of(directory).withPeriodicFsync(10));
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    delivered = new CopyOnWriteArrayList<>();
+    directory = folder.newFolder("journal").toPath();
+  }
+
+  private void awaitAcknowledged(final JournalMessageQueue queue, final long expected) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (queue.acknowledged() < expected && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertEquals(expected, queue.acknowledged());
+  }
+
+  private List<Path> segmentFiles() throws Exception {
+    final List<Path> paths = new ArrayList<>();
+    try (final DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.journal")) {
+      stream.forEach(paths::add);
+    }
+    paths.sort(null);
+    return paths;
+  }
+
+  private static class JournalTestMessage implements Message {
+    private final int index;
+    private final Date occurredOn;
+
+    JournalTestMessage(final int index) {
+      this(index, new Date());
+    }
+
+    JournalTestMessage(final int index, final Date occurredOn) {
+      this.index = index;
+      this.occurredOn = occurredOn;
+    }
+
+    @Override
+    public String id() {
+      return "id-" + index;
+    }
+
+    @Override
+    public Date occurredOn() {
+      return occurredOn;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T payload() {
+      return (T) ("payload-" + index);
+    }
+
+    @Override
+    public String type() {
+      return "JournalTestMessage";
+    }
+
+    @Override
+    public String version() {
+      return "1.0.0";
+    }
+  }
+}
@@ -8,6 +8,7 @@
 package io.vlingo.xoom.common.message;
 
 import java.util.Date;
+import java.util.Random;
 import java.util.UUID;
 
 import org.junit.Assert;
@@ -54,6 +55,173 @@ public class MessageExchangeReaderTest {
     Assert.assertEquals("One 7", reader.payloadStringValue("message"));
   }
 
+  @Test
+  public void testThatLazyReaderReadsAsParsed() {
+    final C complex = new C(new A("One", 2), new B(3, 4));
+    final Message message = new TestMessage("1", "JSON", new Header("TYPE", "basic"), JsonSerialization.serialized(complex));
+
+    final MessageExchangeReader reader = MessageExchangeReader.lazyFrom(message);
+
+    Assert.assertEquals("One", reader.payloadStringValue("a", "text"));
+    Assert.assertEquals(2, reader.payloadIntegerValue("a", "value").intValue());
+    Assert.assertEquals(7, reader.payloadIntegerValue("b", "value3").intValue());
+    Assert.assertEquals(3, reader.payloadIntegerValue("b", "value1").intValue());
+    Assert.assertEquals("One 7", reader.payloadStringValue("message"));
+    Assert.assertEquals(4, reader.representation().getAsJsonObject("b").get("value2").getAsInt());
+    Assert.assertEquals(4, reader.payloadIntegerValue("b", "value2").intValue());
+  }
+
+  @Test
+  public void testThatLazyAndParsedReadersAgree() {
+    final String json =
+        "{ \"@id\" : \"attributed\", \"text\": \"quote \\\" tab \\t \\u00e9\", " +
+        "\"nested\": {\"skip\": [1, {\"x\": \"}\"}], \"amount\": -12.5e2, \"flag\": true, \"none\": null}, " +
+        "\"tags\": [\"a\", \"b\"], \"empty\": null, \"big\": 12345678901234}";
+    final Message message = new TestMessage("1", "JSON", new Header("TYPE", "basic"), json);
+
+    final MessageExchangeReader parsed = MessageExchangeReader.from(message);
+    final MessageExchangeReader lazy = MessageExchangeReader.lazyFrom(message);
+
+    for (final String[] keys : new String[][] {
+        { "id" }, { "text" }, { "nested", "amount" }, { "nested", "flag" }, { "nested", "none" }, { "empty" }, { "big" } }) {
+      Assert.assertEquals(parsed.stringValue(keys), lazy.stringValue(keys));
+    }
+
+    Assert.assertEquals(parsed.payloadDoubleValue("nested", "amount"), lazy.payloadDoubleValue("nested", "amount"));
+    Assert.assertEquals(parsed.payloadLongValue("big"), lazy.payloadLongValue("big"));
+    Assert.assertArrayEquals(parsed.stringArrayValue("tags"), lazy.stringArrayValue("tags"));
+    Assert.assertEquals("}", lazy.array("nested", "skip").get(1).getAsJsonObject().get("x").getAsString());
+    Assert.assertNull(lazy.stringValue("empty", "below"));
+    Assert.assertNull(lazy.stringValue("absent"));
+    Assert.assertNull(lazy.stringValue("nested", "absent"));
+  }
+
+  @Test
+  public void testThatLazyReaderAnswersLastValueOfDuplicateKey() {
+    final String json =
+        "{\"name\": \"first\", \"nested\": {\"value\": 1}, \"name\": \"last\", " +
+        "\"nested\": {\"value\": 2, \"value\": 3}}";
+    final Message message = new TestMessage("1", "JSON", new Header("TYPE", "basic"), json);
+
+    final MessageExchangeReader parsed = MessageExchangeReader.from(message);
+    final MessageExchangeReader lazy = MessageExchangeReader.lazyFrom(message);
+
+    Assert.assertEquals("last", lazy.payloadStringValue("name"));
+    Assert.assertEquals(parsed.payloadStringValue("name"), lazy.payloadStringValue("name"));
+    Assert.assertEquals(3, lazy.payloadIntegerValue("nested", "value").intValue());
+    Assert.assertEquals(parsed.payloadIntegerValue("nested", "value"), lazy.payloadIntegerValue("nested", "value"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatLazyReaderRejectsPathThroughSimpleValue() {
+    final Message message = new TestMessage("1", "JSON", new Header("TYPE", "basic"), "{\"a\": 1}");
+    MessageExchangeReader.lazyFrom(message).stringValue("a", "b");
+  }
+
+  @Test
+  public void testThatParsedReaderNavigatesKeysAsLazy() {
+    final String json = "{\"nested\": {\"tags\": [\"a\", \"b\"], \"none\": null}, \"@attributed\": \"value\"}";
+    final Message message = new TestMessage("1", "JSON", new Header("TYPE", "basic"), json);
+
+    for (final MessageExchangeReader reader : new MessageExchangeReader[] { MessageExchangeReader.from(message), MessageExchangeReader.lazyFrom(message) }) {
+      Assert.assertArrayEquals(new String[] { "a", "b" }, reader.stringArrayValue("nested", "tags"));
+      Assert.assertEquals("value", reader.payloadStringValue("attributed"));
+      Assert.assertNull(reader.payloadStringValue("absent"));
+      Assert.assertNull(reader.payloadStringValue("nested", "absent"));
+      Assert.assertNull(reader.payloadStringValue("nested", "none"));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatParsedReaderRejectsPathThroughSimpleValue() {
+    final Message message = new TestMessage("1", "JSON", new Header("TYPE", "basic"), "{\"a\": 1}");
+    MessageExchangeReader.from(message).stringValue("a", "b");
+  }
+
+  @Test
+  public void testThatCompiledPathsReadAsKeys() {
+    final C complex = new C(new A("One", 2), new B(3, 4));
+    final String json = JsonSerialization.serialized(complex).replace("\"message\"", "\"@message\"");
+    final Message message = new TestMessage("1", "JSON", new Header("TYPE", "basic"), json);
+
+    final MessagePath text = MessagePath.compile("a", "text");
+    final MessagePath value3 = MessagePath.compile("b", "value3");
+    final MessagePath attributed = MessagePath.compile("message");
+    final MessagePath absent = MessagePath.compile("b", "absent");
+
+    for (final MessageExchangeReader reader : new MessageExchangeReader[] { MessageExchangeReader.from(message), MessageExchangeReader.lazyFrom(message) }) {
+      Assert.assertEquals("One", reader.payloadStringValue(text));
+      Assert.assertEquals(7, reader.payloadIntegerValue(value3).intValue());
+      Assert.assertEquals(7L, reader.payloadLongValue(value3).longValue());
+      Assert.assertEquals(reader.payloadStringValue("message"), reader.payloadStringValue(attributed));
+      Assert.assertEquals("One 7", reader.payloadStringValue(attributed));
+      Assert.assertNull(reader.payloadStringValue(absent));
+      Assert.assertEquals(0, reader.stringArrayValue(absent).length);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatCompiledPathRejectsPathThroughSimpleValue() {
+    final Message message = new TestMessage("1", "JSON", new Header("TYPE", "basic"), "{\"a\": 1}");
+    MessageExchangeReader.from(message).stringValue(MessagePath.compile("a", "b"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatCompiledPathRequiresKeys() {
+    MessagePath.compile();
+  }
+
+  @Test
+  public void testThatCompiledPathsAreEqualByKeys() {
+    Assert.assertEquals(MessagePath.compile("a", "b"), MessagePath.compile("a", "b"));
+    Assert.assertNotEquals(MessagePath.compile("a", "b"), MessagePath.compile("a"));
+    Assert.assertEquals(MessagePath.compile("a", "b").hashCode(), MessagePath.compile("a", "b").hashCode());
+  }
+
+  @Test
+  public void testThatPrimitiveValuesReadAsElements() {
+    final String json =
+        "{\"int\": -42, \"long\": 123456789012345678, \"huge\": 12345678901234567890, \"quoted\": \"17\", " +
+        "\"fraction\": 129.95, \"exponent\": -12.5e2, \"tiny\": 4.9e-324, \"precise\": 0.1234567890123456789, " +
+        "\"flag\": true, \"flagged\": \"true\", \"none\": null, \"@attributed\": 7, \"nested\": {\"since\": 1672531200000}}";
+    final Message message = new TestMessage("1", "JSON", new Header("TYPE", "basic"), json);
+
+    final MessageExchangeReader parsed = MessageExchangeReader.from(message);
+    final MessageExchangeReader lazy = MessageExchangeReader.lazyFrom(message);
+
+    for (final MessageExchangeReader reader : new MessageExchangeReader[] { parsed, lazy }) {
+      Assert.assertEquals(-42, reader.payloadIntValue(0, "int"));
+      Assert.assertEquals(123456789012345678L, reader.payloadLongValue(0L, "long"));
+      Assert.assertEquals(parsed.representation().get("huge").getAsLong(), reader.payloadLongValue(0L, "huge"));
+      Assert.assertEquals(17, reader.payloadIntValue(0, "quoted"));
+      Assert.assertEquals(129, reader.payloadIntValue(0, "fraction"));
+      Assert.assertEquals(7, reader.payloadIntValue(0, "attributed"));
+      Assert.assertEquals(1672531200000L, reader.payloadLongValue(0L, MessagePath.compile("nested", "since")));
+      Assert.assertTrue(reader.payloadBooleanValue(false, "flag"));
+      Assert.assertTrue(reader.payloadBooleanValue(false, "flagged"));
+      Assert.assertEquals(-1, reader.payloadIntValue(-1, "none"));
+      Assert.assertEquals(-1, reader.payloadIntValue(-1, "absent"));
+      Assert.assertEquals(-1L, reader.payloadLongValue(-1L, "nested", "absent"));
+      Assert.assertEquals(2.5, reader.payloadDoubleValue(2.5, MessagePath.compile("none")), 0);
+      Assert.assertTrue(reader.payloadBooleanValue(true, "absent"));
+
+      for (final String key : new String[] { "int", "long", "huge", "quoted", "fraction", "exponent", "tiny", "precise" }) {
+        Assert.assertEquals(key, Double.doubleToLongBits(parsed.payloadDoubleValue(key)), Double.doubleToLongBits(reader.payloadDoubleValue(0, key)));
+      }
+    }
+  }
+
+  @Test
+  public void testThatExactDoublesReadAsParsed() {
+    final Random random = new Random(42);
+    for (int index = 0; index < 10_000; ++index) {
+      final String number = (random.nextBoolean() ? "-" : "") + random.nextInt(1_000_000) + "." + random.nextInt(100_000_000)
+          + (random.nextBoolean() ? "e" + (random.nextInt(40) - 20) : "");
+      final Message message = new TestMessage("1", "JSON", new Header("TYPE", "basic"), "{\"value\": " + number + "}");
+      Assert.assertEquals(number, Double.parseDouble(number), MessageExchangeReader.lazyFrom(message).payloadDoubleValue(0, "value"), 0);
+    }
+  }
+
   static final class A {
     public final String text;
     public final int value;
@@ -0,0 +1,170 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class PartitionedMessageQueueTest {
+
+  private PartitionedMessageQueue queue;
+
+  @Test
+  public void testThatMessagesOfKeyAreOrdered() {
+    final Map<String, List<Integer>> delivered = new ConcurrentHashMap<>();
+    queue = new PartitionedMessageQueue(PartitionedMessageQueue.Config.of(4));
+    queue.registerListener(message ->
+        delivered.computeIfAbsent(message.id(), key -> new ArrayList<>()).add(message.payload()));
+
+    for (int sequence = 0; sequence < 1000; ++sequence) {
+      for (int entity = 0; entity < 8; ++entity) {
+        queue.enqueue(new KeyedMessage("entity-" + entity, "Type", sequence));
+      }
+    }
+
+    assertTrue(queue.flush(10_000));
+
+    assertEquals(8, delivered.size());
+    for (final List<Integer> sequences : delivered.values()) {
+      assertEquals(1000, sequences.size());
+      for (int sequence = 0; sequence < 1000; ++sequence) {
+        assertEquals(sequence, (int) sequences.get(sequence));
+      }
+    }
+  }
+
+  @Test
+  public void testThatLanesDispatchInParallel() throws Exception {
+    final CountDownLatch gate = new CountDownLatch(1);
+    final CountDownLatch other = new CountDownLatch(1);
+    queue = new PartitionedMessageQueue(PartitionedMessageQueue.Config.of(2));
+
+    final String blocked = "blocked";
+    final String unblocked = keyOfOtherLane(blocked);
+
+    queue.registerListener(message -> {
+      if (message.id().equals(blocked)) {
+        gate.await();
+      } else {
+        other.countDown();
+      }
+    });
+
+    queue.enqueue(new KeyedMessage(blocked, "Type", 1));
+    queue.enqueue(new KeyedMessage(blocked, "Type", 2));
+    queue.enqueue(new KeyedMessage(unblocked, "Type", 1));
+
+    assertTrue("the other lane was held up", other.await(5, TimeUnit.SECONDS));
+
+    final PartitionedMessageQueue.LaneStats stats = queue.stats().get(queue.laneOf(blocked));
+    assertEquals(2, stats.depth);
+    assertEquals(2, stats.enqueued);
+    assertTrue(stats.lag > 0);
+
+    gate.countDown();
+    assertTrue(queue.flush(5000));
+
+    for (final PartitionedMessageQueue.LaneStats lane : queue.stats()) {
+      assertEquals(0, lane.depth);
+      assertEquals(0, lane.lag);
+    }
+  }
+
+  @Test
+  public void testThatKeyFunctionPartitions() {
+    final Map<String, List<Integer>> delivered = new ConcurrentHashMap<>();
+    queue = new PartitionedMessageQueue(PartitionedMessageQueue.Config.of(3).withKey(Message::type));
+    queue.registerListener(message ->
+        delivered.computeIfAbsent(message.type(), key -> new ArrayList<>()).add(message.payload()));
+
+    for (int sequence = 0; sequence < 100; ++sequence) {
+      queue.enqueue(new KeyedMessage("id-" + sequence, "Type" + (sequence % 2), sequence));
+    }
+
+    assertTrue(queue.flush(5000));
+
+    assertEquals(50, delivered.get("Type0").size());
+    int previous = -1;
+    for (final int sequence : delivered.get("Type1")) {
+      assertTrue(sequence > previous);
+      previous = sequence;
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatLanesArePositive() {
+    PartitionedMessageQueue.Config.of(0);
+  }
+
+  @After
+  public void tearDown() {
+    if (queue != null) {
+      queue.close(false);
+    }
+  }
+
+  private String keyOfOtherLane(final String key) {
+    for (int index = 0; ; ++index) {
+      final String other = "key-" + index;
+      if (queue.laneOf(other) != queue.laneOf(key)) {
+        assertNotEquals(key, other);
+        return other;
+      }
+    }
+  }
+
+  private static class KeyedMessage implements Message {
+    private final String id;
+    private final Integer sequence;
+    private final String type;
+
+    KeyedMessage(final String id, final String type, final int sequence) {
+      this.id = id;
+      this.sequence = sequence;
+      this.type = type;
+    }
+
+    @Override
+    public String id() {
+      return id;
+    }
+
+    @Override
+    public Date occurredOn() {
+      return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T payload() {
+      return (T) sequence;
+    }
+
+    @Override
+    public String type() {
+      return type;
+    }
+
+    @Override
+    public String version() {
+      return "1";
+    }
+  }
+}
@@ -0,0 +1,311 @@
+// Copyright © 2012-2023 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.common.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RingBufferMessageQueueTest {
+
+  private List<Integer> delivered;
+  private CountDownLatch entered;
+  private CountDownLatch gate;
+  private RingBufferMessageQueue queue;
+
+  @Test
+  public void testEnqueueDeliversInOrder() {
+    queue = open(RingBufferMessageQueue.Config.of(8), null);
+    gate.countDown();
+
+    for (int idx = 0; idx < 1000; ++idx) {
+      queue.enqueue(new NumberedMessage(idx));
+    }
+
+    queue.flush();
+
+    assertEquals(1000, delivered.size());
+    for (int idx = 0; idx < 1000; ++idx) {
+      assertEquals(idx, (int) delivered.get(idx));
+    }
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void testThatCapacityIsRoundedToPowerOfTwo() {
+    queue = open(RingBufferMessageQueue.Config.of(3), null);
+    assertEquals(4, queue.capacity());
+  }
+
+  @Test
+  public void testThatBlockAppliesBackpressure() throws Exception {
+    queue = open(RingBufferMessageQueue.Config.of(4), null);
+    fill(5);
+
+    final Thread producer = new Thread(() -> queue.enqueue(new NumberedMessage(5)));
+    producer.start();
+
+    producer.join(100);
+    assertTrue("the producer was not blocked", producer.isAlive());
+    assertEquals(4, queue.size());
+
+    gate.countDown();
+    producer.join();
+    queue.flush();
+
+    assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5), delivered);
+    final MessageQueueStats stats = queue.stats();
+    assertEquals(1, stats.blocked);
+    assertEquals(4, stats.maxOccupancy);
+    assertEquals(6, stats.delivered);
+  }
+
+  @Test
+  public void testThatDropNewestDropsEnqueuedMessage() throws Exception {
+    queue = open(RingBufferMessageQueue.Config.of(4).withOverflow(OverflowPolicy.DropNewest), null);
+    fill(7);
+
+    gate.countDown();
+    queue.flush();
+
+    assertEquals(Arrays.asList(0, 1, 2, 3, 4), delivered);
+    assertEquals(2, queue.stats().dropped);
+  }
+
+  @Test
+  public void testThatDropOldestDropsPendingMessage() throws Exception {
+    queue = open(RingBufferMessageQueue.Config.of(4).withOverflow(OverflowPolicy.DropOldest), null);
+    fill(7);
+
+    gate.countDown();
+    queue.flush();
+
+    assertEquals(Arrays.asList(0, 3, 4, 5, 6), delivered);
+    assertEquals(2, queue.stats().dropped);
+  }
+
+  @Test
+  public void testThatDeadLettersReceivesOverflow() throws Exception {
+    final CountingQueue deadLetters = new CountingQueue();
+    queue = open(RingBufferMessageQueue.Config.of(4).withOverflow(OverflowPolicy.DeadLetters), deadLetters);
+    fill(7);
+
+    gate.countDown();
+    queue.flush();
+
+    assertEquals(Arrays.asList(0, 1, 2, 3, 4), delivered);
+    assertEquals(2, deadLetters.enqueued.get());
+    assertEquals(2, queue.stats().deadLettered);
+  }
+
+  @Test
+  public void testThatCloseReleasesBlockedProducers() throws Exception {
+    queue = open(RingBufferMessageQueue.Config.of(4), null);
+    fill(5);
+
+    final Thread producer = new Thread(() -> queue.enqueue(new NumberedMessage(5)));
+    producer.start();
+    producer.join(50);
+
+    queue.close(false);
+    producer.join();
+    gate.countDown();
+
+    assertEquals(1, queue.stats().dropped);
+  }
+
+  @Test
+  public void testConcurrentProducers() throws Exception {
+    queue = open(RingBufferMessageQueue.Config.of(64), null);
+    gate.countDown();
+
+    final int producers = 4;
+    final int messages = 10_000;
+    final List<Thread> threads = new ArrayList<>();
+    for (int producer = 0; producer < producers; ++producer) {
+      final Thread thread = new Thread(() -> {
+        for (int idx = 0; idx < messages; ++idx) {
+          queue.enqueue(new NumberedMessage(idx));
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+
+    queue.flush();
+
+    assertEquals(producers * messages, delivered.size());
+    assertEquals(producers * messages, queue.stats().delivered);
+    assertEquals(0, queue.stats().dropped);
+  }
+
+  @Test
+  public void testThatFlushTimesOutWhileConsumerIsHeld() throws Exception {
+    queue = open(RingBufferMessageQueue.Config.of(8), null);
+    fill(3);
+
+    assertFalse(queue.flush(50));
+
+    gate.countDown();
+
+    assertTrue(queue.flush(5000));
+    assertEquals(Arrays.asList(0, 1, 2), delivered);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatFlushRejectsNegativeTimeout() {
+    queue = open(RingBufferMessageQueue.Config.of(8), null);
+    queue.flush(-1);
+  }
+
+  @Test
+  public void testThatListenerFailuresDoNotStopConsuming() throws Exception {
+    final List<Throwable> uncaught = new CopyOnWriteArrayList<>();
+    final Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+    Thread.setDefaultUncaughtExceptionHandler((thread, e) -> uncaught.add(e));
+
+    try {
+      final CountingQueue deadLetters = new CountingQueue();
+      queue = new RingBufferMessageQueue(deadLetters, RingBufferMessageQueue.Config.of(8));
+      queue.registerListener(message -> {
+        final int number = message.payload();
+        if (number == 0) {
+          throw new IllegalStateException("listener exception");
+        } else if (number == 1) {
+          throw new AssertionError("listener error");
+        }
+        delivered.add(number);
+      });
+
+      for (int idx = 0; idx < 4; ++idx) {
+        queue.enqueue(new NumberedMessage(idx));
+      }
+
+      assertTrue(queue.flush(5000));
+      assertEquals(Arrays.asList(2, 3), delivered);
+      assertEquals(1, deadLetters.enqueued.get());
+
+      final long deadline = System.currentTimeMillis() + 5000;
+      while (uncaught.isEmpty() && System.currentTimeMillis() < deadline) {
+        Thread.sleep(1);
+      }
+      assertEquals(1, uncaught.size());
+      assertTrue(uncaught.get(0) instanceof AssertionError);
+    } finally {
+      Thread.setDefaultUncaughtExceptionHandler(handler);
+    }
+  }
+
+  @Test
+  public void testThatCloseReleasesFlush() throws Exception {
+    queue = open(RingBufferMessageQueue.Config.of(8), null);
+    fill(2);
+
+    final Thread flusher = new Thread(() -> queue.flush());
+    flusher.start();
+    flusher.join(50);
+    assertTrue("the flush did not wait", flusher.isAlive());
+
+    queue.close(false);
+    flusher.join(5000);
+
+    assertFalse("the flush was not released", flusher.isAlive());
+  }
+
+  @Before
+  public void setUp() {
+    delivered = new CopyOnWriteArrayList<>();
+    entered = new CountDownLatch(1);
+    gate = new CountDownLatch(1);
+  }
+
+  @After
+  public void tearDown() {
+    gate.countDown();
+    queue.close(false);
+  }
+
+  private RingBufferMessageQueue open(final RingBufferMessageQueue.Config config, final MessageQueue deadLetters) {
+    final RingBufferMessageQueue queue = new RingBufferMessageQueue(deadLetters, config);
+    queue.registerListener(message -> {
+      entered.countDown();
+      gate.await();
+      delivered.add(message.payload());
+    });
+    return queue;
+  }
+
+  // enqueues the first message, which holds the listener at the gate, and then the rest
+  private void fill(final int count) throws InterruptedException {
+    queue.enqueue(new NumberedMessage(0));
+    assertTrue(entered.await(5, TimeUnit.SECONDS));
+    for (int idx = 1; idx < count; ++idx) {
+      queue.enqueue(new NumberedMessage(idx));
+    }
+  }
+
+  private static class CountingQueue implements MessageQueue {
+    final AtomicInteger enqueued = new AtomicInteger(0);
+
+    @Override public void close() { }
+    @Override public void close(boolean flush) { }
+    @Override public void enqueue(Message message) { enqueued.incrementAndGet(); }
+    @Override public void flush() { }
+    @Override public void registerListener(MessageQueueListener listener) { }
+  }
+
+  private static class NumberedMessage implements Message {
+    private final Integer number;
+
+    NumberedMessage(final int number) {
+      this.number = number;
+    }
+
+    @Override
+    public String id() {
+      return String.valueOf(number);
+    }
+
+    @Override
+    public Date occurredOn() {
+      return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T payload() {
+      return (T) number;
+    }
+
+    @Override
+    public String type() {
+      return "Numbered";
+    }
+
+    @Override
+    public String version() {
+      return "1";
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package io.vlingo.xoom.common.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.vlingo.xoom.common.Completes;
+import io.vlingo.xoom.common.Scheduler;
+
+public class BoundedResourcePoolTest extends ResourcePoolTest {
+
+  private static final int minIdle = 2;
+  private static final int maxSize = 5;
+
+  private final Scheduler scheduler = new Scheduler();
+
+  private final BoundedResourcePool<Integer, Void> pool =
+      new BoundedResourcePool<>(BoundedResourcePool.Config.of(minIdle, maxSize), new TestResourceFactory());
+
+  @After
+  public void tearDown() {
+    scheduler.close();
+  }
+
+  @Test
+  public void testInitialState() {
+    assertEquals("the pool did not start with the desired number of resources",
+        minIdle, pool.size());
+
+    ResourcePoolStats stats = pool.stats();
+    assertEquals(minIdle, stats.allocations);
+    assertEquals(0, stats.inUse);
+    assertEquals(0, stats.waits);
+  }
+
+  @Test
+  public void testThatTryAcquireAnswersNullWhenExhausted() {
+    for (int i = 0; i < maxSize; i++) {
+      assertTrue(pool.tryAcquire() != null);
+    }
+    assertNull(pool.tryAcquire());
+
+    ResourcePoolStats stats = pool.stats();
+    assertEquals("the pool allocated beyond its maximum size", maxSize, stats.allocations);
+    assertEquals(maxSize, stats.inUse);
+    assertEquals("tryAcquire waited", 0, stats.waits);
+  }
+
+  @Test
+  public void testThatAcquireTimesOut() {
+    exhaust();
+
+    final long start = System.nanoTime();
+    assertNull(pool.acquire(50));
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+
+    ResourcePoolStats stats = pool.stats();
+    assertEquals(1, stats.waits);
+    assertEquals(1, stats.waitTimeouts);
+    assertTrue(stats.maxWaitTime >= TimeUnit.MILLISECONDS.toNanos(50));
+    assertTrue(stats.meanWaitTime > 0);
+  }
+
+  @Test
+  public void testThatReleaseHandsOffToWaitersInOrder() throws Exception {
+    final List<Integer> resources = exhaust();
+    final List<String> order = new CopyOnWriteArrayList<>();
+    final CountDownLatch done = new CountDownLatch(2);
+
+    final Thread first = waiter("first", order, done);
+    first.start();
+    until(() -> first.getState() == Thread.State.WAITING || first.getState() == Thread.State.TIMED_WAITING);
+    final Thread second = waiter("second", order, done);
+    second.start();
+    until(() -> second.getState() == Thread.State.WAITING || second.getState() == Thread.State.TIMED_WAITING);
+
+    assertNull("a new acquisition barged ahead of the waiters", pool.tryAcquire());
+
+    pool.release(resources.get(0));
+    until(() -> order.size() == 1);
+    pool.release(resources.get(1));
+
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    assertEquals("first", order.get(0));
+    assertEquals("second", order.get(1));
+    assertEquals(maxSize, pool.stats().allocations);
+    assertEquals(2, pool.stats().waits);
+  }
+
+  @Test
+  public void testThatAcquireAsyncCompletesOnRelease() {
+    final List<Integer> resources = exhaust();
+
+    final Completes<Integer> completes = pool.acquireAsync();
+    assertFalse(completes.isCompleted());
+
+    pool.release(resources.get(0));
+
+    assertSame(resources.get(0), completes.await(1000));
+    assertEquals(maxSize, pool.stats().inUse);
+  }
+
+  @Test
+  public void testThatAcquireAsyncTimesOut() {
+    exhaust();
+
+    final Completes<Integer> completes = pool.acquireAsync(null, scheduler, 10);
+
+    completes.await(1000);
+
+    assertTrue(completes.hasFailed());
+    assertEquals(1, pool.stats().waitTimeouts);
+  }
+
+  @Test
+  public void testThatFailedCreationPassesItsSlotToWaiter() {
+    final AtomicInteger failures = new AtomicInteger(1);
+    final BoundedResourcePool<Integer, Void> pool =
+        new BoundedResourcePool<>(BoundedResourcePool.Config.of(0, 1), new TestResourceFactory() {
+          @Override
+          public Integer create(Void arguments) {
+            if (failures.getAndDecrement() > 0) {
+              throw new IllegalStateException("unavailable");
+            }
+            return 1;
+          }
+        });
+
+    final Completes<Integer> completes = pool.acquireAsync();
+    assertTrue("the failed creation was not answered as failure", completes.hasFailed());
+
+    assertEquals(Integer.valueOf(1), pool.tryAcquire());
+    assertEquals(1, pool.stats().allocations);
+  }
+
+  @Test
+  public void testThatInvalidReleasePassesItsSlotToWaiter() {
+    final List<Integer> invalid = new CopyOnWriteArrayList<>();
+    final BoundedResourcePool<Integer, Void> pool =
+        new BoundedResourcePool<>(BoundedResourcePool.Config.of(0, 1).withValidation(Validation.OnRelease), new TestResourceFactory() {
+          @Override
+          public boolean validate(Integer resource) {
+            return !invalid.contains(resource);
+          }
+        });
+
+    final Integer resource = pool.acquire();
+    final Completes<Integer> waiting = pool.acquireAsync();
+    invalid.add(resource);
+    pool.release(resource);
+
+    final Integer replacement = waiting.await(1000);
+    assertTrue(replacement != null && !invalid.contains(replacement));
+    assertEquals(1, pool.stats().evictions);
+    assertEquals(2, pool.stats().allocations);
+  }
+
+  @Test
+  public void testConcurrent() {
+    testConcurrent(pool, maxSize * 4, maxSize * 20);
+    ResourcePoolStats stats = pool.stats();
+    assertTrue("the pool allocated beyond its maximum size",
+        stats.allocations <= maxSize);
+    assertEquals("the number of inUse in stats is not equal to 0",
+        0, stats.inUse);
+    assertTrue("the pool did not make consumers wait",
+        stats.waits > 0);
+  }
+
+  private List<Integer> exhaust() {
+    final List<Integer> resources = new CopyOnWriteArrayList<>();
+    for (int i = 0; i < maxSize; i++) {
+      resources.add(pool.acquire());
+    }
+    return resources;
+  }
+
+  private Thread waiter(final String name, final List<String> order, final CountDownLatch done) {
+    return new Thread(() -> {
+      if (pool.acquire(5_000) != null) {
+        order.add(name);
+      }
+      done.countDown();
+    });
+  }
+
+  private static void until(final BooleanSupplier condition) {
+    final long deadline = System.currentTimeMillis() + 5_000;
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+      Thread.yield();
+    }
+  }
+}
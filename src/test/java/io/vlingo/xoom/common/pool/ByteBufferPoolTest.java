@@ -0,0 +1,87 @@
+package io.vlingo.xoom.common.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class ByteBufferPoolTest extends ResourcePoolTest {
+
+  @Test
+  public void testThatBuffersAreOfPowerOfTwoSizeClasses() {
+    final ByteBufferPool pool = new ByteBufferPool(ByteBufferPool.Config.heap(100, 5000));
+
+    assertEquals(128, pool.acquire().capacity());
+    assertEquals(128, pool.acquire(1).capacity());
+    assertEquals(1024, pool.acquire(1000).capacity());
+    assertEquals(1024, pool.acquire(1024).capacity());
+    assertEquals(8192, pool.acquire(5000).capacity());
+    assertEquals("a buffer beyond the maximum size was pooled", 16384, pool.acquire(16000).capacity());
+  }
+
+  @Test
+  public void testThatReleasedBufferIsReusedCleared() {
+    final ByteBufferPool pool = new ByteBufferPool(ByteBufferPool.Config.heap(64, 4096));
+
+    final ByteBuffer buffer = pool.acquire(1000);
+    buffer.putInt(42).flip();
+    pool.release(buffer);
+
+    assertEquals(1, pool.size(1000));
+
+    final ByteBuffer reused = pool.acquire(600);
+    assertSame(buffer, reused);
+    assertEquals(0, reused.position());
+    assertEquals(reused.capacity(), reused.limit());
+  }
+
+  @Test
+  public void testThatMemoryInUseIsReported() {
+    final ByteBufferPool pool = new ByteBufferPool(ByteBufferPool.Config.direct(1024, 65536).withExplicitFree());
+
+    final ByteBuffer small = pool.acquire(1024);
+    final ByteBuffer large = pool.acquire(65536);
+    assertTrue(small.isDirect());
+
+    ResourcePoolStats stats = pool.stats();
+    assertEquals(1024 + 65536, stats.inUseBytes);
+    assertEquals(0, stats.idleBytes);
+
+    pool.release(large);
+
+    stats = pool.stats();
+    assertEquals(1024, stats.inUseBytes);
+    assertEquals(65536, stats.idleBytes);
+    assertEquals(1, stats.inUse);
+  }
+
+  @Test
+  public void testThatUnpooledBufferIsDestroyedOnRelease() {
+    final ByteBufferPool pool = new ByteBufferPool(ByteBufferPool.Config.direct(64, 1024).withExplicitFree());
+
+    pool.release(pool.acquire(4096));
+
+    ResourcePoolStats stats = pool.stats();
+    assertEquals(1, stats.evictions);
+    assertEquals(0, stats.inUseBytes);
+    assertEquals(0, pool.size());
+  }
+
+  @Test
+  public void testThatDirectMemoryCanBeFreed() {
+    assertTrue(DirectMemory.isSupported());
+    assertTrue(DirectMemory.free(ByteBuffer.allocateDirect(128)));
+  }
+
+  @Test
+  public void testConcurrent() {
+    final ByteBufferPool pool = new ByteBufferPool(ByteBufferPool.Config.heap(64, 4096));
+    testConcurrent(pool, 20, 100);
+    ResourcePoolStats stats = pool.stats();
+    assertEquals(0, stats.inUse);
+    assertEquals(0, stats.inUseBytes);
+  }
+}
@@ -1,8 +1,17 @@
 package io.vlingo.xoom.common.pool;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
 import org.junit.Test;
 
+import io.vlingo.xoom.common.Scheduler;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class ElasticResourcePoolTest extends ResourcePoolTest {
@@ -47,4 +56,151 @@ public class ElasticResourcePoolTest extends ResourcePoolTest {
     assertTrue("the pool didn't count evictions",
         0 < stats.evictions);
   }
+
+  @Test
+  public void testThatReleaseKeepsCountsConsistent() {
+    final List<Integer> resources = new ArrayList<>();
+    for (int i = 0; i < minIdle * 3; i++) {
+      resources.add(pool.acquire());
+    }
+    assertEquals(minIdle * 3, pool.stats().inUse);
+
+    resources.forEach(pool::release);
+
+    ResourcePoolStats stats = pool.stats();
+    assertEquals("the number of inUse in stats is not equal to 0",
+        0, stats.inUse);
+    assertEquals("the number of idle in stats is not equal to the pool size",
+        pool.size(), stats.idle);
+    assertTrue("the pool shrank below the desired minimum number of resources",
+        stats.idle >= minIdle);
+    assertTrue("the pool didn't count evictions",
+        0 < stats.evictions);
+  }
+
+  @Test
+  public void testThatMaintenanceEvictsUnneededIdleResources() {
+    final Scheduler scheduler = new Scheduler();
+    final Set<Thread> destroyers = ConcurrentHashMap.newKeySet();
+    final ElasticResourcePool<Integer, Void> pool =
+        new ElasticResourcePool<>(ElasticResourcePool.Config.of(2).withIdleEviction(20, 5), new TestResourceFactory() {
+          @Override
+          public void destroy(Integer resource) {
+            destroyers.add(Thread.currentThread());
+          }
+        }, scheduler);
+
+    try {
+      final List<Integer> resources = new ArrayList<>();
+      for (int i = 0; i < minIdle; i++) {
+        resources.add(pool.acquire());
+      }
+      resources.forEach(pool::release);
+
+      assertEquals("the pool evicted on release", 0, pool.stats().evictions);
+      assertEquals(minIdle, pool.stats().idle);
+
+      until(() -> pool.stats().idle == 2);
+
+      ResourcePoolStats stats = pool.stats();
+      assertEquals("the pool did not evict unneeded idle resources down to the minimum", 2, stats.idle);
+      assertEquals(minIdle - 2, stats.evictions);
+      assertFalse("resources were destroyed on the releasing thread", destroyers.contains(Thread.currentThread()));
+    } finally {
+      pool.close();
+      scheduler.close();
+    }
+  }
+
+  @Test
+  public void testThatMaintenancePrewarms() {
+    final Scheduler scheduler = new Scheduler();
+    final ElasticResourcePool<Integer, Void> pool =
+        new ElasticResourcePool<>(ElasticResourcePool.Config.of(3).withIdleEviction(10, 3).withPrewarming(), new TestResourceFactory(), scheduler);
+
+    try {
+      for (int i = 0; i < 3; i++) {
+        pool.acquire();
+      }
+      assertEquals(0, pool.size());
+
+      until(() -> pool.size() == 3);
+
+      assertEquals("the pool did not prewarm to the minimum", 3, pool.size());
+      assertEquals(6, pool.stats().allocations);
+    } finally {
+      pool.close();
+      scheduler.close();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatMaintenanceRequiresIdleEviction() {
+    final Scheduler scheduler = new Scheduler();
+    try {
+      new ElasticResourcePool<>(ElasticResourcePool.Config.of(1), new TestResourceFactory(), scheduler);
+    } finally {
+      scheduler.close();
+    }
+  }
+
+  @Test
+  public void testThatInvalidResourcesAreEvicted() {
+    final Set<Integer> invalid = ConcurrentHashMap.newKeySet();
+    final ElasticResourcePool<Integer, Void> pool =
+        new ElasticResourcePool<>(ElasticResourcePool.Config.of(2).withValidation(Validation.OnAcquire, Validation.OnRelease), validating(invalid));
+
+    final Integer first = pool.acquire();
+    invalid.add(first);
+    pool.release(first);
+
+    assertEquals("the invalid resource was not evicted on release", 1, pool.stats().evictions);
+    assertEquals(0, pool.stats().inUse);
+
+    final Integer idle = pool.acquire();
+    pool.release(idle);
+    invalid.add(idle);
+
+    final Integer acquired = pool.acquire();
+    assertTrue("an invalid resource was lent", !invalid.contains(acquired));
+    assertEquals("the invalid resource was not evicted on acquire", 2, pool.stats().evictions);
+  }
+
+  @Test
+  public void testThatMaintenanceEvictsInvalidIdleResources() {
+    final Scheduler scheduler = new Scheduler();
+    final Set<Integer> invalid = ConcurrentHashMap.newKeySet();
+    final ElasticResourcePool<Integer, Void> pool =
+        new ElasticResourcePool<>(ElasticResourcePool.Config.of(3).withIdleEviction(20, 3).withValidation(Validation.WhenIdle), validating(invalid), scheduler);
+
+    try {
+      final Integer resource = pool.acquire();
+      invalid.add(resource);
+      pool.release(resource);
+
+      until(() -> pool.stats().evictions == 1);
+
+      assertEquals(1, pool.stats().evictions);
+      assertEquals(2, pool.size());
+    } finally {
+      pool.close();
+      scheduler.close();
+    }
+  }
+
+  private static TestResourceFactory validating(final Set<Integer> invalid) {
+    return new TestResourceFactory() {
+      @Override
+      public boolean validate(Integer resource) {
+        return !invalid.contains(resource);
+      }
+    };
+  }
+
+  private static void until(final BooleanSupplier condition) {
+    final long deadline = System.currentTimeMillis() + 5_000;
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+      Thread.yield();
+    }
+  }
 }
@@ -0,0 +1,233 @@
+package io.vlingo.xoom.common.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+
+import org.junit.Test;
+
+public class KeyedResourcePoolTest extends ResourcePoolTest {
+
+  private final BufferFactory factory = new BufferFactory();
+
+  @Test
+  public void testThatAcquireIsLentResourceOfItsShape() {
+    final KeyedResourcePool<byte[], Integer, Integer> pool =
+        new KeyedResourcePool<>(KeyedResourcePool.Config.of(0, 4, 16), factory);
+
+    final byte[] small = pool.acquire(100);
+    final byte[] large = pool.acquire(5000);
+    pool.release(small);
+    pool.release(large);
+
+    assertEquals(1, pool.size(128));
+    assertEquals(1, pool.size(8192));
+
+    assertSame(large, pool.acquire(6000));
+    assertSame(small, pool.acquire(64));
+    assertEquals(2, pool.stats().allocations);
+  }
+
+  @Test
+  public void testThatPartitionMaxIdleIsRespected() {
+    final KeyedResourcePool<byte[], Integer, Integer> pool =
+        new KeyedResourcePool<>(KeyedResourcePool.Config.<Integer>of(0, 4, 16).withPartition(128, 0, 1), factory);
+
+    final byte[] first = pool.acquire(100);
+    final byte[] second = pool.acquire(100);
+    pool.release(first);
+    pool.release(second);
+
+    assertEquals(1, pool.size(128));
+    assertEquals(1, pool.stats().evictions);
+  }
+
+  @Test
+  public void testThatTotalIdleIsCappedBeyondMinIdle() {
+    final KeyedResourcePool<byte[], Integer, Integer> pool =
+        new KeyedResourcePool<>(KeyedResourcePool.Config.of(1, 4, 2), factory);
+
+    final byte[] a1 = pool.acquire(100);
+    final byte[] a2 = pool.acquire(100);
+    final byte[] b1 = pool.acquire(1000);
+    final byte[] c1 = pool.acquire(5000);
+
+    pool.release(a1);
+    pool.release(a2);
+    pool.release(b1);
+    pool.release(c1);
+
+    assertEquals("the global cap was not applied", 2, pool.size(128));
+    assertEquals("a partition could not retain its minimum idle", 1, pool.size(1024));
+    assertEquals(1, pool.size(8192));
+    assertEquals(4, pool.size());
+    assertEquals(0, pool.stats().evictions);
+
+    pool.release(pool.acquire(1000));
+    final byte[] b2 = pool.acquire(1000);
+    pool.release(pool.acquire(1000));
+    pool.release(b2);
+    assertEquals("the global cap was exceeded", 1, pool.stats().evictions);
+  }
+
+  @Test
+  public void testThatExhaustedPartitionSteals() {
+    final KeyedResourcePool<byte[], Integer, Integer> pool =
+        new KeyedResourcePool<>(KeyedResourcePool.Config.<Integer>of(0, 4, 16).withStealing(), factory);
+
+    pool.release(pool.acquire(5000));
+
+    final byte[] stolen = pool.acquire(100);
+
+    assertEquals(128, stolen.length);
+    assertEquals(0, pool.size(8192));
+    assertEquals(1, factory.reshaped);
+  }
+
+  @Test
+  public void testThatStealingLeavesMinIdle() {
+    final KeyedResourcePool<byte[], Integer, Integer> pool =
+        new KeyedResourcePool<>(KeyedResourcePool.Config.<Integer>of(1, 4, 16).withStealing(), factory);
+
+    final byte[] large = pool.acquire(5000);
+    pool.release(large);
+
+    assertNotSame(large, pool.acquire(100));
+    assertEquals(1, pool.size(8192));
+  }
+
+  @Test
+  public void testConcurrent() {
+    final KeyedResourcePool<byte[], Integer, Integer> pool =
+        new KeyedResourcePool<>(KeyedResourcePool.Config.of(2, 8, 32), factory);
+
+    testConcurrent(pool, 20, 100);
+
+    ResourcePoolStats stats = pool.stats();
+    assertEquals(0, stats.inUse);
+    assertEquals(stats.idle, pool.size());
+  }
+
+  @Test
+  public void testThatTotalIdleIsCappedUnderConcurrentReleases() throws Exception {
+    final int threads = 8;
+    final int maxTotalIdle = 10;
+    final KeyedResourcePool<byte[], Integer, Integer> pool =
+        new KeyedResourcePool<>(KeyedResourcePool.Config.of(0, 64, maxTotalIdle), factory);
+
+    final CyclicBarrier barrier = new CyclicBarrier(threads);
+    final List<Thread> releasers = new ArrayList<>(threads);
+    for (int thread = 0; thread < threads; ++thread) {
+      final int size = 128 << thread;
+      releasers.add(new Thread(() -> {
+        final List<byte[]> buffers = new ArrayList<>();
+        for (int count = 0; count < 32; ++count) {
+          buffers.add(pool.acquire(size));
+        }
+        try {
+          barrier.await();
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+        buffers.forEach(pool::release);
+      }));
+    }
+
+    releasers.forEach(Thread::start);
+    for (final Thread releaser : releasers) {
+      releaser.join();
+    }
+
+    int partitioned = 0;
+    for (int thread = 0; thread < threads; ++thread) {
+      partitioned += pool.size(128 << thread);
+    }
+
+    assertTrue(pool.size() <= maxTotalIdle);
+    assertEquals(pool.size(), partitioned);
+    assertEquals(threads * 32 - pool.size(), pool.stats().evictions);
+  }
+
+  @Test
+  public void testThatInvalidResourcesAreEvicted() {
+    final KeyedResourcePool<byte[], Integer, Integer> pool =
+        new KeyedResourcePool<>(KeyedResourcePool.Config.<Integer>of(0, 4, 16).withValidation(Validation.OnAcquire, Validation.OnRelease), factory);
+
+    final byte[] first = pool.acquire(100);
+    final byte[] second = pool.acquire(100);
+    pool.release(first);
+
+    factory.valid = false;
+    pool.release(second);
+
+    assertEquals(1, pool.size(128));
+    assertEquals(1, pool.stats().evictions);
+
+    assertNotSame(first, pool.acquire(100));
+    assertEquals(0, pool.size(128));
+    assertEquals(2, pool.stats().evictions);
+    assertEquals(3, pool.stats().allocations);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatValidationWhenIdleIsNotSupported() {
+    KeyedResourcePool.Config.of(0, 4, 16).withValidation(Validation.WhenIdle);
+  }
+
+  private static class BufferFactory implements KeyedResourceFactory<byte[], Integer, Integer> {
+    int reshaped;
+    boolean valid = true;
+
+    @Override
+    public boolean validate(byte[] buffer) {
+      return valid;
+    }
+
+    @Override
+    public Class<byte[]> type() {
+      return byte[].class;
+    }
+
+    @Override
+    public byte[] create(Integer size) {
+      return new byte[sizeClassOf(size)];
+    }
+
+    @Override
+    public Integer defaultArguments() {
+      return 1024;
+    }
+
+    @Override
+    public byte[] reset(byte[] buffer, Integer size) {
+      if (buffer.length != sizeClassOf(size)) {
+        ++reshaped;
+        return create(size);
+      }
+      return buffer;
+    }
+
+    @Override
+    public void destroy(byte[] buffer) {
+    }
+
+    @Override
+    public Integer keyOfArguments(Integer size) {
+      return sizeClassOf(size);
+    }
+
+    @Override
+    public Integer keyOfResource(byte[] buffer) {
+      return buffer.length;
+    }
+
+    private static int sizeClassOf(int size) {
+      return Math.max(128, Integer.highestOneBit(size - 1) << 1);
+    }
+  }
+}
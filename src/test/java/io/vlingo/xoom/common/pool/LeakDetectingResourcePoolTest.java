@@ -0,0 +1,113 @@
+package io.vlingo.xoom.common.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+import io.vlingo.xoom.common.Scheduler;
+
+public class LeakDetectingResourcePoolTest extends ResourcePoolTest {
+
+  private final List<LeakDetectingResourcePool.Leak<Integer>> reported = new CopyOnWriteArrayList<>();
+
+  @Test
+  public void testThatHeldLeaseIsDetectedOnce() throws Exception {
+    final LeakDetectingResourcePool<Integer, Void> pool = pool(1, null);
+
+    final Integer leaked = pool.acquire();
+    pool.release(pool.acquire());
+    assertEquals(1, pool.tracked());
+
+    Thread.sleep(30);
+
+    final List<LeakDetectingResourcePool.Leak<Integer>> leaks = pool.detect();
+    assertEquals(1, leaks.size());
+    assertSame(leaked, leaks.get(0).resource);
+    assertTrue(leaks.get(0).heldFor > 10);
+    assertEquals("testThatHeldLeaseIsDetectedOnce", leaks.get(0).site.getStackTrace()[2].getMethodName());
+    assertEquals(leaks, reported);
+
+    assertTrue("the leak was reported again", pool.detect().isEmpty());
+  }
+
+  @Test
+  public void testThatReportedLeaseIsNoLongerTracked() throws Exception {
+    final LeakDetectingResourcePool<Integer, Void> pool = pool(1, null);
+
+    final Integer leaked = pool.acquire();
+    assertEquals(1, pool.tracked());
+
+    Thread.sleep(30);
+
+    assertEquals(1, pool.detect().size());
+    assertEquals(0, pool.tracked());
+
+    pool.release(leaked);
+    assertEquals(0, pool.tracked());
+    assertEquals(0, pool.stats().inUse);
+  }
+
+  @Test
+  public void testThatReleasedLeaseIsNotDetected() throws Exception {
+    final LeakDetectingResourcePool<Integer, Void> pool = pool(1, null);
+
+    pool.release(pool.acquire());
+    assertEquals(0, pool.tracked());
+
+    Thread.sleep(30);
+
+    assertTrue(pool.detect().isEmpty());
+    assertEquals(0, pool.stats().inUse);
+  }
+
+  @Test
+  public void testThatLeasesAreSampled() {
+    final LeakDetectingResourcePool<Integer, Void> pool = pool(1_000_000, null);
+
+    for (int i = 0; i < 100; i++) {
+      pool.acquire();
+    }
+
+    assertTrue(pool.tracked() < 100);
+  }
+
+  @Test
+  public void testThatSchedulerDetectsLeaks() {
+    final Scheduler scheduler = new Scheduler();
+    final LeakDetectingResourcePool<Integer, Void> pool = pool(1, scheduler);
+    try {
+      pool.acquire();
+
+      final long deadline = System.currentTimeMillis() + 5_000;
+      while (reported.isEmpty() && System.currentTimeMillis() < deadline) {
+        Thread.yield();
+      }
+
+      assertEquals(1, reported.size());
+    } finally {
+      pool.close();
+      scheduler.close();
+    }
+  }
+
+  @Test
+  public void testConcurrent() {
+    final LeakDetectingResourcePool<Integer, Void> pool = pool(4, null);
+    testConcurrent(pool, 20, 100);
+    assertEquals(0, pool.tracked());
+    assertEquals(0, pool.stats().inUse);
+  }
+
+  private LeakDetectingResourcePool<Integer, Void> pool(final int sampleEvery, final Scheduler scheduler) {
+    return new LeakDetectingResourcePool<>(
+        new ElasticResourcePool<>(ElasticResourcePool.Config.of(2), new TestResourceFactory()),
+        LeakDetectingResourcePool.Config.of(sampleEvery, 10),
+        reported::add,
+        scheduler);
+  }
+}
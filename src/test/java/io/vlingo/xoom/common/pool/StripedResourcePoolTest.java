@@ -0,0 +1,74 @@
+package io.vlingo.xoom.common.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class StripedResourcePoolTest extends ResourcePoolTest {
+
+  private static final int minIdle = 10;
+  private static final int magazineSize = 4;
+  private static final int threads = minIdle * 10;
+  private static final int clients = threads * 2;
+
+  private final StripedResourcePool<Integer, Void> pool =
+      new StripedResourcePool<>(StripedResourcePool.Config.of(minIdle, magazineSize, 4), new TestResourceFactory());
+
+  @Test
+  public void testInitialState() {
+    assertEquals("the pool did not start with the desired number of resources",
+        minIdle, pool.size());
+
+    ResourcePoolStats stats = pool.stats();
+    assertEquals(pool.size(), stats.idle);
+    assertEquals(minIdle, stats.allocations);
+    assertEquals(0, stats.evictions);
+    assertEquals(0, stats.inUse);
+  }
+
+  @Test
+  public void testThatReleasedResourceIsReacquiredFromMagazine() {
+    final Integer resource = pool.acquire();
+    pool.release(resource);
+
+    assertSame("the resource was not reacquired from the magazine of the thread", resource, pool.acquire());
+    assertEquals(minIdle, pool.stats().allocations);
+  }
+
+  @Test
+  public void testThatFullMagazineSpillsToDepot() {
+    final List<Integer> resources = new ArrayList<>();
+    for (int i = 0; i < minIdle + magazineSize; i++) {
+      resources.add(pool.acquire());
+    }
+    resources.forEach(pool::release);
+
+    ResourcePoolStats stats = pool.stats();
+    assertEquals(minIdle + magazineSize, stats.allocations);
+    assertEquals(0, stats.inUse);
+    assertEquals(stats.idle + stats.evictions, stats.allocations);
+    assertEquals(pool.size(), stats.idle);
+  }
+
+  @Test
+  public void testConcurrent() {
+    int maxIdle = testConcurrent(pool, threads, clients);
+    ResourcePoolStats stats = pool.stats();
+    assertEquals("the number of idle in stats is not equal to the pool size",
+        stats.idle, pool.size());
+    assertEquals("the number of inUse in stats is not equal to 0",
+        0, stats.inUse);
+    assertTrue("the pool did not scale up to accommodate more threads than the initial resources",
+        maxIdle > minIdle || stats.allocations > minIdle);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatEmptyMagazineIsRejected() {
+    StripedResourcePool.Config.of(minIdle, 0);
+  }
+}